@@ -0,0 +1,61 @@
+package com.learn.benchmark;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.ObjectId;
+
+import com.learn.model.Notification;
+
+/**
+ * Representative notification payloads for the benchmarks: five rendered
+ * languages, template params and metadata of a typical backoffice send.
+ */
+final class BenchmarkData {
+
+    static final List<String> LANGUAGES = List.of("az", "en", "ru", "tr", "de");
+
+    private BenchmarkData() {
+    }
+
+    static Notification notification(String userId) {
+        Notification notification = new Notification();
+        notification.setId(new ObjectId().toHexString());
+        notification.setTemplateId("payment-received");
+        notification.setUserId(userId);
+        notification.setChannel("PUSH");
+        notification.setPriority("HIGH");
+        notification.setSourceSystem("payments");
+
+        Map<String, Notification.RenderedContent> renderedContent = new LinkedHashMap<>();
+        for (String language : LANGUAGES) {
+            renderedContent.put(language, new Notification.RenderedContent(
+                    "[" + language + "] Payment received",
+                    "[" + language + "] You received 125.40 AZN from John Doe to card *4421. "
+                            + "The amount is available on your balance. Reference: TRX-20261018-000123."));
+        }
+        notification.setRenderedContent(renderedContent);
+
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("amount", 125.40);
+        params.put("currency", "AZN");
+        params.put("sender", "John Doe");
+        params.put("cardMask", "*4421");
+        params.put("reference", "TRX-20261018-000123");
+        params.put("balanceAfter", 2310.75);
+        notification.setParams(params);
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("transactionId", "0f3c9a1e-5d2b-4c1e-9a77-2b8d6e0f4a11");
+        metadata.put("deepLink", "app://payments/transactions/0f3c9a1e");
+        metadata.put("category", "incoming-transfer");
+        metadata.put("campaign", false);
+        notification.setMetadata(metadata);
+
+        notification.setStatus(new Notification.NotificationStatus(false, false));
+        notification.setTimestamps(new Notification.NotificationTimestamps(Instant.now(), null, null));
+        return notification;
+    }
+}
@@ -0,0 +1,81 @@
+package com.learn.benchmark;
+
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+
+import com.learn.codec.NotificationCodecProvider;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * MongoDB connection for the database-backed benchmarks, configured like the
+ * application (notification codec registered with the driver). The server is
+ * taken from {@code -Dbench.mongo.uri} and must be a replica set for change
+ * streams; benchmark data goes to a throwaway {@code sse_benchmark} database.
+ */
+final class BenchmarkMongo implements AutoCloseable {
+
+    private static final String URI = System.getProperty("bench.mongo.uri",
+            "mongodb://localhost:27017/?replicaSet=rs0");
+    private static final String DATABASE = "sse_benchmark";
+
+    private final MongoClient client;
+    private final ReactiveMongoTemplate template;
+
+    BenchmarkMongo() {
+        MongoClientSettings settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(URI))
+                .codecRegistry(CodecRegistries.fromRegistries(
+                        CodecRegistries.fromProviders(new NotificationCodecProvider()),
+                        MongoClientSettings.getDefaultCodecRegistry()))
+                .build();
+        this.client = MongoClients.create(settings);
+        this.template = new ReactiveMongoTemplate(client, DATABASE);
+        Mono.from(client.getDatabase(DATABASE).drop()).block();
+    }
+
+    ReactiveMongoTemplate template() {
+        return template;
+    }
+
+    /**
+     * Server snapshot of bytes sent to clients and process CPU time
+     */
+    ServerStats serverStats() {
+        Document status = Mono.from(client.getDatabase("admin").runCommand(new Document("serverStatus", 1)))
+                .block();
+        Document network = status.get("network", Document.class);
+        Document extraInfo = status.get("extra_info", Document.class);
+        // CPU times are only reported on Linux
+        long cpuMicros = extraInfo != null && extraInfo.get("user_time_us") != null
+                ? extraInfo.get("user_time_us", Number.class).longValue()
+                        + extraInfo.get("system_time_us", Number.class).longValue()
+                : -1L;
+        return new ServerStats(network.get("bytesOut", Number.class).longValue(), cpuMicros);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    record ServerStats(long bytesOut, long cpuMicros) {
+
+        /**
+         * Prints the per-event server cost since {@code start}
+         */
+        void report(String label, ServerStats start, long events) {
+            if (events == 0) {
+                return;
+            }
+            System.out.printf("%n[%s] %d events: %.1f bytes out/event, %s Mongo CPU us/event%n", label, events,
+                    (double) (bytesOut - start.bytesOut) / events,
+                    cpuMicros < 0 ? "n/a" : String.format("%.1f", (double) (cpuMicros - start.cpuMicros) / events));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.learn.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.learn.repository.NotificationRepositoryCustomImpl;
+
+import reactor.core.Disposable;
+
+/**
+ * Change-stream payload per event under fan-out: {@code fanOut} SSE
+ * connections of the same user each watch their change stream, with and
+ * without the server-side {@code $project}. Every operation inserts one
+ * notification and waits until all connections received it.
+ *
+ * <p>
+ * JMH reports the latency; the bytes the server sent per event (from
+ * {@code serverStatus.network.bytesOut}, insert acknowledgements included on
+ * both sides) and the Mongo CPU per event are printed at the end of each trial.
+ * Needs a replica set, see {@link BenchmarkMongo}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ChangeStreamPayloadBenchmark {
+
+    private static final String USER_ID = "bench-user";
+
+    @Param({ "false", "true" })
+    public boolean trim;
+
+    @Param({ "1", "50" })
+    public int fanOut;
+
+    private final AtomicLong received = new AtomicLong();
+    private final List<Disposable> streams = new ArrayList<>();
+    private BenchmarkMongo mongo;
+    private BenchmarkMongo.ServerStats start;
+    private long events;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        mongo = new BenchmarkMongo();
+        NotificationRepositoryCustomImpl repository = new NotificationRepositoryCustomImpl(mongo.template(), null,
+                null);
+        ReflectionTestUtils.setField(repository, "trimChangeEvents", trim);
+
+        for (int i = 0; i < fanOut; i++) {
+            streams.add(repository.watchNewNotifications(USER_ID, null, List.of("en"))
+                    .subscribe(notification -> received.incrementAndGet()));
+        }
+        // Change streams open asynchronously
+        Thread.sleep(1000);
+        start = mongo.serverStats();
+    }
+
+    @Benchmark
+    public long insertAndDeliver() {
+        long target = received.get() + fanOut;
+        mongo.template().insert(BenchmarkData.notification(USER_ID)).block();
+        events++;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.get() < target) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Change events not delivered within 10s");
+            }
+            Thread.onSpinWait();
+        }
+        return target;
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongo.serverStats().report("trim=" + trim + ", fanOut=" + fanOut, start, events);
+        streams.forEach(Disposable::dispose);
+        mongo.close();
+    }
+}
@@ -0,0 +1,190 @@
+package com.learn.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.mongodb.repository.support.ReactiveMongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.learn.model.Notification;
+import com.learn.repository.NotificationRepository;
+import com.learn.repository.NotificationRepositoryCustomImpl;
+import com.learn.service.NotificationDeliveryBus;
+import com.learn.service.UserAffinityService;
+import com.learn.service.impl.ChangeStreamDeliveryBus;
+import com.learn.service.impl.InMemoryDeliveryBus;
+import com.learn.service.impl.TailableDeliveryBus;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Insert-to-delivery latency of the delivery buses with {@code connections}
+ * connected users. Every operation saves a notification for the next user,
+ * publishes it on the bus (as {@code processAndSave} does) and waits until the
+ * user's stream received it; the insert is part of every variant, so the
+ * differences are the bus cost.
+ *
+ * <p>
+ * Mongo CPU per event (from {@code serverStatus}) is printed at the end of
+ * each trial. Needs a replica set for {@code change-stream}, see
+ * {@link BenchmarkMongo}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DeliveryBusBenchmark {
+
+    @Param({ "change-stream", "tailable", "in-memory" })
+    public String bus;
+
+    @Param({ "1", "200" })
+    public int connections;
+
+    private final AtomicLong received = new AtomicLong();
+    private final List<Disposable> streams = new ArrayList<>();
+    private NotificationDeliveryBus deliveryBus;
+    private BenchmarkMongo mongo;
+    private BenchmarkMongo.ServerStats start;
+    private long events;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        mongo = new BenchmarkMongo();
+        deliveryBus = createBus();
+
+        for (int i = 0; i < connections; i++) {
+            streams.add(deliveryBus.open(userId(i), List.of("en"))
+                    .flatMapMany(stream -> stream)
+                    .subscribe(notification -> received.incrementAndGet()));
+        }
+        // Change streams and the tailable cursor open asynchronously
+        Thread.sleep(1000);
+        start = mongo.serverStats();
+    }
+
+    @Benchmark
+    public long publishAndDeliver() {
+        long target = received.get() + 1;
+        Notification notification = BenchmarkData.notification(userId((int) (events++ % connections)));
+        mongo.template().insert(notification)
+                .flatMap(deliveryBus::publish)
+                .block();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (received.get() < target) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Notification not delivered within 10s by the " + bus + " bus");
+            }
+            Thread.onSpinWait();
+        }
+        return target;
+    }
+
+    @TearDown
+    public void tearDown() {
+        mongo.serverStats().report("bus=" + bus + ", connections=" + connections, start, events);
+        streams.forEach(Disposable::dispose);
+        if (deliveryBus instanceof TailableDeliveryBus) {
+            ReflectionTestUtils.invokeMethod(deliveryBus, "stop");
+        }
+        mongo.close();
+    }
+
+    private NotificationDeliveryBus createBus() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        switch (bus) {
+            case "in-memory" -> {
+                InMemoryDeliveryBus inMemory = new InMemoryDeliveryBus(meterRegistry);
+                ReflectionTestUtils.setField(inMemory, "streamBufferSize", 256);
+                ReflectionTestUtils.invokeMethod(inMemory, "init");
+                return inMemory;
+            }
+            case "tailable" -> {
+                TailableDeliveryBus tailable = new TailableDeliveryBus(mongo.template(), meterRegistry,
+                        new NoAffinity());
+                ReflectionTestUtils.setField(tailable, "streamBufferSize", 256);
+                ReflectionTestUtils.setField(tailable, "cappedSizeBytes", 64L * 1024 * 1024);
+                ReflectionTestUtils.setField(tailable, "cappedMaxDocuments", 100_000L);
+                ReflectionTestUtils.invokeMethod(tailable, "start");
+                return tailable;
+            }
+            case "change-stream" -> {
+                NotificationRepositoryCustomImpl custom = new NotificationRepositoryCustomImpl(mongo.template(),
+                        null, null);
+                ReflectionTestUtils.setField(custom, "trimChangeEvents", false);
+                NotificationRepository repository = new ReactiveMongoRepositoryFactory(mongo.template())
+                        .getRepository(NotificationRepository.class, RepositoryFragments.just(custom));
+                ChangeStreamDeliveryBus changeStream = new ChangeStreamDeliveryBus(repository);
+                ReflectionTestUtils.setField(changeStream, "trimChangeEvents", false);
+                return changeStream;
+            }
+            default -> throw new IllegalArgumentException("Unknown bus: " + bus);
+        }
+    }
+
+    private static String userId(int index) {
+        return "bench-user-" + index;
+    }
+
+    /**
+     * Affinity mode none: the tailable bus reads every event
+     */
+    private static final class NoAffinity implements UserAffinityService {
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+
+        @Override
+        public int slotOf(String userId) {
+            return 0;
+        }
+
+        @Override
+        public String ownerOf(String userId) {
+            return null;
+        }
+
+        @Override
+        public boolean isLocalOwner(String userId) {
+            return true;
+        }
+
+        @Override
+        public Optional<String> redirectTarget(String userId) {
+            return Optional.empty();
+        }
+
+        @Override
+        public boolean filtersDelivery() {
+            return false;
+        }
+
+        @Override
+        public Flux<Set<Integer>> ownedSlots() {
+            return Flux.just(Set.of(0));
+        }
+
+        @Override
+        public Mono<Boolean> refreshMembership() {
+            return Mono.just(false);
+        }
+    }
+}
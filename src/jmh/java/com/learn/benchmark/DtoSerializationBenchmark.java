@@ -0,0 +1,106 @@
+package com.learn.benchmark;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.learn.codec.PrebuiltJsonSerializer;
+import com.learn.codec.PrebuiltWriterJsonEncoder;
+import com.learn.dto.NotificationDTO;
+import com.learn.dto.NotificationRequestDTO;
+import com.learn.model.Notification;
+
+import io.netty.buffer.PooledByteBufAllocator;
+
+/**
+ * Serialization cost per event of the hot DTOs: the default WebFlux / Kafka
+ * encoders against the pre-built writer encoders with Blackbird. The WebFlux
+ * variants encode into pooled Netty buffers, as on a live SSE connection.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class DtoSerializationBenchmark {
+
+    private static final ResolvableType DTO_TYPE = ResolvableType.forClass(NotificationDTO.class);
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+    private NotificationDTO event;
+    private NotificationRequestDTO request;
+    private Jackson2JsonEncoder defaultEncoder;
+    private PrebuiltWriterJsonEncoder prebuiltEncoder;
+    private JsonSerializer<Object> defaultSerializer;
+    private PrebuiltJsonSerializer prebuiltSerializer;
+
+    @Setup
+    public void setUp() {
+        Notification notification = BenchmarkData.notification("user-1");
+        event = NotificationDTO.fromNotification(notification, "en");
+
+        request = new NotificationRequestDTO();
+        request.setTemplateId("payment-received");
+        request.setUserId("user-1");
+        request.setChannel("PUSH");
+        request.setPriority("HIGH");
+        request.setSourceSystem("payments");
+        request.setParams(notification.getParams());
+        request.setMetadata(notification.getMetadata());
+        request.setExpiresAt(Instant.now().plusSeconds(3600));
+
+        // Same mapper defaults Boot builds; Blackbird only on the tuned side
+        ObjectMapper defaultMapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper tunedMapper = Jackson2ObjectMapperBuilder.json().build().registerModule(new BlackbirdModule());
+        defaultEncoder = new Jackson2JsonEncoder(defaultMapper);
+        prebuiltEncoder = new PrebuiltWriterJsonEncoder(tunedMapper, Set.of(NotificationDTO.class));
+
+        defaultSerializer = new JsonSerializer<>();
+        defaultSerializer.setAddTypeInfo(false);
+        prebuiltSerializer = new PrebuiltJsonSerializer();
+    }
+
+    @Benchmark
+    public int webfluxDefaultEncoder() {
+        return encodeAndRelease(defaultEncoder);
+    }
+
+    @Benchmark
+    public int webfluxPrebuiltEncoder() {
+        return encodeAndRelease(prebuiltEncoder);
+    }
+
+    @Benchmark
+    public byte[] kafkaDefaultSerializer() {
+        return defaultSerializer.serialize("notifications", request);
+    }
+
+    @Benchmark
+    public byte[] kafkaPrebuiltSerializer() {
+        return prebuiltSerializer.serialize("notifications", request);
+    }
+
+    private int encodeAndRelease(Jackson2JsonEncoder encoder) {
+        DataBuffer buffer = encoder.encodeValue(event, bufferFactory, DTO_TYPE, MediaType.APPLICATION_JSON, null);
+        int size = buffer.readableByteCount();
+        DataBufferUtils.release(buffer);
+        return size;
+    }
+}
@@ -0,0 +1,104 @@
+package com.learn.benchmark;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonBinaryWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.io.BasicOutputBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import com.learn.codec.NotificationCodecProvider;
+import com.learn.model.Notification;
+import com.mongodb.MongoClientSettings;
+
+/**
+ * {@code NotificationCodec} against the path it replaces: the driver's
+ * {@code Document} codec plus Spring Data's {@code MappingMongoConverter}, set
+ * up the way Boot configures it. Both sides start from / end in BSON bytes, so
+ * the numbers are the per-document CPU cost of a read or a write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class NotificationCodecBenchmark {
+
+    private Codec<Notification> notificationCodec;
+    private Codec<Document> documentCodec;
+    private MappingMongoConverter converter;
+    private Notification notification;
+    private byte[] bson;
+
+    @Setup
+    public void setUp() {
+        CodecRegistry registry = CodecRegistries.fromRegistries(
+                CodecRegistries.fromProviders(new NotificationCodecProvider()),
+                MongoClientSettings.getDefaultCodecRegistry());
+        notificationCodec = registry.get(Notification.class);
+        documentCodec = registry.get(Document.class);
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        notification = BenchmarkData.notification("user-1");
+        bson = encode(notificationCodec, notification);
+    }
+
+    @Benchmark
+    public byte[] encodeCodec() {
+        return encode(notificationCodec, notification);
+    }
+
+    @Benchmark
+    public byte[] encodeConverter() {
+        Document document = new Document();
+        converter.write(notification, document);
+        return encode(documentCodec, document);
+    }
+
+    @Benchmark
+    public Notification decodeCodec() {
+        return decode(notificationCodec);
+    }
+
+    @Benchmark
+    public Notification decodeConverter() {
+        return converter.read(Notification.class, decode(documentCodec));
+    }
+
+    private static <T> byte[] encode(Codec<T> codec, T value) {
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            codec.encode(writer, value, EncoderContext.builder().isEncodingCollectibleDocument(true).build());
+        }
+        return buffer.toByteArray();
+    }
+
+    private <T> T decode(Codec<T> codec) {
+        try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bson))) {
+            return codec.decode(reader, DecoderContext.builder().build());
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.learn.codec;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bson.BsonObjectId;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.BsonWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.CollectibleCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.bson.types.ObjectId;
+
+import com.learn.model.Notification;
+
+/**
+ * Hand-written BSON codec for {@link Notification}.
+ *
+ * <p>
+ * Reads and writes the same document layout as Spring Data's
+ * {@code MappingMongoConverter} (hex ids stored as {@code ObjectId}, instants
+ * as BSON dates, {@code _class} hint on the root) but without reflection or
+ * type-hint lookups, so it is used on the hot change-stream and list paths.
+ * Unknown fields are skipped and missing fields are left {@code null}.
+ */
+public class NotificationCodec implements CollectibleCodec<Notification> {
+
+    private static final String TYPE_HINT = Notification.class.getName();
+
+    private final Codec<Document> documentCodec;
+
+    public NotificationCodec(CodecRegistry registry) {
+        this.documentCodec = registry.get(Document.class);
+    }
+
+    @Override
+    public Class<Notification> getEncoderClass() {
+        return Notification.class;
+    }
+
+    @Override
+    public Notification decode(BsonReader reader, DecoderContext decoderContext) {
+        Notification notification = new Notification();
+
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (reader.getCurrentBsonType() == BsonType.NULL) {
+                reader.readNull();
+                continue;
+            }
+
+            switch (name) {
+                case "_id" -> notification.setId(readId(reader));
+                case "templateId" -> notification.setTemplateId(reader.readString());
+                case "userId" -> notification.setUserId(reader.readString());
+                case "channel" -> notification.setChannel(reader.readString());
+                case "subject" -> notification.setSubject(reader.readString());
+                case "content" -> notification.setContent(reader.readString());
+                case "renderedContent" -> notification.setRenderedContent(readRenderedContent(reader));
+                case "contentRef" -> notification.setContentRef(reader.readString());
+                case "params" -> notification.setParams(readMap(reader, decoderContext));
+                case "metadata" -> notification.setMetadata(readMap(reader, decoderContext));
+                case "status" -> notification.setStatus(readStatus(reader));
+                case "timestamps" -> notification.setTimestamps(readTimestamps(reader));
+                case "priority" -> notification.setPriority(reader.readString());
+                case "sourceSystem" -> notification.setSourceSystem(reader.readString());
+                case "disabled" -> notification.setDisabled(reader.readBoolean());
+                case "expiresAt" -> notification.setExpiresAt(Instant.ofEpochMilli(reader.readDateTime()));
+                case "collapseKey" -> notification.setCollapseKey(reader.readString());
+                case "broadcastId" -> notification.setBroadcastId(reader.readString());
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+
+        return notification;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Notification notification, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+
+        if (notification.getId() != null) {
+            writer.writeName("_id");
+            writeId(writer, notification.getId());
+        }
+        writeString(writer, "templateId", notification.getTemplateId());
+        writeString(writer, "userId", notification.getUserId());
+        writeString(writer, "channel", notification.getChannel());
+        writeString(writer, "subject", notification.getSubject());
+        writeString(writer, "content", notification.getContent());
+
+        if (notification.getRenderedContent() != null) {
+            writer.writeStartDocument("renderedContent");
+            for (Map.Entry<String, Notification.RenderedContent> entry : notification.getRenderedContent()
+                    .entrySet()) {
+                writer.writeStartDocument(entry.getKey());
+                writeString(writer, "subject", entry.getValue().getSubject());
+                writeString(writer, "content", entry.getValue().getContent());
+                writer.writeEndDocument();
+            }
+            writer.writeEndDocument();
+        }
+        writeString(writer, "contentRef", notification.getContentRef());
+
+        writeMap(writer, "params", notification.getParams(), encoderContext);
+        writeMap(writer, "metadata", notification.getMetadata(), encoderContext);
+
+        if (notification.getStatus() != null) {
+            writer.writeStartDocument("status");
+            writer.writeBoolean("sent", notification.getStatus().isSent());
+            writer.writeBoolean("read", notification.getStatus().isRead());
+            writer.writeEndDocument();
+        }
+
+        if (notification.getTimestamps() != null) {
+            writer.writeStartDocument("timestamps");
+            writeInstant(writer, "createdAt", notification.getTimestamps().getCreatedAt());
+            writeInstant(writer, "sentAt", notification.getTimestamps().getSentAt());
+            writeInstant(writer, "readAt", notification.getTimestamps().getReadAt());
+            writeInstant(writer, "fallbackAt", notification.getTimestamps().getFallbackAt());
+            writeInstant(writer, "fallbackClaimedAt", notification.getTimestamps().getFallbackClaimedAt());
+            writer.writeEndDocument();
+        }
+
+        writeString(writer, "priority", notification.getPriority());
+        writeString(writer, "sourceSystem", notification.getSourceSystem());
+        writer.writeBoolean("disabled", notification.isDisabled());
+        writeInstant(writer, "expiresAt", notification.getExpiresAt());
+        writeString(writer, "collapseKey", notification.getCollapseKey());
+        writeString(writer, "broadcastId", notification.getBroadcastId());
+        writer.writeString("_class", TYPE_HINT);
+
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Notification generateIdIfAbsentFromDocument(Notification notification) {
+        if (!documentHasId(notification)) {
+            notification.setId(new ObjectId().toHexString());
+        }
+        return notification;
+    }
+
+    @Override
+    public boolean documentHasId(Notification notification) {
+        return notification.getId() != null;
+    }
+
+    @Override
+    public BsonValue getDocumentId(Notification notification) {
+        if (!documentHasId(notification)) {
+            throw new IllegalStateException("The notification does not contain an _id");
+        }
+        String id = notification.getId();
+        return ObjectId.isValid(id) ? new BsonObjectId(new ObjectId(id)) : new BsonString(id);
+    }
+
+    // Read helpers
+
+    private String readId(BsonReader reader) {
+        return reader.getCurrentBsonType() == BsonType.OBJECT_ID
+                ? reader.readObjectId().toHexString()
+                : reader.readString();
+    }
+
+    private Map<String, Notification.RenderedContent> readRenderedContent(BsonReader reader) {
+        Map<String, Notification.RenderedContent> renderedContent = new LinkedHashMap<>();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String language = reader.readName();
+            Notification.RenderedContent content = new Notification.RenderedContent();
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                String name = reader.readName();
+                if (reader.getCurrentBsonType() == BsonType.NULL) {
+                    reader.readNull();
+                } else if ("subject".equals(name)) {
+                    content.setSubject(reader.readString());
+                } else if ("content".equals(name)) {
+                    content.setContent(reader.readString());
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.readEndDocument();
+            renderedContent.put(language, content);
+        }
+        reader.readEndDocument();
+        return renderedContent;
+    }
+
+    private Map<String, Object> readMap(BsonReader reader, DecoderContext decoderContext) {
+        // Free-form values: delegate to the registry's document codec
+        return new LinkedHashMap<>(documentCodec.decode(reader, decoderContext));
+    }
+
+    private Notification.NotificationStatus readStatus(BsonReader reader) {
+        Notification.NotificationStatus status = new Notification.NotificationStatus();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if ("sent".equals(name)) {
+                status.setSent(reader.readBoolean());
+            } else if ("read".equals(name)) {
+                status.setRead(reader.readBoolean());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return status;
+    }
+
+    private Notification.NotificationTimestamps readTimestamps(BsonReader reader) {
+        Notification.NotificationTimestamps timestamps = new Notification.NotificationTimestamps();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            if (reader.getCurrentBsonType() != BsonType.DATE_TIME) {
+                reader.skipValue();
+                continue;
+            }
+            Instant value = Instant.ofEpochMilli(reader.readDateTime());
+            switch (name) {
+                case "createdAt" -> timestamps.setCreatedAt(value);
+                case "sentAt" -> timestamps.setSentAt(value);
+                case "readAt" -> timestamps.setReadAt(value);
+                case "fallbackAt" -> timestamps.setFallbackAt(value);
+                case "fallbackClaimedAt" -> timestamps.setFallbackClaimedAt(value);
+                default -> {
+                    // Unknown timestamp, ignored
+                }
+            }
+        }
+        reader.readEndDocument();
+        return timestamps;
+    }
+
+    // Write helpers
+
+    private void writeId(BsonWriter writer, String id) {
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId(new ObjectId(id));
+        } else {
+            writer.writeString(id);
+        }
+    }
+
+    private void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    private void writeInstant(BsonWriter writer, String name, Instant value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.toEpochMilli());
+        }
+    }
+
+    private void writeMap(BsonWriter writer, String name, Map<String, Object> value, EncoderContext encoderContext) {
+        if (value != null) {
+            writer.writeName(name);
+            encoderContext.encodeWithChildContext(documentCodec, writer, new Document(value));
+        }
+    }
+}
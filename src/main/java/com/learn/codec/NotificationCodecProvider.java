@@ -0,0 +1,22 @@
+package com.learn.codec;
+
+import org.bson.codecs.Codec;
+import org.bson.codecs.configuration.CodecProvider;
+import org.bson.codecs.configuration.CodecRegistry;
+
+import com.learn.model.Notification;
+
+/**
+ * Provides {@link NotificationCodec} to the driver's codec registry
+ */
+public class NotificationCodecProvider implements CodecProvider {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Codec<T> get(Class<T> clazz, CodecRegistry registry) {
+        if (clazz == Notification.class) {
+            return (Codec<T>) new NotificationCodec(registry);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.learn.codec;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.JacksonUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.learn.dto.NotificationRequestDTO;
+
+/**
+ * Kafka value serializer with pre-resolved {@link ObjectWriter}s.
+ *
+ * <p>
+ * Drop-in replacement for Spring Kafka's {@code JsonSerializer} without type
+ * headers: same object mapper defaults plus Blackbird, and one cached writer
+ * per value class ({@link NotificationRequestDTO} is resolved up front).
+ */
+public class PrebuiltJsonSerializer implements Serializer<Object> {
+
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper()
+            .registerModule(new BlackbirdModule());
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public PrebuiltJsonSerializer() {
+        writers.put(NotificationRequestDTO.class, objectMapper.writerFor(NotificationRequestDTO.class));
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return writers.computeIfAbsent(data.getClass(), objectMapper::writerFor).writeValueAsBytes(data);
+        } catch (Exception ex) {
+            throw new SerializationException("Can't serialize data [" + data + "] for topic [" + topic + "]", ex);
+        }
+    }
+}
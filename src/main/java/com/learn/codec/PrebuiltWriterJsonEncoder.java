@@ -0,0 +1,70 @@
+package com.learn.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.core.ResolvableType;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.codec.Hints;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.json.Jackson2CodecSupport;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.util.MimeType;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * JSON encoder with pre-resolved {@link ObjectWriter}s for the hot DTOs.
+ *
+ * <p>
+ * The default encoder resolves a writer per value and buffers the output in a
+ * byte array before copying it into a {@link DataBuffer}. For the registered
+ * types the cached writer serializes straight into a buffer taken from the
+ * response's factory (pooled Netty buffers on Reactor Netty). Any other type,
+ * or a value carrying a JSON view hint, goes through the default path.
+ */
+public class PrebuiltWriterJsonEncoder extends Jackson2JsonEncoder {
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public PrebuiltWriterJsonEncoder(ObjectMapper objectMapper, Set<Class<?>> hotTypes, MimeType... mimeTypes) {
+        super(objectMapper, mimeTypes);
+        for (Class<?> type : hotTypes) {
+            writers.put(type, objectMapper.writerFor(type));
+        }
+    }
+
+    @Override
+    public DataBuffer encodeValue(Object value, DataBufferFactory bufferFactory, ResolvableType valueType,
+            MimeType mimeType, Map<String, Object> hints) {
+        ObjectWriter writer = value != null ? writers.get(value.getClass()) : null;
+        if (writer == null || (hints != null && hints.containsKey(Jackson2CodecSupport.JSON_VIEW_HINT))) {
+            return super.encodeValue(value, bufferFactory, valueType, mimeType, hints);
+        }
+
+        DataBuffer buffer = bufferFactory.allocateBuffer(INITIAL_BUFFER_SIZE);
+        boolean release = true;
+        try (OutputStream outputStream = buffer.asOutputStream()) {
+            writer.writeValue(outputStream, value);
+            release = false;
+            if (!Hints.isLoggingSuppressed(hints) && logger.isDebugEnabled()) {
+                logger.debug(Hints.getLogPrefix(hints) + "Encoding [" + value.getClass().getSimpleName() + "]");
+            }
+            return buffer;
+        } catch (IOException ex) {
+            throw new EncodingException("JSON encoding error: " + ex.getMessage(), ex);
+        } finally {
+            if (release) {
+                DataBufferUtils.release(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.learn.config;
+
+import java.util.Set;
+
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.learn.codec.PrebuiltWriterJsonEncoder;
+import com.learn.dto.NotificationDTO;
+import com.learn.dto.NotificationResponseDTO;
+import com.learn.dto.UnreadCountDTO;
+
+/**
+ * Tuned JSON encoding for the WebFlux responses and SSE events.
+ * <p>
+ * The Blackbird module bean is picked up by the auto-configured
+ * {@link ObjectMapper}; the encoder with cached writers replaces the default
+ * Jackson encoder after Boot's own codec customizer has run.
+ */
+@Configuration
+public class JacksonCodecConfig {
+
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public CodecCustomizer prebuiltWriterCodecCustomizer(ObjectMapper objectMapper) {
+        return configurer -> configurer.defaultCodecs().jackson2JsonEncoder(new PrebuiltWriterJsonEncoder(
+                objectMapper, Set.of(NotificationDTO.class, NotificationResponseDTO.class, UnreadCountDTO.class)));
+    }
+}
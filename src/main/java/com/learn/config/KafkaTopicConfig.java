@@ -0,0 +1,79 @@
+package com.learn.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * Declares the priority lane and deferred topics introduced next to the
+ * original request topic (which stays the NORMAL lane and is provisioned
+ * externally), the outbound fallback topic with its dead-letter topic and the session commands topic. Existing topics are left
+ * untouched by the admin client.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Value("${app.kafka.lanes.partitions}")
+    private int partitions;
+
+    @Bean
+    public NewTopic urgentNotificationRequestsTopic(
+            @Value("${app.kafka.topics.notification-requests-urgent}") String topic) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+
+    @Bean
+    public NewTopic highNotificationRequestsTopic(
+            @Value("${app.kafka.topics.notification-requests-high}") String topic) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+
+    @Bean
+    public NewTopic lowNotificationRequestsTopic(
+            @Value("${app.kafka.topics.notification-requests-low}") String topic) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+
+    @Bean
+    public NewTopic deferredNotificationRequestsTopic(
+            @Value("${app.kafka.topics.notification-requests-deferred}") String topic) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+
+    /**
+     * Notifications not delivered over SSE in time, for the outbound channel
+     * workers
+     */
+    @Bean
+    public NewTopic outboundNotificationsTopic(
+            @Value("${app.kafka.topics.notification-outbound}") String topic) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+
+    /**
+     * Outbound polls that failed every retry; same partitioning as the outbound
+     * topic
+     */
+    @Bean
+    public NewTopic outboundNotificationsDeadLetterTopic(
+            @Value("${app.kafka.topics.notification-outbound-dlt}") String topic) {
+        return TopicBuilder.name(topic).partitions(partitions).build();
+    }
+
+    /**
+     * Close commands between nodes: every node reads all of it, and commands
+     * are only relevant for a short while
+     */
+    @Bean
+    public NewTopic sessionCommandsTopic(
+            @Value("${app.kafka.topics.session-commands}") String topic,
+            @Value("${app.session-directory.command-retention-ms}") long retentionMs) {
+        return TopicBuilder.name(topic)
+                .partitions(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(retentionMs))
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.learn.config;
+
+import org.bson.codecs.configuration.CodecRegistries;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.learn.codec.NotificationCodecProvider;
+import com.mongodb.MongoClientSettings;
+
+/**
+ * Registers the hand-written {@code Notification} codec with the MongoDB
+ * driver, ahead of the default codecs.
+ * <p>
+ * Spring Data repositories keep using the mapping converter; the raw driver
+ * paths (change stream, history list, SSE backlog) decode through the codec.
+ */
+@Configuration
+public class MongoCodecConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer notificationCodecCustomizer() {
+        return builder -> builder.codecRegistry(CodecRegistries.fromRegistries(
+                CodecRegistries.fromProviders(new NotificationCodecProvider()),
+                MongoClientSettings.getDefaultCodecRegistry()));
+    }
+}
@@ -0,0 +1,119 @@
+package com.learn.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.learn.model.Broadcast;
+import com.learn.model.ClusterNode;
+import com.learn.model.Notification;
+import com.learn.model.NotificationArchiveBucket;
+import com.learn.model.NotificationDedupEntry;
+import com.learn.model.ScheduledNotification;
+import com.learn.model.SseSessionEntry;
+import com.learn.model.UnreadCounter;
+import com.learn.model.UserTombstone;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Creates the indexes used by the query paths and background jobs.
+ * <p>
+ * Auto index creation is disabled in Spring Data MongoDB, so indexes are
+ * ensured explicitly on startup. Creating an existing index is a no-op.
+ */
+@Component
+public class MongoIndexConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public MongoIndexConfig(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        Flux.concat(
+                // History/list queries and the SSE backlog query
+                mongoTemplate.indexOps(Notification.class).ensureIndex(new Index()
+                        .on("userId", Sort.Direction.ASC)
+                        .on("disabled", Sort.Direction.ASC)
+                        .on("timestamps.createdAt", Sort.Direction.DESC)
+                        .named("user_disabled_created")),
+                // Expiring notifications (OTPs, flash offers); documents without expiresAt never expire
+                mongoTemplate.indexOps(Notification.class).ensureIndex(new Index()
+                        .on("expiresAt", Sort.Direction.ASC)
+                        .expire(0)
+                        .named("expires_at_ttl")),
+                // At most one notification per user + collapse key
+                mongoTemplate.indexOps(Notification.class).ensureIndex(new Index()
+                        .on("userId", Sort.Direction.ASC)
+                        .on("collapseKey", Sort.Direction.ASC)
+                        .unique()
+                        .partial(PartialIndexFilter.of(Criteria.where("collapseKey").exists(true)))
+                        .named("user_collapse_key")),
+                // Archive job scan
+                mongoTemplate.indexOps(Notification.class).ensureIndex(new Index()
+                        .on("timestamps.createdAt", Sort.Direction.ASC)
+                        .named("created")),
+                mongoTemplate.indexOps(NotificationArchiveBucket.class).ensureIndex(new Index()
+                        .on("userId", Sort.Direction.ASC)
+                        .on("generation", Sort.Direction.ASC)
+                        .on("month", Sort.Direction.DESC)
+                        .named("user_generation_month")),
+                // Archive each notification once, also across retries and nodes
+                mongoTemplate.indexOps(NotificationArchiveBucket.class).ensureIndex(new Index()
+                        .on("notificationIds", Sort.Direction.ASC)
+                        .unique()
+                        .partial(PartialIndexFilter.of(Criteria.where("notificationIds").exists(true)))
+                        .named("notification_ids")),
+                // Pending tombstones, least recently compacted first
+                mongoTemplate.indexOps(UserTombstone.class).ensureIndex(new Index()
+                        .on("compactionPending", Sort.Direction.ASC)
+                        .on("compactionAttemptAt", Sort.Direction.ASC)
+                        .named("compaction_pending_attempt")),
+                mongoTemplate.indexOps(UnreadCounter.class).ensureIndex(new Index()
+                        .on("reconciledAt", Sort.Direction.ASC)
+                        .named("reconciled")),
+                // Pending scheduled notifications loaded on partition assignment
+                mongoTemplate.indexOps(ScheduledNotification.class).ensureIndex(new Index()
+                        .on("topic", Sort.Direction.ASC)
+                        .on("partition", Sort.Direction.ASC)
+                        .named("topic_partition")),
+                // Pending broadcast lookup on SSE connect (segment match + created range)
+                mongoTemplate.indexOps(Broadcast.class).ensureIndex(new Index()
+                        .on("segment", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.DESC)
+                        .named("segment_created")),
+                mongoTemplate.indexOps(Broadcast.class).ensureIndex(new Index()
+                        .on("expiresAt", Sort.Direction.ASC)
+                        .expire(0)
+                        .named("expires_at_ttl")),
+                // Dedup claims; the unique _id is the cross-node guard, this only cleans up
+                mongoTemplate.indexOps(NotificationDedupEntry.class).ensureIndex(new Index()
+                        .on("expiresAt", Sort.Direction.ASC)
+                        .expire(0)
+                        .named("expires_at_ttl")),
+                // Session directory entries of nodes that stopped sending heartbeats
+                mongoTemplate.indexOps(SseSessionEntry.class).ensureIndex(new Index()
+                        .on("expiresAt", Sort.Direction.ASC)
+                        .expire(0)
+                        .named("expires_at_ttl")),
+                // Affinity ring members that stopped sending heartbeats
+                mongoTemplate.indexOps(ClusterNode.class).ensureIndex(new Index()
+                        .on("expiresAt", Sort.Direction.ASC)
+                        .expire(0)
+                        .named("expires_at_ttl")))
+                .doOnNext(indexName -> log.debug("Ensured MongoDB index: {}", indexName))
+                .subscribe(null, error -> log.warn("Failed to ensure MongoDB indexes: {}", error.getMessage(), error));
+    }
+}
@@ -0,0 +1,60 @@
+package com.learn.config;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+/**
+ * Listener container of the outbound dispatch consumer.
+ * <p>
+ * A failed poll (provider outage, open circuit, dispatch timeout) is retried
+ * as a whole with exponential backoff while the consumer stays paused on its
+ * partitions; the backoff is capped near the circuit open time so retries
+ * land once the circuit half-opens. After the last retry the records are
+ * published to the outbound dead-letter topic (same partition) instead of
+ * being dropped with the committed offset.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.outbound.enabled", havingValue = "true")
+public class OutboundKafkaConfig {
+
+    @Value("${app.kafka.topics.notification-outbound-dlt}")
+    private String deadLetterTopic;
+
+    @Value("${app.outbound.consumer-retry.initial-interval-ms}")
+    private long initialIntervalMs;
+
+    @Value("${app.outbound.consumer-retry.max-interval-ms}")
+    private long maxIntervalMs;
+
+    @Value("${app.outbound.consumer-retry.max-retries}")
+    private int maxRetries;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> outboundListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            KafkaTemplate<Object, Object> kafkaTemplate) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(maxRetries);
+        backOff.setInitialInterval(initialIntervalMs);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(maxIntervalMs);
+
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, error) -> new TopicPartition(deadLetterTopic, record.partition()));
+        factory.setCommonErrorHandler(new DefaultErrorHandler(recoverer, backOff));
+        return factory;
+    }
+}
@@ -1,15 +1,36 @@
 package com.learn.consumer;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.common.TopicPartition;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 
 import com.learn.dto.NotificationRequestDTO;
+import com.learn.model.PriorityLane;
+import com.learn.service.DeduplicationService;
 import com.learn.service.NotificationService;
+import com.learn.service.ScheduledNotificationService;
+import com.learn.service.SourceFairScheduler;
+import com.learn.service.impl.PriorityLaneMetrics;
+
+import reactor.core.publisher.Mono;
 
 /**
  * Kafka consumer for processing notification creation requests.
@@ -43,16 +64,72 @@ import com.learn.service.NotificationService;
  * <li><b>Monitoring:</b> Single point to monitor/debug processing</li>
  * <li><b>Retry Logic:</b> Unified error handling and retry mechanism</li>
  * </ul>
+ *
+ * <h3>Scheduled Notifications:</h3>
+ * Requests with a future {@code sendAt} are stored as pending before the
+ * offset is committed and armed in the timing wheel of the node owning the
+ * partition. Partition assignment loads a partition's pending requests;
+ * revocation drops its timers.
+ *
+ * <h3>Priority Lanes:</h3>
+ * Each priority has its own topic (NORMAL keeps the original topic) and its
+ * own listener container. Lanes are weighted through listener concurrency and
+ * {@code max.poll.records}, so an URGENT request never waits behind a flood of
+ * LOW ones in the same partition or consumer thread.
+ *
+ * <h3>Source Fairness:</h3>
+ * Except for the URGENT lane, processing goes through a weighted fair queue
+ * per source system. When a source exceeds its quota the request is parked on
+ * the deferred topic, whose listener waits briefly for room in that source's
+ * queue and parks the request again otherwise: a flooding upstream only delays
+ * itself.
+ *
+ * <h3>Content Deduplication:</h3>
+ * When enabled, a request with the same (userId, templateId, params) as one
+ * processed within the dedup window is dropped before rendering and
+ * persistence.
  */
 @Component
-public class NotificationConsumer {
+public class NotificationConsumer implements ConsumerSeekAware {
 
         private static final Logger log = LoggerFactory.getLogger(NotificationConsumer.class);
+        private static final Duration SCHEDULE_TIMEOUT = Duration.ofSeconds(10);
 
         private final NotificationService notificationService;
+        private final ScheduledNotificationService scheduledNotificationService;
+        private final PriorityLaneMetrics priorityLaneMetrics;
+        private final SourceFairScheduler sourceFairScheduler;
+        private final KafkaTemplate<String, NotificationRequestDTO> kafkaTemplate;
+        private final DeduplicationService deduplicationService;
 
-        public NotificationConsumer(NotificationService notificationService) {
+        @Value("${app.kafka.topics.notification-requests-deferred}")
+        private String deferredRequestsTopic;
+
+        @Value("${app.kafka.lanes.deferred.wait-ms}")
+        private long deferredWaitMs;
+
+        public NotificationConsumer(NotificationService notificationService,
+                        ScheduledNotificationService scheduledNotificationService,
+                        PriorityLaneMetrics priorityLaneMetrics,
+                        SourceFairScheduler sourceFairScheduler,
+                        KafkaTemplate<String, NotificationRequestDTO> kafkaTemplate,
+                        DeduplicationService deduplicationService) {
                 this.notificationService = notificationService;
+                this.scheduledNotificationService = scheduledNotificationService;
+                this.priorityLaneMetrics = priorityLaneMetrics;
+                this.sourceFairScheduler = sourceFairScheduler;
+                this.kafkaTemplate = kafkaTemplate;
+                this.deduplicationService = deduplicationService;
+        }
+
+        @Override
+        public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+                byTopic(assignments.keySet()).forEach(scheduledNotificationService::onPartitionsAssigned);
+        }
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                byTopic(partitions).forEach(scheduledNotificationService::onPartitionsRevoked);
         }
 
         /**
@@ -77,11 +154,93 @@ public class NotificationConsumer {
          *                       language in DTO)
          * @param notificationId Pre-generated notification ID from REST API (optional -
          *                       generates if null)
+         * @param topic          Topic the request arrived on
+         * @param partition      Partition the request arrived on
+         * @param timestamp      Record timestamp (publish time)
          */
-        @KafkaListener(topics = "${app.kafka.topics.notification-requests}", groupId = "${app.kafka.consumer.group-id}")
+        @KafkaListener(topics = "${app.kafka.topics.notification-requests}", groupId = "${app.kafka.consumer.group-id}",
+                        concurrency = "${app.kafka.lanes.normal.concurrency}",
+                        properties = "max.poll.records=${app.kafka.lanes.normal.max-poll-records}")
         public void consumeNotificationRequest(
                         @Payload NotificationRequestDTO request,
-                        @Header(value = "notificationId", required = false) String notificationId) {
+                        @Header(value = "notificationId", required = false) String notificationId,
+                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                        @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
+                consume(PriorityLane.NORMAL, request, notificationId, topic, partition, timestamp);
+        }
+
+        /**
+         * URGENT lane (security alerts, OTPs)
+         */
+        @KafkaListener(topics = "${app.kafka.topics.notification-requests-urgent}", groupId = "${app.kafka.consumer.group-id}",
+                        concurrency = "${app.kafka.lanes.urgent.concurrency}",
+                        properties = "max.poll.records=${app.kafka.lanes.urgent.max-poll-records}")
+        public void consumeUrgentNotificationRequest(
+                        @Payload NotificationRequestDTO request,
+                        @Header(value = "notificationId", required = false) String notificationId,
+                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                        @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
+                consume(PriorityLane.URGENT, request, notificationId, topic, partition, timestamp);
+        }
+
+        /**
+         * HIGH lane
+         */
+        @KafkaListener(topics = "${app.kafka.topics.notification-requests-high}", groupId = "${app.kafka.consumer.group-id}",
+                        concurrency = "${app.kafka.lanes.high.concurrency}",
+                        properties = "max.poll.records=${app.kafka.lanes.high.max-poll-records}")
+        public void consumeHighNotificationRequest(
+                        @Payload NotificationRequestDTO request,
+                        @Header(value = "notificationId", required = false) String notificationId,
+                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                        @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
+                consume(PriorityLane.HIGH, request, notificationId, topic, partition, timestamp);
+        }
+
+        /**
+         * LOW lane (marketing campaigns)
+         */
+        @KafkaListener(topics = "${app.kafka.topics.notification-requests-low}", groupId = "${app.kafka.consumer.group-id}",
+                        concurrency = "${app.kafka.lanes.low.concurrency}",
+                        properties = "max.poll.records=${app.kafka.lanes.low.max-poll-records}")
+        public void consumeLowNotificationRequest(
+                        @Payload NotificationRequestDTO request,
+                        @Header(value = "notificationId", required = false) String notificationId,
+                        @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                        @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                        @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
+                consume(PriorityLane.LOW, request, notificationId, topic, partition, timestamp);
+        }
+
+        /**
+         * Requests parked because their source system exceeded its quota. Waits
+         * briefly for room in that source's queue, then parks the request again, so
+         * a source stuck over quota delays the other sources' deferred records by at
+         * most the wait. Few records per poll keep the blocking poll well within
+         * {@code max.poll.interval.ms}.
+         */
+        @KafkaListener(topics = "${app.kafka.topics.notification-requests-deferred}", groupId = "${app.kafka.consumer.group-id}",
+                        concurrency = "${app.kafka.lanes.deferred.concurrency}",
+                        properties = "max.poll.records=${app.kafka.lanes.deferred.max-poll-records}")
+        public void consumeDeferredNotificationRequest(
+                        @Payload NotificationRequestDTO request,
+                        @Header(value = "notificationId", required = false) String notificationId,
+                        @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) throws InterruptedException {
+                PriorityLane lane = PriorityLane.of(request.getPriority());
+                boolean queued = sourceFairScheduler.offer(request.getSourceSystem(),
+                                () -> process(lane, request, notificationId, timestamp),
+                                Duration.ofMillis(deferredWaitMs));
+                if (!queued) {
+                        // Still over quota: back to the end of the deferred topic
+                        defer(request, notificationId);
+                }
+        }
+
+        private void consume(PriorityLane lane, NotificationRequestDTO request, String notificationId,
+                        String topic, int partition, long timestamp) {
 
                 // Generate notification ID if not provided (for external Kafka publishers)
                 String finalNotificationId = (notificationId != null && !notificationId.isEmpty())
@@ -92,16 +251,28 @@ public class NotificationConsumer {
                                 request.getUserId(), request.getTemplateId(), finalNotificationId);
 
                 try {
-                        // Process notification: render template in ALL languages → save to MongoDB with ID
-                        notificationService.processAndSaveNotification(request, finalNotificationId)
-                                        .doOnSuccess(
-                                                        savedId -> log.debug(
-                                                                        "Kafka: Notification created successfully: {} for user: {} (rendered in all languages)",
-                                                                        savedId, request.getUserId()))
-                                        .doOnError(error -> log.error(
-                                                        "Kafka: Failed to process notification request for user {}: {}",
-                                                        request.getUserId(), error.getMessage(), error))
-                                        .subscribe(); // Subscribe to trigger the reactive chain
+                        // Future sendAt: persist as pending (blocking, so the offset is only committed
+                        // once it is durable) and let the timing wheel release it
+                        if (scheduledNotificationService.isScheduledForLater(request)) {
+                                scheduledNotificationService
+                                                .schedule(request, finalNotificationId, topic, partition)
+                                                .block(SCHEDULE_TIMEOUT);
+                                return;
+                        }
+
+                        // URGENT requests are rare and already isolated in their own lane
+                        if (lane == PriorityLane.URGENT) {
+                                process(lane, request, finalNotificationId, timestamp)
+                                                .subscribe(); // Subscribe to trigger the reactive chain
+                                return;
+                        }
+
+                        // Fair share per source system; over quota → parked on the deferred topic
+                        boolean queued = sourceFairScheduler.offer(request.getSourceSystem(),
+                                        () -> process(lane, request, finalNotificationId, timestamp));
+                        if (!queued) {
+                                defer(request, finalNotificationId);
+                        }
 
                 } catch (Exception e) {
                         log.error("Kafka: Exception while processing notification request for user {}: {}",
@@ -110,4 +281,60 @@ public class NotificationConsumer {
                         throw e;
                 }
         }
+
+        /**
+         * Process notification: drop content duplicates → render template in ALL
+         * languages → save to MongoDB with ID
+         */
+        private Mono<String> process(PriorityLane lane, NotificationRequestDTO request, String notificationId,
+                        long timestamp) {
+                return deduplicationService.claim(request, notificationId)
+                                .flatMap(first -> {
+                                        if (!first) {
+                                                log.debug("Kafka: Dropping duplicate notification {} for user: {} with template: {}",
+                                                                notificationId, request.getUserId(),
+                                                                request.getTemplateId());
+                                                return Mono.<String>empty();
+                                        }
+                                        // A failed attempt must not turn its own retry into a duplicate
+                                        return notificationService.processAndSaveNotification(request, notificationId)
+                                                        .onErrorResume(error -> deduplicationService
+                                                                        .release(request, notificationId)
+                                                                        .then(Mono.error(error)));
+                                })
+                                .doOnNext(savedId -> priorityLaneMetrics.recordIngest(lane,
+                                                Instant.ofEpochMilli(timestamp)))
+                                .doOnNext(
+                                                savedId -> log.debug(
+                                                                "Kafka: Notification created successfully: {} for user: {} (rendered in all languages)",
+                                                                savedId, request.getUserId()))
+                                .doOnError(error -> log.error(
+                                                "Kafka: Failed to process notification request for user {}: {}",
+                                                request.getUserId(), error.getMessage(), error));
+        }
+
+        /**
+         * Parks a request of an over-quota source system on the deferred topic,
+         * keyed by source so one source's backlog stays in its own partition. Blocks
+         * until the broker acknowledges, so the original offset is only committed
+         * once the request is safe.
+         */
+        private void defer(NotificationRequestDTO request, String notificationId) {
+                log.debug("Kafka: Source system {} over quota, deferring notification {}",
+                                request.getSourceSystem(), notificationId);
+                Message<NotificationRequestDTO> message = MessageBuilder
+                                .withPayload(request)
+                                .setHeader(KafkaHeaders.TOPIC, deferredRequestsTopic)
+                                .setHeader(KafkaHeaders.KEY, request.getSourceSystem() != null
+                                                ? request.getSourceSystem()
+                                                : request.getUserId())
+                                .setHeader("notificationId", notificationId)
+                                .build();
+                kafkaTemplate.send(message).join();
+        }
+
+        private static Map<String, List<Integer>> byTopic(Collection<TopicPartition> partitions) {
+                return partitions.stream().collect(Collectors.groupingBy(TopicPartition::topic,
+                                Collectors.mapping(TopicPartition::partition, Collectors.toList())));
+        }
 }
@@ -0,0 +1,53 @@
+package com.learn.consumer;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import com.learn.dto.OutboundNotificationDTO;
+import com.learn.service.OutboundDispatcher;
+
+/**
+ * Feeds the outbound topic into the {@link OutboundDispatcher}. Each poll is
+ * dispatched as a whole and the listener returns only once every notification
+ * was sent or rejected; if a batch fails the exception makes the container
+ * retry the poll with backoff and finally dead-letter it (see
+ * {@code OutboundKafkaConfig}), so delivery is at-least-once and providers
+ * dedupe by notification ID.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbound.enabled", havingValue = "true")
+public class OutboundDispatchConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundDispatchConsumer.class);
+
+    private final OutboundDispatcher outboundDispatcher;
+
+    @Value("${app.outbound.dispatch-timeout-ms}")
+    private long dispatchTimeoutMs;
+
+    public OutboundDispatchConsumer(OutboundDispatcher outboundDispatcher) {
+        this.outboundDispatcher = outboundDispatcher;
+    }
+
+    @KafkaListener(topics = "${app.kafka.topics.notification-outbound}",
+            groupId = "${app.kafka.consumer.group-id}-outbound-dispatch",
+            batch = "true",
+            containerFactory = "outboundListenerContainerFactory",
+            concurrency = "${app.outbound.consumer-concurrency}",
+            properties = {
+                    "spring.json.value.default.type=com.learn.dto.OutboundNotificationDTO",
+                    "max.poll.records=${app.outbound.max-poll-records}"
+            })
+    public void consume(@Payload List<OutboundNotificationDTO> notifications) {
+        log.debug("Dispatching {} outbound notifications", notifications.size());
+        outboundDispatcher.dispatchAll(notifications).block(Duration.ofMillis(dispatchTimeoutMs));
+    }
+}
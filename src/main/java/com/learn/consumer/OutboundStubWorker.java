@@ -0,0 +1,62 @@
+package com.learn.consumer;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import com.learn.dto.OutboundNotificationDTO;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Stand-in for the EMAIL/SMS/PUSH workers in local and test setups: reads the
+ * outbound topic, logs each notification and keeps the most recent ones for
+ * inspection. Nothing is sent anywhere.
+ */
+@Component
+@ConditionalOnProperty(name = "app.fallback.stub-worker.enabled", havingValue = "true")
+public class OutboundStubWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundStubWorker.class);
+    private static final int MAX_RECENT = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final Deque<OutboundNotificationDTO> recent = new ArrayDeque<>();
+
+    public OutboundStubWorker(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @KafkaListener(topics = "${app.kafka.topics.notification-outbound}",
+            groupId = "${app.kafka.consumer.group-id}-outbound-stub",
+            properties = "spring.json.value.default.type=com.learn.dto.OutboundNotificationDTO")
+    public void consume(@Payload OutboundNotificationDTO notification) {
+        log.info("[stub {}] notification {} for user {}", notification.getChannel(),
+                notification.getNotificationId(), notification.getUserId());
+        meterRegistry.counter("notification.fallback.stub.received",
+                "channel", String.valueOf(notification.getChannel()).toLowerCase(Locale.ROOT)).increment();
+        synchronized (recent) {
+            recent.addLast(notification);
+            if (recent.size() > MAX_RECENT) {
+                recent.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Most recently received notifications, oldest first
+     */
+    public List<OutboundNotificationDTO> received() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+}
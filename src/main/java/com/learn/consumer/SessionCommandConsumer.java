@@ -0,0 +1,49 @@
+package com.learn.consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+import com.learn.dto.SessionCloseCommandDTO;
+import com.learn.service.SessionDirectory;
+import com.learn.service.SseSessionManager;
+
+/**
+ * Applies close commands routed to this node through the session directory.
+ *
+ * <p>
+ * Every node reads the whole (low volume) commands topic in its own consumer
+ * group, named after its node ID, and ignores commands for other nodes. A new
+ * group starts at the end of the topic: commands issued before the node
+ * started cannot refer to its connections.
+ */
+@Component
+public class SessionCommandConsumer {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionCommandConsumer.class);
+
+    private final SessionDirectory sessionDirectory;
+    private final SseSessionManager sseSessionManager;
+
+    public SessionCommandConsumer(SessionDirectory sessionDirectory, SseSessionManager sseSessionManager) {
+        this.sessionDirectory = sessionDirectory;
+        this.sseSessionManager = sseSessionManager;
+    }
+
+    @KafkaListener(topics = "${app.kafka.topics.session-commands}",
+            groupId = "#{'${app.kafka.consumer.group-id}-sessions-' + @sessionDirectoryImpl.nodeId}",
+            properties = {
+                    "auto.offset.reset=latest",
+                    "spring.json.value.default.type=com.learn.dto.SessionCloseCommandDTO"
+            })
+    public void consumeCloseCommand(@Payload SessionCloseCommandDTO command) {
+        if (!sessionDirectory.getNodeId().equals(command.getNodeId())) {
+            return;
+        }
+        if (sseSessionManager.closeLocalConnection(command.getUserId(), command.getSessionId())) {
+            log.debug("Closed SSE connection of user {} on request of another node", command.getUserId());
+        }
+    }
+}
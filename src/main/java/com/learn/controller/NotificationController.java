@@ -1,10 +1,17 @@
 package com.learn.controller;
 
+import java.net.URI;
+import java.util.Optional;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,15 +20,25 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import com.learn.dto.BroadcastRequestDTO;
+import com.learn.dto.DeliveryAckDTO;
 import com.learn.dto.NotificationDTO;
 import com.learn.dto.NotificationFilterDTO;
 import com.learn.dto.NotificationIdResponseDTO;
 import com.learn.dto.NotificationRequestDTO;
 import com.learn.dto.NotificationResponseDTO;
+import com.learn.dto.SessionPresenceDTO;
+import com.learn.dto.UnreadCountDTO;
+import com.learn.service.BroadcastService;
+import com.learn.service.DeliveryAckService;
 import com.learn.service.NotificationService;
+import com.learn.service.SessionDirectory;
 import com.learn.service.SseSessionManager;
+import com.learn.service.UserAffinityService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -31,6 +48,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -44,15 +62,31 @@ import reactor.core.publisher.Mono;
 public class NotificationController {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationController.class);
+    private static final String AFFINITY_HOP_PARAM = "affinityHop";
 
     private final NotificationService notificationService;
     private final SseSessionManager sseSessionManager;
+    private final BroadcastService broadcastService;
+    private final SessionDirectory sessionDirectory;
+    private final UserAffinityService userAffinityService;
+    private final DeliveryAckService deliveryAckService;
+
+    @Value("${app.affinity.heartbeat-interval-ms}")
+    private long affinityHeartbeatIntervalMs;
 
     public NotificationController(
             NotificationService notificationService,
-            SseSessionManager sseSessionManager) {
+            SseSessionManager sseSessionManager,
+            BroadcastService broadcastService,
+            SessionDirectory sessionDirectory,
+            UserAffinityService userAffinityService,
+            DeliveryAckService deliveryAckService) {
         this.notificationService = notificationService;
         this.sseSessionManager = sseSessionManager;
+        this.broadcastService = broadcastService;
+        this.sessionDirectory = sessionDirectory;
+        this.userAffinityService = userAffinityService;
+        this.deliveryAckService = deliveryAckService;
     }
 
     // ================ SSE REAL-TIME STREAMING ENDPOINTS ================
@@ -79,40 +113,97 @@ public class NotificationController {
      * - Reactive backpressure support
      * - Auto-reconnection support for clients
      * - Historical notifications sent first, then live updates
+     * - Unread badge pushed as "unread-count" events whenever it changes
+     * - Optional burst coalescing: with coalesceWindowMs > 0, notifications
+     * arriving within the window are sent as one "notification-batch" event whose
+     * data is an array of notifications
+     * - User affinity: with app.affinity.mode=redirect a node that does not own
+     * the user answers 307 to the owner (once; affinityHop marks the redirected
+     * request); the owner node is returned in X-SSE-Owner-Node. A node that
+     * still does not own the user (stale ring view, owner URL unknown) answers
+     * 503 with Retry-After instead of serving a stream it does not deliver to
+     * - Delivery acks: with app.ack.enabled, events count as delivered once
+     * acknowledged (POST /ack/{userId} or the Last-Event-ID header of the
+     * reconnect); unacknowledged ones are sent again on the next connection
      */
     @Operation(summary = "Subscribe to real-time notifications via SSE with Change Streams", description = "Establishes a Server-Sent Events (SSE) connection for real-time notification streaming. Only one active connection per user is allowed.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "SSE stream established successfully"),
+            @ApiResponse(responseCode = "307", description = "User is owned by another node - reconnect to Location"),
             @ApiResponse(responseCode = "408", description = "Request timeout - SSE connection timeout"),
-            @ApiResponse(responseCode = "500", description = "Internal server error")
+            @ApiResponse(responseCode = "500", description = "Internal server error"),
+            @ApiResponse(responseCode = "503", description = "Ownership of the user is moving between nodes - retry after Retry-After seconds")
     })
     @CrossOrigin(origins = "*", allowedHeaders = "*")
     @GetMapping(value = "/subscribe/{userId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public ResponseEntity<Flux<NotificationDTO>> subscribeToNotifications(
+    public ResponseEntity<Flux<ServerSentEvent<Object>>> subscribeToNotifications(
             @Parameter(description = "User identifier", required = true, example = "user123") @PathVariable String userId,
-            @Parameter(description = "Language code for notifications", example = "az") @RequestHeader(value = "Accept-Language", defaultValue = "az") @Pattern(regexp = "^(?i)(en|az|ru)$") String acceptLanguage) {
+            @Parameter(description = "Language code for notifications", example = "az") @RequestHeader(value = "Accept-Language", defaultValue = "az") @Pattern(regexp = "^(?i)(en|az|ru)$") String acceptLanguage,
+            @Parameter(description = "Coalescing window in milliseconds (0 disables coalescing)", example = "2000") @RequestParam(value = "coalesceWindowMs", defaultValue = "0") @Min(0) int coalesceWindowMs,
+            @Parameter(hidden = true) @RequestParam(value = AFFINITY_HOP_PARAM, defaultValue = "0") int affinityHop,
+            @Parameter(description = "ID of the last event received (sent by EventSource on reconnect)") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            ServerHttpRequest request) {
+        String ownerNode = userAffinityService.isEnabled() ? userAffinityService.ownerOf(userId) : null;
+        Optional<String> redirectTarget = affinityHop > 0 ? Optional.empty()
+                : userAffinityService.redirectTarget(userId);
+        if (redirectTarget.isPresent()) {
+            URI location = UriComponentsBuilder.fromUriString(redirectTarget.get())
+                    .path(request.getURI().getRawPath())
+                    .query(request.getURI().getRawQuery())
+                    .queryParam(AFFINITY_HOP_PARAM, 1)
+                    .build(true)
+                    .toUri();
+            log.debug("Redirecting SSE subscription of user {} to owner node {}", userId, ownerNode);
+            return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+                    .location(location)
+                    .header(UserAffinityService.OWNER_HEADER, ownerNode)
+                    .build();
+        }
+        // Delivery here only covers owned users: retry once the nodes agree on the owner
+        if (userAffinityService.filtersDelivery() && !userAffinityService.isLocalOwner(userId)) {
+            log.debug("Rejecting SSE subscription of user {} owned by node {}", userId, ownerNode);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(ownershipRetryAfterSeconds()))
+                    .header(UserAffinityService.OWNER_HEADER, ownerNode)
+                    .build();
+        }
+
         String language = acceptLanguage.toLowerCase();
-        log.debug("SSE subscription started for user: {} in language: {}", userId, language);
+        log.debug("SSE subscription started for user: {} in language: {} (coalesce window: {}ms)", userId, language,
+                coalesceWindowMs);
 
-        Flux<NotificationDTO> notificationStream = notificationService.getNotificationStream(userId, language)
-                .doOnNext(notification -> log.debug("Streaming SSE notification to user {}: {}", userId,
-                        notification.getId()))
+        Flux<ServerSentEvent<Object>> notificationStream = notificationService
+                .getEventStream(userId, language, coalesceWindowMs, lastEventId)
+                .doOnNext(event -> log.debug("Streaming SSE {} event to user {}: {}", 
+                        event.event() != null ? event.event() : "notification", userId, event.id()))
                 .doOnCancel(() -> log.debug("SSE subscription cancelled for user: {}", userId))
                 .doOnComplete(() -> log.debug("SSE subscription completed for user: {}", userId));
 
-        return ResponseEntity.ok()
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
                 .header("Cache-Control", "no-cache")
-                .header("Connection", "keep-alive")
+                .header("Connection", "keep-alive");
+        if (ownerNode != null) {
+            response.header(UserAffinityService.OWNER_HEADER, ownerNode);
+        }
+        return response
                 .contentType(MediaType.TEXT_EVENT_STREAM)
                 .body(notificationStream);
     }
 
+    /**
+     * Ring views converge within a membership heartbeat; rounded up to seconds
+     */
+    private long ownershipRetryAfterSeconds() {
+        return Math.max(1, (affinityHeartbeatIntervalMs + 999) / 1000);
+    }
+
     /**
      * Unsubscribe from SSE notifications (manually close connection)
      * <p>
      * Usage:
      * - POST /api/v1/learn-sse/notifications/unsubscribe/user123
-     * - This will close any active SSE connection for the user
+     * - This will close any active SSE connection for the user, also when it is
+     * held by another node
      */
     @Operation(summary = "Unsubscribe from SSE notifications", description = "Manually closes any active SSE connection for the specified user")
     @ApiResponses(value = {
@@ -120,11 +211,57 @@ public class NotificationController {
             @ApiResponse(responseCode = "500", description = "Internal server error")
     })
     @PostMapping("/unsubscribe/{userId}")
-    public ResponseEntity<Void> unsubscribeFromNotifications(
+    public Mono<ResponseEntity<Void>> unsubscribeFromNotifications(
             @Parameter(description = "User identifier", required = true, example = "user123") @PathVariable String userId) {
         log.debug("Unsubscribe request received for user: {}", userId);
-        sseSessionManager.closeConnection(userId);
-        return ResponseEntity.ok().build();
+        return sseSessionManager.closeConnection(userId)
+                .thenReturn(ResponseEntity.ok().<Void>build());
+    }
+
+    /**
+     * Acknowledge received SSE events
+     * <p>
+     * Body: {"upTo": "&lt;last event ID&gt;"} acknowledges that event and all
+     * events delivered before it; {"notificationIds": [...]} acknowledges
+     * individual notifications. Acks are written as sent in batches. Has no
+     * effect unless delivery acks are enabled.
+     */
+    @Operation(summary = "Acknowledge SSE events", description = "Marks received notifications as delivered so they are not sent again on reconnect")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Acknowledgement recorded"),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @PostMapping("/ack/{userId}")
+    public Mono<Void> acknowledgeEvents(
+            @Parameter(description = "User identifier", required = true, example = "user123") @PathVariable String userId,
+            @RequestBody DeliveryAckDTO ack) {
+        return Mono.fromRunnable(() -> {
+            int acked = deliveryAckService.ackUpTo(userId, ack.getUpTo());
+            if (ack.getNotificationIds() != null) {
+                acked += deliveryAckService.ack(userId, ack.getNotificationIds());
+            }
+            log.debug("Acknowledged {} SSE events of user {}", acked, userId);
+        });
+    }
+
+    /**
+     * Whether the user has an SSE connection anywhere in the cluster
+     * <p>
+     * Answered from the cluster session directory, so it does not matter which
+     * node serves the request.
+     */
+    @Operation(summary = "Get SSE presence", description = "Returns whether the user is connected to any node, and which one")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved presence", content = @Content(schema = @Schema(implementation = SessionPresenceDTO.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/presence/{userId}")
+    public Mono<ResponseEntity<SessionPresenceDTO>> getPresence(
+            @Parameter(description = "User identifier", required = true, example = "user123") @PathVariable String userId) {
+        return sessionDirectory.locate(userId)
+                .map(entry -> new SessionPresenceDTO(userId, true, entry.getNodeId(), entry.getConnectedAt()))
+                .defaultIfEmpty(new SessionPresenceDTO(userId, false, null, null))
+                .map(ResponseEntity::ok);
     }
 
     // ================ NOTIFICATION MANAGEMENT ENDPOINTS ================
@@ -151,8 +288,7 @@ public class NotificationController {
      * Examples:
      * - Get ALL notifications: /{userId}
      * - Get UNREAD notifications: /{userId}?read=false
-     * - Get UNREAD COUNT: /{userId}?read=false&size=1 (check totalCount in
-     * response)
+     * - Get UNREAD COUNT: use /{userId}/unread-count instead (no count query)
      * - Get EMAIL notifications: /{userId}?channel=EMAIL
      * - Get HIGH PRIORITY notifications: /{userId}?priority=HIGH
      * - Paginate results: /{userId}?page=1&size=10
@@ -178,6 +314,24 @@ public class NotificationController {
                 .map(ResponseEntity::ok);
     }
 
+    /**
+     * Get the unread notification count (badge) for a user
+     * <p>
+     * Served from a materialized per-user counter, so it does not run a count
+     * query. The same value is pushed to SSE subscribers as "unread-count" events.
+     */
+    @Operation(summary = "Get unread notification count", description = "Returns the materialized unread notification count for a user")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved unread count", content = @Content(schema = @Schema(implementation = UnreadCountDTO.class))),
+            @ApiResponse(responseCode = "500", description = "Internal server error")
+    })
+    @GetMapping("/{userId}/unread-count")
+    public Mono<ResponseEntity<UnreadCountDTO>> getUnreadCount(
+            @Parameter(description = "User identifier", required = true, example = "user123") @PathVariable String userId) {
+        return notificationService.getUnreadCount(userId)
+                .map(ResponseEntity::ok);
+    }
+
     /**
      * Get a single notification by ID
      * Returns 400 Bad Request if notification not found
@@ -297,6 +451,7 @@ public class NotificationController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Notification accepted for processing", content = @Content(schema = @Schema(implementation = NotificationIdResponseDTO.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request body"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded for the user or source system"),
             @ApiResponse(responseCode = "500", description = "Failed to publish to Kafka")
     })
     @PostMapping("/send")
@@ -316,4 +471,35 @@ public class NotificationController {
                 });
     }
 
+    /**
+     * Send one notification to a segment or to all users
+     *
+     * <p>
+     * The template is rendered once and the broadcast is stored as a single
+     * document. Connected users receive it live; other users receive it with
+     * their backlog on their next connection, and see it in their history and
+     * unread count on their next REST read (within the look-back window). Each
+     * user's copy is created only then.
+     *
+     * @param broadcastRequest Broadcast request with template ID, optional segment
+     *                         and template parameters
+     * @return 202 ACCEPTED with broadcast ID
+     */
+    @Operation(summary = "Broadcast a notification", description = "Stores one notification for a segment (or all users when no segment is given). Cost does not depend on the audience size.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Broadcast stored", content = @Content(schema = @Schema(implementation = NotificationIdResponseDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request body or unknown template")
+    })
+    @PostMapping("/broadcast")
+    public Mono<ResponseEntity<NotificationIdResponseDTO>> broadcastNotification(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Broadcast request with template ID, optional segment and template parameters", required = true, content = @Content(schema = @Schema(implementation = BroadcastRequestDTO.class))) @Valid @RequestBody BroadcastRequestDTO broadcastRequest) {
+
+        log.debug("REST API: Received broadcast request for segment: {} with template: {}",
+                broadcastRequest.getSegment(), broadcastRequest.getTemplateId());
+
+        return broadcastService.publishBroadcast(broadcastRequest)
+                .map(broadcastId -> ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(NotificationIdResponseDTO.of(broadcastId)));
+    }
+
 }
@@ -0,0 +1,27 @@
+package com.learn.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastRequestDTO {
+
+    @NotBlank(message = "Template ID is required")
+    private String templateId;
+
+    @NotBlank(message = "Channel is required")
+    private String channel;
+    private String segment; // Optional - omitted means all users
+    private String priority; // Optional - defaults to "NORMAL"
+    private String sourceSystem; // Optional
+    private Map<String, Object> params; // Optional - template parameters, same for every recipient
+    private Map<String, Object> metadata; // Optional - dynamic metadata
+    private Instant expiresAt; // Optional - never deliver after this time
+}
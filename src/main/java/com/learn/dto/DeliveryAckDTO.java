@@ -0,0 +1,21 @@
+package com.learn.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Client acknowledgement of received SSE events
+ * Either explicit notification IDs, or upTo: the last event ID received
+ * (acknowledges it and everything delivered before it)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeliveryAckDTO {
+
+    private List<String> notificationIds;
+    private String upTo;
+}
@@ -1,5 +1,6 @@
 package com.learn.dto;
 
+import java.time.Instant;
 import java.util.Map;
 
 import jakarta.validation.constraints.NotBlank;
@@ -24,4 +25,7 @@ public class NotificationRequestDTO {
     private String sourceSystem; // Optional
     private Map<String, Object> params; // Optional - template parameters
     private Map<String, Object> metadata; // Optional - dynamic metadata
+    private Instant sendAt; // Optional - deliver at this time instead of immediately
+    private Instant expiresAt; // Optional - never deliver after this time (OTPs, flash offers)
+    private String collapseKey; // Optional - overwrites the user's previous notification with the same key (keeping its ID)
 }
@@ -0,0 +1,48 @@
+package com.learn.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+import com.learn.model.Notification;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Notification handed to an outbound channel worker (EMAIL/SMS/PUSH) because
+ * it was not delivered over SSE in time
+ * Carries the content in all rendered languages; the worker picks the user's
+ * language
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboundNotificationDTO {
+
+    private String notificationId;
+    private String userId;
+    private String channel;
+    private String priority;
+    private String templateId;
+    private String sourceSystem;
+    private Map<String, Notification.RenderedContent> renderedContent;
+    private Map<String, Object> metadata;
+    private Instant createdAt;
+    private Instant fallbackAt;
+
+    public static OutboundNotificationDTO fromNotification(Notification notification, String channel) {
+        Notification.NotificationTimestamps timestamps = notification.getTimestamps();
+        return new OutboundNotificationDTO(
+                notification.getId(),
+                notification.getUserId(),
+                channel,
+                notification.getPriority(),
+                notification.getTemplateId(),
+                notification.getSourceSystem(),
+                notification.getRenderedContent(),
+                notification.getMetadata(),
+                timestamps != null ? timestamps.getCreatedAt() : null,
+                timestamps != null ? timestamps.getFallbackAt() : null);
+    }
+}
@@ -0,0 +1,20 @@
+package com.learn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Request to close a user's SSE connection on the node that holds it
+ * Published to the session commands topic; a null sessionId closes any
+ * connection of the user on that node
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionCloseCommandDTO {
+
+    private String nodeId;
+    private String userId;
+    private String sessionId;
+}
@@ -0,0 +1,22 @@
+package com.learn.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Whether a user has an SSE connection anywhere in the cluster, and on which
+ * node
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionPresenceDTO {
+
+    private String userId;
+    private boolean online;
+    private String nodeId;
+    private Instant connectedAt;
+}
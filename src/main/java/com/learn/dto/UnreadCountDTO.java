@@ -0,0 +1,18 @@
+package com.learn.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Unread notification count for a user
+ * Returned by the unread-count endpoint and pushed as the "unread-count" SSE event
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnreadCountDTO {
+
+    private String userId;
+    private long unreadCount;
+}
@@ -21,7 +21,10 @@ public enum ErrorCode {
     USER_INVALID("USER_002", "User is invalid"),
 
     // Kafka related errors
-    KAFKA_PUBLISH_FAILED("KAFKA_001", "Failed to publish message to Kafka");
+    KAFKA_PUBLISH_FAILED("KAFKA_001", "Failed to publish message to Kafka"),
+
+    // Rate limiting errors
+    RATE_LIMIT_EXCEEDED("RATE_LIMIT_001", "Too many requests");
 
     private final String code;
     private final String description;
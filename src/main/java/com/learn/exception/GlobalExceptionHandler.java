@@ -6,6 +6,7 @@ import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
@@ -94,6 +95,33 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
     }
 
+    /**
+     * Handle RateLimitExceededException
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public Mono<ResponseEntity<BaseErrorResponseDTO>> handleRateLimitExceededException(
+            RateLimitExceededException ex, ServerWebExchange exchange) {
+        log.debug("Rate limit exceeded for {} {}, retry after {}s", ex.getLimitedBy(), ex.getKey(),
+                ex.getRetryAfterSeconds());
+        
+        Map<String, String> errorData = new HashMap<>();
+        errorData.put(ex.getLimitedBy(), ex.getKey());
+        errorData.put("retryAfterSeconds", String.valueOf(ex.getRetryAfterSeconds()));
+        
+        BaseErrorResponseDTO errorResponse = new BaseErrorResponseDTO(
+                ex.getErrorCode().getCode(),
+                ex.getErrorCode().getDescription(),
+                exchange.getRequest().getPath().value(),
+                LocalDateTime.now().toString(),
+                HttpStatus.TOO_MANY_REQUESTS.value(),
+                errorData
+        );
+        
+        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse));
+    }
+
     /**
      * Handle validation errors (e.g., @Valid, @Pattern)
      */
@@ -0,0 +1,20 @@
+package com.learn.exception;
+
+import lombok.Getter;
+
+/**
+ * Signals that a live notification stream fell further behind than its buffer.
+ * Ends the user's SSE response (never sent to the client); the notifications
+ * it missed are still unsent and are replayed from the backlog on reconnect.
+ */
+@Getter
+public class LiveStreamOverflowException extends RuntimeException {
+
+    private final String userId;
+
+    public LiveStreamOverflowException(String userId) {
+        super("Live notification buffer overflow");
+        this.userId = userId;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.learn.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a send request exceeds the rate limit of its user or
+ * source system.
+ * Returns HTTP 429 Too Many Requests with a Retry-After header.
+ */
+@Getter
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class RateLimitExceededException extends RuntimeException {
+
+    private final ErrorCode errorCode = ErrorCode.RATE_LIMIT_EXCEEDED;
+    private final String limitedBy; // "userId" or "sourceSystem"
+    private final String key;
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String limitedBy, String key, long retryAfterSeconds) {
+        super(ErrorCode.RATE_LIMIT_EXCEEDED.getDescription());
+        this.limitedBy = limitedBy;
+        this.key = key;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.learn.model;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Notification addressed to a segment or to all users, stored once.
+ * <p>
+ * The template is rendered once at ingest. Per-user notification documents are
+ * only materialized when a user is actually sent the broadcast (see
+ * {@link com.learn.service.BroadcastService}), so ingest cost does not depend
+ * on the audience size.
+ */
+@Document(collection = "broadcasts")
+public class Broadcast {
+
+    @Id
+    private String id;
+
+    private String templateId;
+    private String segment; // Null = all users
+    private String channel;
+    private String priority;
+    private String sourceSystem;
+    private Map<String, Notification.RenderedContent> renderedContent;
+    private Map<String, Object> params;
+    private Map<String, Object> metadata;
+    private Instant createdAt;
+    private Instant expiresAt; // Optional - never delivered after this instant
+
+    // Constructors
+    public Broadcast() {
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTemplateId() {
+        return templateId;
+    }
+
+    public void setTemplateId(String templateId) {
+        this.templateId = templateId;
+    }
+
+    public String getSegment() {
+        return segment;
+    }
+
+    public void setSegment(String segment) {
+        this.segment = segment;
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+
+    public void setChannel(String channel) {
+        this.channel = channel;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public void setPriority(String priority) {
+        this.priority = priority;
+    }
+
+    public String getSourceSystem() {
+        return sourceSystem;
+    }
+
+    public void setSourceSystem(String sourceSystem) {
+        this.sourceSystem = sourceSystem;
+    }
+
+    public Map<String, Notification.RenderedContent> getRenderedContent() {
+        return renderedContent;
+    }
+
+    public void setRenderedContent(Map<String, Notification.RenderedContent> renderedContent) {
+        this.renderedContent = renderedContent;
+    }
+
+    public Map<String, Object> getParams() {
+        return params;
+    }
+
+    public void setParams(Map<String, Object> params) {
+        this.params = params;
+    }
+
+    public Map<String, Object> getMetadata() {
+        return metadata;
+    }
+
+    public void setMetadata(Map<String, Object> metadata) {
+        this.metadata = metadata;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Whether the broadcast is addressed to a user with the given segments
+     */
+    public boolean isAddressedTo(Collection<String> userSegments) {
+        return segment == null || userSegments.contains(segment);
+    }
+
+    /**
+     * Whether the broadcast has expired at the given instant
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,58 @@
+package com.learn.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Live member of the SSE cluster, used to build the user affinity ring.
+ * <p>
+ * Each node refreshes its own entry on every membership heartbeat; entries of
+ * nodes that stopped are removed by a TTL index (and ignored as soon as they
+ * expire).
+ */
+@Document(collection = "sse_nodes")
+public class ClusterNode {
+
+    @Id
+    private String nodeId;
+
+    private String advertisedUrl; // Base URL clients are redirected to
+    private Instant expiresAt;
+
+    // Constructors
+    public ClusterNode() {
+    }
+
+    public ClusterNode(String nodeId, String advertisedUrl, Instant expiresAt) {
+        this.nodeId = nodeId;
+        this.advertisedUrl = advertisedUrl;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getAdvertisedUrl() {
+        return advertisedUrl;
+    }
+
+    public void setAdvertisedUrl(String advertisedUrl) {
+        this.advertisedUrl = advertisedUrl;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
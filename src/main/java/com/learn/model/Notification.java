@@ -9,6 +9,12 @@ import org.springframework.data.mongodb.core.mapping.Document;
 @Document(collection = "notifications")
 public class Notification {
 
+    /**
+     * Stored only: set when a collapse upsert overwrites an existing document, so
+     * change streams can tell that update apart from status updates.
+     */
+    public static final String COLLAPSED_AT_FIELD = "collapsedAt";
+
     @Id
     private String id;
 
@@ -20,6 +26,7 @@ public class Notification {
     private String subject; // Deprecated - kept for backward compatibility
     private String content; // Deprecated - kept for backward compatibility
     private Map<String, RenderedContent> renderedContent; // Multi-language content
+    private String contentRef; // Set when renderedContent is stored in rendered_contents (content hash)
     private Map<String, Object> params;
 
     private Map<String, Object> metadata;
@@ -31,6 +38,9 @@ public class Notification {
     private String priority;
     private String sourceSystem;
     private boolean disabled = false; // For soft delete functionality
+    private Instant expiresAt; // Optional - removed by the TTL index and never delivered after this instant
+    private String collapseKey; // Optional - a newer notification with the same user + key replaces this one
+    private String broadcastId; // Set when materialized from a broadcast (ID = broadcastId:userId)
 
     // Constructors
     public Notification() {
@@ -120,6 +130,14 @@ public class Notification {
         this.renderedContent = renderedContent;
     }
 
+    public String getContentRef() {
+        return contentRef;
+    }
+
+    public void setContentRef(String contentRef) {
+        this.contentRef = contentRef;
+    }
+
     public Map<String, Object> getMetadata() {
         return metadata;
     }
@@ -168,6 +186,37 @@ public class Notification {
         this.disabled = disabled;
     }
 
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getCollapseKey() {
+        return collapseKey;
+    }
+
+    public void setCollapseKey(String collapseKey) {
+        this.collapseKey = collapseKey;
+    }
+
+    public String getBroadcastId() {
+        return broadcastId;
+    }
+
+    public void setBroadcastId(String broadcastId) {
+        this.broadcastId = broadcastId;
+    }
+
+    /**
+     * Whether the notification has expired at the given instant
+     */
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !expiresAt.isAfter(now);
+    }
+
     // Inner classes
 
     /**
@@ -236,6 +285,8 @@ public class Notification {
         private Instant createdAt;
         private Instant sentAt;
         private Instant readAt;
+        private Instant fallbackAt; // Set when handed to an outbound channel because it was not delivered
+        private Instant fallbackClaimedAt; // Fallback publish in progress; taken over once the claim times out
 
         public NotificationTimestamps() {
         }
@@ -270,5 +321,21 @@ public class Notification {
         public void setReadAt(Instant readAt) {
             this.readAt = readAt;
         }
+
+        public Instant getFallbackAt() {
+            return fallbackAt;
+        }
+
+        public void setFallbackAt(Instant fallbackAt) {
+            this.fallbackAt = fallbackAt;
+        }
+
+        public Instant getFallbackClaimedAt() {
+            return fallbackClaimedAt;
+        }
+
+        public void setFallbackClaimedAt(Instant fallbackClaimedAt) {
+            this.fallbackClaimedAt = fallbackClaimedAt;
+        }
     }
 }
@@ -0,0 +1,121 @@
+package com.learn.model;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.types.Binary;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Cold-tier storage of old notifications: size-capped buckets per user, month
+ * and tombstone generation.
+ * <p>
+ * Notifications are stored as gzip-compressed BSON chunks (one chunk per
+ * archival batch). {@code stats} keeps per read/channel/priority counts, so
+ * filtered counts and page skipping never need to decompress the chunks.
+ * {@code notificationIds} is uniquely indexed: a notification can be archived
+ * only once, whichever node or retry appends it.
+ */
+@Document(collection = "notification_archive")
+public class NotificationArchiveBucket {
+
+    @Id
+    private String id;
+
+    private String userId;
+    private String month; // yyyy-MM (UTC) of timestamps.createdAt
+    private long generation; // Tombstone watermark (epoch millis) at archival time, 0 if none
+    private long count;
+    private Instant minCreatedAt;
+    private Instant maxCreatedAt;
+    private Map<String, Long> stats; // "read|channel|priority" -> count
+    private List<Binary> chunks;
+    private List<String> notificationIds;
+
+    // Constructors
+    public NotificationArchiveBucket() {
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getMonth() {
+        return month;
+    }
+
+    public void setMonth(String month) {
+        this.month = month;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(long generation) {
+        this.generation = generation;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Instant getMinCreatedAt() {
+        return minCreatedAt;
+    }
+
+    public void setMinCreatedAt(Instant minCreatedAt) {
+        this.minCreatedAt = minCreatedAt;
+    }
+
+    public Instant getMaxCreatedAt() {
+        return maxCreatedAt;
+    }
+
+    public void setMaxCreatedAt(Instant maxCreatedAt) {
+        this.maxCreatedAt = maxCreatedAt;
+    }
+
+    public Map<String, Long> getStats() {
+        return stats;
+    }
+
+    public void setStats(Map<String, Long> stats) {
+        this.stats = stats;
+    }
+
+    public List<Binary> getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(List<Binary> chunks) {
+        this.chunks = chunks;
+    }
+
+    public List<String> getNotificationIds() {
+        return notificationIds;
+    }
+
+    public void setNotificationIds(List<String> notificationIds) {
+        this.notificationIds = notificationIds;
+    }
+}
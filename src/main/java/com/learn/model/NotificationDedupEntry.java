@@ -0,0 +1,58 @@
+package com.learn.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Claim on a notification request's content within the deduplication window.
+ * <p>
+ * The ID is the content hash, so the primary key is the cross-node unique
+ * index; expired claims are removed by a TTL index and may be taken over
+ * before that.
+ */
+@Document(collection = "notification_dedup")
+public class NotificationDedupEntry {
+
+    @Id
+    private String contentHash;
+
+    private String notificationId; // Notification that claimed the content
+    private Instant expiresAt;
+
+    // Constructors
+    public NotificationDedupEntry() {
+    }
+
+    public NotificationDedupEntry(String contentHash, String notificationId, Instant expiresAt) {
+        this.contentHash = contentHash;
+        this.notificationId = notificationId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getNotificationId() {
+        return notificationId;
+    }
+
+    public void setNotificationId(String notificationId) {
+        this.notificationId = notificationId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
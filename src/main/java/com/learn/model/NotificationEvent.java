@@ -0,0 +1,76 @@
+package com.learn.model;
+
+import java.time.Instant;
+
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Entry of the capped notification_events collection used by the tailable
+ * delivery bus. Written right after the notification insert; old entries are
+ * overwritten by the capped collection itself.
+ */
+@Document(collection = "notification_events")
+public class NotificationEvent {
+
+    @Id
+    private ObjectId id;
+
+    private String userId;
+    private int slot; // Affinity slot of the user, for per-node tail filters
+    private Notification notification; // As saved (shared content is only referenced)
+    private Instant createdAt;
+
+    // Constructors
+    public NotificationEvent() {
+    }
+
+    public NotificationEvent(String userId, int slot, Notification notification, Instant createdAt) {
+        this.userId = userId;
+        this.slot = slot;
+        this.notification = notification;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public ObjectId getId() {
+        return id;
+    }
+
+    public void setId(ObjectId id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    public void setSlot(int slot) {
+        this.slot = slot;
+    }
+
+    public Notification getNotification() {
+        return notification;
+    }
+
+    public void setNotification(Notification notification) {
+        this.notification = notification;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.learn.model;
+
+import java.util.Locale;
+
+/**
+ * Processing lane of a notification, derived from its priority.
+ * <p>
+ * Each lane has its own Kafka topic and consumer weights, and SSE delivery
+ * drains lanes in declaration order (URGENT first).
+ */
+public enum PriorityLane {
+
+    URGENT,
+    HIGH,
+    NORMAL,
+    LOW;
+
+    /**
+     * Resolves the lane of a priority value; unknown or missing priorities go to
+     * NORMAL
+     */
+    public static PriorityLane of(String priority) {
+        if (priority == null) {
+            return NORMAL;
+        }
+        try {
+            return valueOf(priority.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return NORMAL;
+        }
+    }
+
+    /**
+     * Tag value used in metrics
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
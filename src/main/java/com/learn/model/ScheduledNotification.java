@@ -0,0 +1,111 @@
+package com.learn.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import com.learn.dto.NotificationRequestDTO;
+
+/**
+ * Pending notification request with a future {@code sendAt}.
+ * <p>
+ * Kept until it is released into the notifications collection; the release
+ * is claimed and recorded on this document, so a retry does not repeat it. The
+ * Kafka partition it arrived on decides which node holds it in its timing
+ * wheel; the documents of a partition are loaded when the partition is
+ * assigned.
+ */
+@Document(collection = "scheduled_notifications")
+public class ScheduledNotification {
+
+    @Id
+    private String id; // Pre-generated notification ID
+
+    private String topic;
+    private int partition;
+    private Instant sendAt;
+    private NotificationRequestDTO request;
+    private Instant createdAt;
+    private Instant releaseClaimedAt; // Release in progress; taken over once the lease expires
+    private Instant releasedAt; // Notification stored; only the removal of this entry is left
+
+    // Constructors
+    public ScheduledNotification() {
+    }
+
+    public ScheduledNotification(String id, String topic, int partition, Instant sendAt,
+            NotificationRequestDTO request, Instant createdAt) {
+        this.id = id;
+        this.topic = topic;
+        this.partition = partition;
+        this.sendAt = sendAt;
+        this.request = request;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public void setTopic(String topic) {
+        this.topic = topic;
+    }
+
+    public int getPartition() {
+        return partition;
+    }
+
+    public void setPartition(int partition) {
+        this.partition = partition;
+    }
+
+    public Instant getSendAt() {
+        return sendAt;
+    }
+
+    public void setSendAt(Instant sendAt) {
+        this.sendAt = sendAt;
+    }
+
+    public NotificationRequestDTO getRequest() {
+        return request;
+    }
+
+    public void setRequest(NotificationRequestDTO request) {
+        this.request = request;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getReleaseClaimedAt() {
+        return releaseClaimedAt;
+    }
+
+    public void setReleaseClaimedAt(Instant releaseClaimedAt) {
+        this.releaseClaimedAt = releaseClaimedAt;
+    }
+
+    public Instant getReleasedAt() {
+        return releasedAt;
+    }
+
+    public void setReleasedAt(Instant releasedAt) {
+        this.releasedAt = releasedAt;
+    }
+}
@@ -0,0 +1,83 @@
+package com.learn.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Cluster session directory entry: which node holds the user's SSE
+ * connection.
+ * <p>
+ * The ID is the user ID, matching the single-session policy. The owning node
+ * moves expiresAt forward on every heartbeat; entries of crashed nodes are
+ * removed by a TTL index.
+ */
+@Document(collection = "sse_sessions")
+public class SseSessionEntry {
+
+    @Id
+    private String userId;
+
+    private String nodeId; // Node holding the connection
+    private String sessionId; // Connection on that node
+    private Instant connectedAt;
+    private Instant expiresAt;
+
+    // Constructors
+    public SseSessionEntry() {
+    }
+
+    public SseSessionEntry(String userId, String nodeId, String sessionId, Instant connectedAt, Instant expiresAt) {
+        this.userId = userId;
+        this.nodeId = nodeId;
+        this.sessionId = sessionId;
+        this.connectedAt = connectedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt == null || !expiresAt.isAfter(now);
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    public Instant getConnectedAt() {
+        return connectedAt;
+    }
+
+    public void setConnectedAt(Instant connectedAt) {
+        this.connectedAt = connectedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,80 @@
+package com.learn.model;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Rendered content shared by all notifications with identical bodies.
+ * <p>
+ * The ID is the SHA-256 of the content, so identical renderings (same template
+ * and params) map to one document; notifications point to it through
+ * {@link Notification#getContentRef()}. Documents are immutable once written.
+ */
+@Document(collection = "rendered_contents")
+public class StoredRenderedContent {
+
+    @Id
+    private String contentHash;
+
+    private Map<String, Notification.RenderedContent> renderedContent;
+    private String subject; // Default-language copy of the deprecated Notification fields
+    private String content;
+    private Instant createdAt;
+
+    // Constructors
+    public StoredRenderedContent() {
+    }
+
+    public StoredRenderedContent(String contentHash, Map<String, Notification.RenderedContent> renderedContent,
+            String subject, String content, Instant createdAt) {
+        this.contentHash = contentHash;
+        this.renderedContent = renderedContent;
+        this.subject = subject;
+        this.content = content;
+        this.createdAt = createdAt;
+    }
+
+    // Getters and Setters
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public Map<String, Notification.RenderedContent> getRenderedContent() {
+        return renderedContent;
+    }
+
+    public void setRenderedContent(Map<String, Notification.RenderedContent> renderedContent) {
+        this.renderedContent = renderedContent;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,68 @@
+package com.learn.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Materialized unread notification counter for a user.
+ * <p>
+ * Maintained incrementally on insert / read / mark-all-read and periodically
+ * reconciled against the notifications collection by
+ * {@link com.learn.scheduler.UnreadCounterReconciliationJob}.
+ */
+@Document(collection = "unread_counters")
+public class UnreadCounter {
+
+    @Id
+    private String userId;
+
+    private long count;
+    private Instant updatedAt;
+    private Instant reconciledAt; // Null until the counter has been checked against the real count
+
+    // Constructors
+    public UnreadCounter() {
+    }
+
+    public UnreadCounter(String userId, long count, Instant updatedAt, Instant reconciledAt) {
+        this.userId = userId;
+        this.count = count;
+        this.updatedAt = updatedAt;
+        this.reconciledAt = reconciledAt;
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(Instant reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
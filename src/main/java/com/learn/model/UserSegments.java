@@ -0,0 +1,46 @@
+package com.learn.model;
+
+import java.util.List;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Segments a user belongs to, maintained by upstream systems. Broadcasts
+ * addressed to a segment reach only its members; users without a document only
+ * receive broadcasts addressed to all users.
+ */
+@Document(collection = "user_segments")
+public class UserSegments {
+
+    @Id
+    private String userId;
+
+    private List<String> segments;
+
+    // Constructors
+    public UserSegments() {
+    }
+
+    public UserSegments(String userId, List<String> segments) {
+        this.userId = userId;
+        this.segments = segments;
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public List<String> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<String> segments) {
+        this.segments = segments;
+    }
+}
@@ -0,0 +1,89 @@
+package com.learn.model;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Per-user tombstone watermark for O(1) disable-all.
+ * <p>
+ * Notifications of the user created at or before {@code hiddenBefore} are
+ * treated as disabled by every read path immediately. The physical
+ * {@code disabled} flag (and the purge of disabled documents) is applied later
+ * by {@link com.learn.scheduler.NotificationCompactionJob}.
+ */
+@Document(collection = "user_tombstones")
+public class UserTombstone {
+
+    @Id
+    private String userId;
+
+    private Instant hiddenBefore; // Notifications created at or before this instant are hidden
+    private boolean compactionPending; // Compactor still has work for this user
+    private boolean purgeRequested; // Disabled notifications should be physically deleted
+    private Instant updatedAt;
+    private Instant compactionAttemptAt; // Last compaction batch; the least recently served users go first
+
+    // Constructors
+    public UserTombstone() {
+    }
+
+    public UserTombstone(String userId, Instant hiddenBefore, boolean compactionPending,
+            boolean purgeRequested, Instant updatedAt) {
+        this.userId = userId;
+        this.hiddenBefore = hiddenBefore;
+        this.compactionPending = compactionPending;
+        this.purgeRequested = purgeRequested;
+        this.updatedAt = updatedAt;
+    }
+
+    // Getters and Setters
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public Instant getHiddenBefore() {
+        return hiddenBefore;
+    }
+
+    public void setHiddenBefore(Instant hiddenBefore) {
+        this.hiddenBefore = hiddenBefore;
+    }
+
+    public boolean isCompactionPending() {
+        return compactionPending;
+    }
+
+    public void setCompactionPending(boolean compactionPending) {
+        this.compactionPending = compactionPending;
+    }
+
+    public boolean isPurgeRequested() {
+        return purgeRequested;
+    }
+
+    public void setPurgeRequested(boolean purgeRequested) {
+        this.purgeRequested = purgeRequested;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getCompactionAttemptAt() {
+        return compactionAttemptAt;
+    }
+
+    public void setCompactionAttemptAt(Instant compactionAttemptAt) {
+        this.compactionAttemptAt = compactionAttemptAt;
+    }
+}
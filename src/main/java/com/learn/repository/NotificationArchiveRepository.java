@@ -0,0 +1,356 @@
+package com.learn.repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import com.learn.dto.NotificationFilterDTO;
+import com.learn.model.Notification;
+import com.learn.model.NotificationArchiveBucket;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Cold-tier storage for notifications moved out of the hot collection by
+ * {@link com.learn.scheduler.NotificationArchiveJob}.
+ * <p>
+ * Buckets are keyed by user, month and tombstone generation. A disable-all
+ * starts a new generation, so older buckets become invisible immediately and
+ * are removed by the compactor.
+ * <p>
+ * Archived notifications count as read: the job archives them read, so they
+ * never show up in unread filters or counts and mark-as-read on them is a
+ * no-op. Chunks written before that rule are read the same way.
+ */
+@Repository
+public class NotificationArchiveRepository {
+
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM")
+            .withZone(ZoneOffset.UTC);
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final ReadRouting readRouting;
+
+    public NotificationArchiveRepository(ReactiveMongoTemplate mongoTemplate, ReadRouting readRouting) {
+        this.mongoTemplate = mongoTemplate;
+        this.readRouting = readRouting;
+    }
+
+    /**
+     * Generation of archive buckets visible for a tombstone watermark
+     */
+    public static long generationOf(Instant hiddenBefore) {
+        return hiddenBefore != null ? hiddenBefore.toEpochMilli() : 0L;
+    }
+
+    /**
+     * Month bucket (yyyy-MM, UTC) of a creation timestamp
+     */
+    public static String monthOf(Instant createdAt) {
+        return MONTH_FORMAT.format(createdAt);
+    }
+
+    /**
+     * Appends raw notification documents of one user and month as a single
+     * compressed chunk to a bucket with room for them, starting a new bucket
+     * when none has. Notifications that are already archived are left out, so
+     * a retried or concurrent append never stores one twice.
+     *
+     * @return Mono with the number of notifications newly archived
+     */
+    public Mono<Long> append(String userId, String month, long generation, List<Document> notifications,
+            int maxBucketNotifications) {
+        return Mono.defer(() -> archivedIds(notifications)
+                .flatMap(archived -> {
+                    List<Document> pending = notifications.stream()
+                            .filter(notification -> !archived.contains(idOf(notification)))
+                            .toList();
+                    if (pending.isEmpty()) {
+                        return Mono.just(0L);
+                    }
+                    Query openBucket = Query.query(Criteria.where("userId").is(userId)
+                            .and("month").is(month)
+                            .and("generation").is(generation)
+                            .and("count").lte(maxBucketNotifications - pending.size()));
+                    return mongoTemplate.upsert(openBucket, appendUpdate(pending), NotificationArchiveBucket.class)
+                            .thenReturn((long) pending.size());
+                }))
+                // Lost a race with another append of the same notifications: filter again
+                .retryWhen(Retry.max(3).filter(DuplicateKeyException.class::isInstance));
+    }
+
+    /**
+     * Finds an archived notification by ID, regardless of visibility
+     */
+    public Mono<Notification> findArchivedById(String notificationId) {
+        Query query = Query.query(Criteria.where("notificationIds").is(notificationId));
+        query.withReadPreference(readRouting.readPreference(ReadRouting.Route.ARCHIVE));
+        return readRouting.timed(ReadRouting.Route.ARCHIVE,
+                mongoTemplate.findOne(query, NotificationArchiveBucket.class))
+                .flatMapIterable(bucket -> decode(bucket, new NotificationFilterDTO()))
+                .filter(notification -> notificationId.equals(notification.getId()))
+                .next();
+    }
+
+    /**
+     * Checks whether a notification was moved to the archive
+     */
+    public Mono<Boolean> isArchived(String notificationId) {
+        return mongoTemplate.exists(Query.query(Criteria.where("notificationIds").is(notificationId)),
+                NotificationArchiveBucket.class);
+    }
+
+    /**
+     * String form of a notification document ID, as stored in
+     * {@code notificationIds}
+     */
+    public static String idOf(Document notification) {
+        Object id = notification.get("_id");
+        return id instanceof ObjectId objectId ? objectId.toHexString() : String.valueOf(id);
+    }
+
+    /**
+     * Counts archived notifications matching the filter using bucket stats only
+     */
+    public Mono<Long> countArchived(String userId, NotificationFilterDTO filter, long generation) {
+        return findBucketStats(userId, generation)
+                .map(bucket -> matchingCount(bucket, filter))
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * Finds archived notifications matching the filter, newest first. Only the
+     * buckets that overlap the requested range are decompressed.
+     */
+    public Flux<Notification> findArchived(String userId, NotificationFilterDTO filter, long generation, long skip,
+            int limit) {
+        if (limit <= 0) {
+            return Flux.empty();
+        }
+        return findBucketStats(userId, generation)
+                .collectList()
+                .flatMapMany(buckets -> {
+                    List<String> needed = new ArrayList<>();
+                    long remainingSkip = skip;
+                    long remainingLimit = limit;
+                    long skipInFirstBucket = 0;
+                    for (NotificationArchiveBucket bucket : buckets) {
+                        long matching = matchingCount(bucket, filter);
+                        if (remainingSkip >= matching) {
+                            remainingSkip -= matching;
+                            continue;
+                        }
+                        if (needed.isEmpty()) {
+                            skipInFirstBucket = remainingSkip;
+                        }
+                        needed.add(bucket.getId());
+                        remainingLimit -= matching - remainingSkip;
+                        remainingSkip = 0;
+                        if (remainingLimit <= 0) {
+                            break;
+                        }
+                    }
+
+                    return Flux.fromIterable(needed)
+                            .concatMap(bucketId -> findBucket(bucketId))
+                            .concatMapIterable(bucket -> decode(bucket, filter))
+                            .skip(skipInFirstBucket)
+                            .take(limit);
+                });
+    }
+
+    /**
+     * Removes buckets of older tombstone generations (hidden by a disable-all)
+     */
+    public Mono<Long> deleteGenerationsBefore(String userId, long generation) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("generation").lt(generation));
+        return mongoTemplate.remove(query, NotificationArchiveBucket.class)
+                .map(result -> result.getDeletedCount());
+    }
+
+    private Update appendUpdate(List<Document> notifications) {
+        Update update = new Update()
+                .inc("count", notifications.size())
+                .push("chunks", new Binary(compress(notifications)));
+        update.push("notificationIds").each(notifications.stream()
+                .map(NotificationArchiveRepository::idOf)
+                .toArray());
+
+        Instant min = null;
+        Instant max = null;
+        for (Document notification : notifications) {
+            update.inc("stats." + statsKey(notification), 1);
+            Instant createdAt = createdAtOf(notification);
+            if (createdAt != null) {
+                min = min == null || createdAt.isBefore(min) ? createdAt : min;
+                max = max == null || createdAt.isAfter(max) ? createdAt : max;
+            }
+        }
+        if (min != null) {
+            update.min("minCreatedAt", min).max("maxCreatedAt", max);
+        }
+        return update;
+    }
+
+    /**
+     * IDs among the given notifications that are already archived; read from
+     * the primary, this decides what gets appended
+     */
+    private Mono<Set<String>> archivedIds(List<Document> notifications) {
+        List<String> ids = notifications.stream().map(NotificationArchiveRepository::idOf).toList();
+        Query query = Query.query(Criteria.where("notificationIds").in(ids));
+        query.fields().include("notificationIds");
+        return mongoTemplate.find(query, NotificationArchiveBucket.class)
+                .flatMapIterable(bucket -> bucket.getNotificationIds() != null
+                        ? bucket.getNotificationIds()
+                        : List.<String>of())
+                .filter(ids::contains)
+                .collect(Collectors.toSet());
+    }
+
+    private Flux<NotificationArchiveBucket> findBucketStats(String userId, long generation) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("generation").is(generation))
+                .with(Sort.by(Sort.Direction.DESC, "month", "maxCreatedAt"));
+        query.fields().exclude("chunks").exclude("notificationIds");
+        query.withReadPreference(readRouting.readPreference(ReadRouting.Route.ARCHIVE));
+        return readRouting.timed(ReadRouting.Route.ARCHIVE, mongoTemplate.find(query, NotificationArchiveBucket.class));
+    }
+
+    private Mono<NotificationArchiveBucket> findBucket(String bucketId) {
+        Query query = Query.query(Criteria.where("_id").is(bucketId));
+        query.fields().exclude("notificationIds");
+        query.withReadPreference(readRouting.readPreference(ReadRouting.Route.ARCHIVE));
+        return readRouting.timed(ReadRouting.Route.ARCHIVE, mongoTemplate.findOne(query, NotificationArchiveBucket.class));
+    }
+
+    /**
+     * Decompresses a bucket and returns its notifications matching the filter,
+     * newest first
+     */
+    private List<Notification> decode(NotificationArchiveBucket bucket, NotificationFilterDTO filter) {
+        List<Notification> notifications = new ArrayList<>();
+        if (bucket.getChunks() == null) {
+            return notifications;
+        }
+        for (Binary chunk : bucket.getChunks()) {
+            for (Document raw : decompress(chunk.getData())) {
+                Notification notification = mongoTemplate.getConverter().read(Notification.class, raw);
+                if (notification.getStatus() != null) {
+                    notification.getStatus().setRead(true);
+                }
+                if (matches(notification, filter)) {
+                    notifications.add(notification);
+                }
+            }
+        }
+        notifications.sort(Comparator.comparing(
+                (Notification notification) -> notification.getTimestamps() != null
+                        ? notification.getTimestamps().getCreatedAt()
+                        : null,
+                Comparator.nullsLast(Comparator.reverseOrder())));
+        return notifications;
+    }
+
+    private long matchingCount(NotificationArchiveBucket bucket, NotificationFilterDTO filter) {
+        // Archived notifications are read
+        if (bucket.getStats() == null || Boolean.FALSE.equals(filter.getRead())) {
+            return 0L;
+        }
+        long total = 0;
+        for (Map.Entry<String, Long> entry : bucket.getStats().entrySet()) {
+            String[] parts = entry.getKey().split("\\|", -1);
+            if (parts.length == 3
+                    && (!StringUtils.hasText(filter.getChannel()) || parts[1].equals(sanitize(filter.getChannel())))
+                    && (!StringUtils.hasText(filter.getPriority())
+                            || parts[2].equals(sanitize(filter.getPriority())))) {
+                total += entry.getValue();
+            }
+        }
+        return total;
+    }
+
+    private boolean matches(Notification notification, NotificationFilterDTO filter) {
+        return !Boolean.FALSE.equals(filter.getRead())
+                && (!StringUtils.hasText(filter.getChannel()) || filter.getChannel().equals(notification.getChannel()))
+                && (!StringUtils.hasText(filter.getPriority())
+                        || filter.getPriority().equals(notification.getPriority()));
+    }
+
+    private String statsKey(Document notification) {
+        Document status = notification.get("status", Document.class);
+        boolean read = status != null && Boolean.TRUE.equals(status.getBoolean("read"));
+        return (read ? "1" : "0") + "|" + sanitize(notification.getString("channel")) + "|"
+                + sanitize(notification.getString("priority"));
+    }
+
+    /**
+     * Stats keys become field names, so '.', '$' and the separator are replaced
+     */
+    private static String sanitize(String value) {
+        return value == null ? "-" : value.replaceAll("[.$|]", "_");
+    }
+
+    private static Instant createdAtOf(Document notification) {
+        Document timestamps = notification.get("timestamps", Document.class);
+        Date createdAt = timestamps != null ? timestamps.getDate("createdAt") : null;
+        return createdAt != null ? createdAt.toInstant() : null;
+    }
+
+    private static byte[] compress(List<Document> notifications) {
+        RawBsonDocument raw = new RawBsonDocument(new Document("items", notifications), DOCUMENT_CODEC);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            ByteBuffer buffer = raw.getByteBuffer().asNIO();
+            byte[] data = new byte[buffer.remaining()];
+            buffer.get(data);
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<Document> decompress(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] bson = gzip.readAllBytes();
+            Document document = DOCUMENT_CODEC.decode(new BsonBinaryReader(ByteBuffer.wrap(bson)),
+                    DecoderContext.builder().build());
+            return document.getList("items", Document.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -73,6 +73,14 @@ public interface NotificationRepository
     @Update("{'$set': {'status.sent': true, 'timestamps.sentAt': ?1}}")
     Mono<Long> markAsSent(String notificationId, java.time.Instant sentAt);
 
+    /**
+     * Mark a batch of the user's notifications as sent with a single write; IDs
+     * of other users are ignored
+     */
+    @Query("{'userId': ?0, '_id': {'$in': ?1}}")
+    @Update("{'$set': {'status.sent': true, 'timestamps.sentAt': ?2}}")
+    Mono<Long> markAllAsSent(String userId, java.util.List<String> notificationIds, java.time.Instant sentAt);
+
     /**
      * Mark all active notifications as read for a user
      */
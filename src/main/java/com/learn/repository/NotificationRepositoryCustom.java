@@ -1,5 +1,10 @@
 package com.learn.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+
+import org.bson.BsonTimestamp;
+
 import com.learn.dto.NotificationFilterDTO;
 import com.learn.model.Notification;
 
@@ -28,4 +33,76 @@ public interface NotificationRepositoryCustom {
      * @return Count of matching notifications
      */
     Mono<Long> countNotificationsWithFilters(String userId, NotificationFilterDTO filter);
+
+    /**
+     * Find notifications with filters and pagination, hiding tombstoned ones
+     * 
+     * @param userId       User ID to filter by
+     * @param filter       Filter criteria
+     * @param hiddenBefore Tombstone watermark (nullable)
+     * @return Flux of filtered notifications
+     */
+    Flux<Notification> findNotificationsWithFilters(String userId, NotificationFilterDTO filter,
+            Instant hiddenBefore);
+
+    /**
+     * Count notifications with filters, hiding tombstoned ones
+     * 
+     * @param userId       User ID to filter by
+     * @param filter       Filter criteria
+     * @param hiddenBefore Tombstone watermark (nullable)
+     * @return Count of matching notifications
+     */
+    Mono<Long> countNotificationsWithFilters(String userId, NotificationFilterDTO filter, Instant hiddenBefore);
+
+    /**
+     * Find unsent and active notifications for SSE initial delivery, hiding
+     * tombstoned ones
+     * 
+     * @param userId       User ID to filter by
+     * @param hiddenBefore Tombstone watermark (nullable)
+     * @return Flux of unsent notifications
+     */
+    Flux<Notification> findUnsentNotifications(String userId, Instant hiddenBefore);
+
+    /**
+     * Watch newly inserted, unsent and active notifications of a user
+     * 
+     * @param userId User ID to filter by
+     * @return Flux of inserted notifications
+     */
+    Flux<Notification> watchNewNotifications(String userId);
+
+    /**
+     * Watch newly inserted, unsent and active notifications of a user, starting
+     * at a given cluster operation time. With languages given (and payload
+     * trimming enabled) the events only carry the fields SSE delivery needs and
+     * the rendered content of those languages.
+     * 
+     * @param userId               User ID to filter by
+     * @param startAtOperationTime Operation time to start from (nullable: now)
+     * @param languages            Rendered content languages to keep (nullable:
+     *                             full documents)
+     * @return Flux of inserted notifications
+     */
+    Flux<Notification> watchNewNotifications(String userId, BsonTimestamp startAtOperationTime,
+            Collection<String> languages);
+
+    /**
+     * Current cluster operation time, as reported by the primary
+     * 
+     * @return Mono with the operation time, empty if the deployment does not
+     *         report one (standalone server)
+     */
+    Mono<BsonTimestamp> currentOperationTime();
+
+    /**
+     * Atomically marks a notification as read if it is still unread
+     * 
+     * @param notificationId Notification ID
+     * @param readAt         Read timestamp
+     * @return Mono with the notification as it was before the update, empty if it
+     *         does not exist or was already read
+     */
+    Mono<Notification> markAsReadIfUnread(String notificationId, Instant readAt);
 }
@@ -1,52 +1,277 @@
 package com.learn.repository;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonTimestamp;
+import org.bson.conversions.Bson;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
 import com.learn.dto.NotificationFilterDTO;
 import com.learn.model.Notification;
 import com.learn.specification.NotificationSpecification;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.reactivestreams.client.ChangeStreamPublisher;
+import com.mongodb.reactivestreams.client.FindPublisher;
+import com.mongodb.reactivestreams.client.MongoCollection;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Specification-based implementation for dynamic notification queries
+ * <p>
+ * History queries sorted by creation time (newest first) fall through to the
+ * archive tier once the requested page goes past the hot collection.
+ * <p>
+ * The hot read paths (history list, SSE backlog, change stream) bypass the
+ * mapping converter and decode through the driver-registered
+ * {@code NotificationCodec}.
+ * <p>
+ * Change events for SSE delivery can be trimmed server-side to the delivered
+ * fields and languages, so fan-out does not ship params, other languages and
+ * the oplog envelope to every watching connection.
  */
 @Repository
 public class NotificationRepositoryCustomImpl implements NotificationRepositoryCustom {
 
+    private static final Pattern LANGUAGE_CODE = Pattern.compile("[A-Za-z]{2,3}(-[A-Za-z0-9]{2,8})?");
+
+    // Everything NotificationDTO, the expiry filter and the lane metrics read
+    private static final List<String> DELIVERY_FIELDS = List.of(
+            "operationType",
+            "fullDocument._id",
+            "fullDocument.userId",
+            "fullDocument.channel",
+            "fullDocument.priority",
+            "fullDocument.disabled",
+            "fullDocument.expiresAt",
+            "fullDocument.status",
+            "fullDocument.timestamps.createdAt",
+            "fullDocument.metadata",
+            "fullDocument.subject",
+            "fullDocument.content",
+            "fullDocument.contentRef");
+
     private final ReactiveMongoTemplate mongoTemplate;
+    private final NotificationArchiveRepository archiveRepository;
+    private final ReadRouting readRouting;
 
-    public NotificationRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+    @Value("${app.archive.enabled}")
+    private boolean archiveEnabled;
+
+    @Value("${app.change-stream.trim-payload}")
+    private boolean trimChangeEvents;
+
+    public NotificationRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate,
+            NotificationArchiveRepository archiveRepository,
+            ReadRouting readRouting) {
         this.mongoTemplate = mongoTemplate;
+        this.archiveRepository = archiveRepository;
+        this.readRouting = readRouting;
     }
 
     @Override
     public Flux<Notification> findNotificationsWithFilters(String userId, NotificationFilterDTO filter) {
+        return findNotificationsWithFilters(userId, filter, null);
+    }
+
+    @Override
+    public Mono<Long> countNotificationsWithFilters(String userId, NotificationFilterDTO filter) {
+        return countNotificationsWithFilters(userId, filter, null);
+    }
+
+    @Override
+    public Flux<Notification> findNotificationsWithFilters(String userId, NotificationFilterDTO filter,
+            Instant hiddenBefore) {
         // Use specification to build dynamic criteria
-        Criteria criteria = NotificationSpecification.buildCriteria(userId, filter);
+        Criteria criteria = NotificationSpecification.buildCriteria(userId, filter, hiddenBefore);
         Query query = new Query(criteria);
 
         // Apply pagination and sorting
         Pageable pageable = createPageable(filter);
         query.with(pageable);
 
-        return mongoTemplate.find(query, Notification.class);
+        Flux<Notification> hot = findDecoded(query, ReadRouting.Route.HISTORY);
+        if (!isArchiveOrdered(filter)) {
+            return hot;
+        }
+
+        return hot.collectList().flatMapMany(hotNotifications -> {
+            // Page fully served by the hot tier
+            if (hotNotifications.size() >= filter.getSize()) {
+                return Flux.fromIterable(hotNotifications);
+            }
+
+            // Page starts inside the archive: skip what the hot tier already covers
+            Mono<Long> archiveSkip = hotNotifications.isEmpty() && filter.getPage() > 0
+                    ? countHot(new Query(criteria))
+                            .map(hotCount -> Math.max(0L, (long) filter.getPage() * filter.getSize() - hotCount))
+                    : Mono.just(0L);
+
+            return archiveSkip.flatMapMany(skip -> Flux.concat(
+                    Flux.fromIterable(hotNotifications),
+                    archiveRepository.findArchived(userId, filter,
+                            NotificationArchiveRepository.generationOf(hiddenBefore), skip,
+                            filter.getSize() - hotNotifications.size())));
+        });
     }
 
     @Override
-    public Mono<Long> countNotificationsWithFilters(String userId, NotificationFilterDTO filter) {
+    public Mono<Long> countNotificationsWithFilters(String userId, NotificationFilterDTO filter,
+            Instant hiddenBefore) {
         // Use specification to build dynamic criteria (same logic, just counting)
-        Criteria criteria = NotificationSpecification.buildCriteria(userId, filter);
+        Criteria criteria = NotificationSpecification.buildCriteria(userId, filter, hiddenBefore);
         Query query = new Query(criteria);
 
-        return mongoTemplate.count(query, Notification.class);
+        Mono<Long> hotCount = countHot(query);
+        if (!archiveEnabled) {
+            return hotCount;
+        }
+
+        // Archived part is counted from bucket stats, without decompressing
+        return Mono.zip(hotCount, archiveRepository.countArchived(userId, filter,
+                NotificationArchiveRepository.generationOf(hiddenBefore)))
+                .map(counts -> counts.getT1() + counts.getT2());
+    }
+
+    @Override
+    public Flux<Notification> findUnsentNotifications(String userId, Instant hiddenBefore) {
+        // Right after send: must see the latest inserts, so always read from the primary
+        Query query = new Query(NotificationSpecification.unsentNotifications(userId, hiddenBefore));
+        return findDecoded(query, ReadRouting.Route.BACKLOG);
+    }
+
+    @Override
+    public Flux<Notification> watchNewNotifications(String userId) {
+        return watchNewNotifications(userId, null, null);
+    }
+
+    @Override
+    public Flux<Notification> watchNewNotifications(String userId, BsonTimestamp startAtOperationTime,
+            Collection<String> languages) {
+        // Change Stream pipeline: inserts and collapse overwrites of unsent, active
+        // notifications for the user; materialized broadcasts are already delivered
+        // by the broadcast dispatcher
+        List<Bson> pipeline = new ArrayList<>();
+        pipeline.add(Aggregates.match(Filters.and(
+                Filters.or(
+                        Filters.eq("operationType", "insert"),
+                        Filters.and(
+                                Filters.eq("operationType", "update"),
+                                Filters.exists("updateDescription.updatedFields." + Notification.COLLAPSED_AT_FIELD))),
+                Filters.eq("fullDocument.userId", userId),
+                Filters.eq("fullDocument.disabled", false),
+                Filters.eq("fullDocument.status.sent", false),
+                Filters.exists("fullDocument.broadcastId", false))));
+        if (trimChangeEvents && languages != null) {
+            pipeline.add(Aggregates.project(deliveryProjection(languages)));
+        }
+
+        return notificationCollection()
+                .flatMapMany(collection -> {
+                    // Update events carry the document only when it is looked up
+                    ChangeStreamPublisher<Notification> watch = collection.watch(pipeline, Notification.class)
+                            .fullDocument(FullDocument.UPDATE_LOOKUP);
+                    return startAtOperationTime != null ? watch.startAtOperationTime(startAtOperationTime) : watch;
+                })
+                .map(ChangeStreamDocument::getFullDocument)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * Only the fields SSE delivery reads, and only the requested languages of the
+     * rendered content. The event {@code _id} (resume token) is kept implicitly.
+     */
+    private Bson deliveryProjection(Collection<String> languages) {
+        List<String> fields = new ArrayList<>(DELIVERY_FIELDS);
+        languages.stream()
+                // Languages come from a request header: never let them address other fields
+                .filter(language -> LANGUAGE_CODE.matcher(language).matches())
+                .distinct()
+                .forEach(language -> fields.add("fullDocument.renderedContent." + language));
+        return Projections.include(fields);
+    }
+
+    @Override
+    public Mono<BsonTimestamp> currentOperationTime() {
+        // Every command reply of a replica set carries the cluster operation time
+        return mongoTemplate.getMongoDatabase()
+                .flatMap(database -> Mono.from(database.runCommand(new BsonDocument("ping", new BsonInt32(1)),
+                        BsonDocument.class)))
+                .filter(reply -> reply.isTimestamp("operationTime"))
+                .map(reply -> reply.getTimestamp("operationTime"));
+    }
+
+    @Override
+    public Mono<Notification> markAsReadIfUnread(String notificationId, Instant readAt) {
+        Query query = Query.query(Criteria.where("_id").is(notificationId).and("status.read").is(false));
+        Update update = new Update()
+                .set("status.read", true)
+                .set("timestamps.readAt", readAt);
+
+        // findAndModify returns the document as it was before the update by default
+        return mongoTemplate.findAndModify(query, update, Notification.class);
+    }
+
+    /**
+     * Runs a plain find on the driver collection; the criteria built by
+     * {@link NotificationSpecification} only use stored field names, so no query
+     * mapping is needed
+     */
+    private Flux<Notification> findDecoded(Query query, ReadRouting.Route route) {
+        return readRouting.timed(route, notificationCollection().flatMapMany(collection -> {
+            FindPublisher<Notification> find = collection
+                    .withReadPreference(readRouting.readPreference(route))
+                    .find(query.getQueryObject())
+                    .sort(query.getSortObject());
+            if (query.getSkip() > 0) {
+                find = find.skip((int) query.getSkip());
+            }
+            if (query.isLimited()) {
+                find = find.limit(query.getLimit());
+            }
+            return find;
+        }));
+    }
+
+    private Mono<MongoCollection<Notification>> notificationCollection() {
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Notification.class))
+                .map(collection -> collection.withDocumentClass(Notification.class));
+    }
+
+    private Mono<Long> countHot(Query query) {
+        query.withReadPreference(readRouting.readPreference(ReadRouting.Route.COUNT));
+        return readRouting.timed(ReadRouting.Route.COUNT, mongoTemplate.count(query, Notification.class));
+    }
+
+    /**
+     * The archive is only merged into newest-first history queries; other sort
+     * orders are served from the hot tier alone
+     */
+    private boolean isArchiveOrdered(NotificationFilterDTO filter) {
+        return archiveEnabled
+                && "timestamps.createdAt".equals(NotificationSpecification.validateSortField(filter.getSortBy()))
+                && "DESC".equalsIgnoreCase(filter.getSortDirection());
     }
 
     /**
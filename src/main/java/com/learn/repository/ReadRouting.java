@@ -0,0 +1,116 @@
+package com.learn.repository;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.ReadPreference;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Per-query-type read preference routing with per-route latency metrics.
+ *
+ * <p>
+ * Heavy history/list reads can go to secondaries (bounded by max staleness) so
+ * they do not compete with the insert and {@code markAsSent} write load on the
+ * primary. Read-your-writes paths (get-by-id right after send, the SSE backlog)
+ * stay on the primary.
+ *
+ * <p>
+ * Latency is recorded as {@code notification.query.latency} with
+ * {@code route} and {@code readPreference} tags.
+ */
+@Component
+public class ReadRouting {
+
+    /**
+     * Query types with an independently configured read preference
+     */
+    public enum Route {
+        HISTORY, COUNT, ARCHIVE, BY_ID, BACKLOG
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Route, ReadPreference> readPreferences = new EnumMap<>(Route.class);
+    private final Map<Route, Timer> timers = new EnumMap<>(Route.class);
+
+    @Value("${app.read-routing.max-staleness-seconds}")
+    private long maxStalenessSeconds;
+
+    @Value("${app.read-routing.routes.history}")
+    private String historyReadPreference;
+
+    @Value("${app.read-routing.routes.count}")
+    private String countReadPreference;
+
+    @Value("${app.read-routing.routes.archive}")
+    private String archiveReadPreference;
+
+    @Value("${app.read-routing.routes.by-id}")
+    private String byIdReadPreference;
+
+    @Value("${app.read-routing.routes.backlog}")
+    private String backlogReadPreference;
+
+    public ReadRouting(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        register(Route.HISTORY, historyReadPreference);
+        register(Route.COUNT, countReadPreference);
+        register(Route.ARCHIVE, archiveReadPreference);
+        register(Route.BY_ID, byIdReadPreference);
+        register(Route.BACKLOG, backlogReadPreference);
+    }
+
+    /**
+     * Read preference for the query type
+     */
+    public ReadPreference readPreference(Route route) {
+        return readPreferences.get(route);
+    }
+
+    /**
+     * Records the latency of a query from subscription to termination
+     */
+    public <T> Flux<T> timed(Route route, Flux<T> query) {
+        return Flux.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return query.doFinally(signal -> sample.stop(timers.get(route)));
+        });
+    }
+
+    /**
+     * Records the latency of a query from subscription to termination
+     */
+    public <T> Mono<T> timed(Route route, Mono<T> query) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return query.doFinally(signal -> sample.stop(timers.get(route)));
+        });
+    }
+
+    private void register(Route route, String name) {
+        // Max staleness is not allowed on the primary
+        ReadPreference readPreference = "primary".equalsIgnoreCase(name)
+                ? ReadPreference.primary()
+                : ReadPreference.valueOf(name, List.of(), maxStalenessSeconds, TimeUnit.SECONDS);
+        readPreferences.put(route, readPreference);
+        timers.put(route, Timer.builder("notification.query.latency")
+                .tag("route", route.name().toLowerCase())
+                .tag("readPreference", readPreference.getName())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+}
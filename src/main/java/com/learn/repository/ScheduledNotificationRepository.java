@@ -0,0 +1,46 @@
+package com.learn.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.Update;
+import org.springframework.stereotype.Repository;
+
+import com.learn.model.ScheduledNotification;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ScheduledNotificationRepository extends ReactiveMongoRepository<ScheduledNotification, String> {
+
+    /**
+     * Find pending notifications that arrived on the given partitions of a topic
+     */
+    Flux<ScheduledNotification> findByTopicAndPartitionIn(String topic, Collection<Integer> partitions);
+
+    /**
+     * Claim the release of a pending notification that is not released yet and
+     * not claimed by a release whose lease is still running
+     */
+    @Query("{'_id': ?0, 'releasedAt': {'$exists': false}, "
+            + "'$or': [{'releaseClaimedAt': {'$exists': false}}, {'releaseClaimedAt': {'$lt': ?2}}]}")
+    @Update("{'$set': {'releaseClaimedAt': ?1}}")
+    Mono<Long> claimRelease(String id, Instant claimedAt, Instant leaseCutoff);
+
+    /**
+     * Give back a release claim after a failed release
+     */
+    @Query("{'_id': ?0, 'releaseClaimedAt': ?1}")
+    @Update("{'$unset': {'releaseClaimedAt': ''}}")
+    Mono<Long> unclaimRelease(String id, Instant claimedAt);
+
+    /**
+     * Record that the notification was stored
+     */
+    @Query("{'_id': ?0}")
+    @Update("{'$set': {'releasedAt': ?1}}")
+    Mono<Long> markReleased(String id, Instant releasedAt);
+}
@@ -0,0 +1,19 @@
+package com.learn.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.learn.model.UserTombstone;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface UserTombstoneRepository extends ReactiveMongoRepository<UserTombstone, String> {
+
+    /**
+     * Find tombstones that still have hidden documents to compact, in the
+     * pageable's order
+     */
+    Flux<UserTombstone> findByCompactionPendingTrue(Pageable pageable);
+}
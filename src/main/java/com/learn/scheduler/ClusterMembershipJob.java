@@ -0,0 +1,50 @@
+package com.learn.scheduler;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learn.service.SseSessionManager;
+import com.learn.service.UserAffinityService;
+
+/**
+ * Refreshes this node's cluster membership and the affinity ring. When the
+ * ring changes in redirect mode, local connections of users now owned by
+ * another node are closed; their clients reconnect and are redirected to the
+ * new owner.
+ */
+@Component
+public class ClusterMembershipJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterMembershipJob.class);
+
+    private final UserAffinityService userAffinityService;
+    private final SseSessionManager sseSessionManager;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public ClusterMembershipJob(UserAffinityService userAffinityService, SseSessionManager sseSessionManager) {
+        this.userAffinityService = userAffinityService;
+        this.sseSessionManager = sseSessionManager;
+    }
+
+    @Scheduled(fixedDelayString = "${app.affinity.heartbeat-interval-ms}")
+    public void refresh() {
+        if (!userAffinityService.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        userAffinityService.refreshMembership()
+                .filter(Boolean::booleanValue)
+                .map(changed -> sseSessionManager.connectedUsers().stream()
+                        .filter(userId -> userAffinityService.redirectTarget(userId).isPresent())
+                        .filter(userId -> sseSessionManager.closeLocalConnection(userId, null))
+                        .count())
+                .filter(moved -> moved > 0)
+                .doOnNext(moved -> log.info("Closed {} SSE connections of users moved to other nodes", moved))
+                .doFinally(signal -> running.set(false))
+                .subscribe(null, error -> log.warn("Cluster membership refresh failed: {}", error.getMessage()));
+    }
+}
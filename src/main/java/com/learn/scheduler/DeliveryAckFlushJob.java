@@ -0,0 +1,45 @@
+package com.learn.scheduler;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learn.service.DeliveryAckService;
+
+/**
+ * Writes queued delivery acknowledgements as sent in batches, and drops idle
+ * pending windows.
+ */
+@Component
+public class DeliveryAckFlushJob {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryAckFlushJob.class);
+
+    private final DeliveryAckService deliveryAckService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public DeliveryAckFlushJob(DeliveryAckService deliveryAckService) {
+        this.deliveryAckService = deliveryAckService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.ack.flush-interval-ms}")
+    public void flush() {
+        if (!deliveryAckService.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        int evicted = deliveryAckService.evictIdle();
+        if (evicted > 0) {
+            log.debug("Dropped {} idle delivery ack windows", evicted);
+        }
+
+        deliveryAckService.flush()
+                .filter(written -> written > 0)
+                .doOnNext(written -> log.debug("Marked {} acknowledged notifications as sent", written))
+                .doFinally(signal -> running.set(false))
+                .subscribe(null, error -> log.warn("Delivery ack flush failed: {}", error.getMessage()));
+    }
+}
@@ -0,0 +1,270 @@
+package com.learn.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hierarchical timing wheel for in-memory delayed tasks.
+ *
+ * <p>
+ * Same design as Kafka's purgatory timer: each level is a ring of buckets
+ * covering {@code tickMs * wheelSize}; deadlines beyond a level's span go to a
+ * lazily created overflow level with a coarser tick. Only non-empty buckets
+ * sit in a {@link DelayQueue}, so the driver thread sleeps until the next
+ * bucket expires instead of ticking through empty slots. When a coarse bucket
+ * expires its tasks are re-inserted and cascade down to finer levels until
+ * they run with {@code tickMs} precision.
+ *
+ * <p>
+ * Insertion and cancellation are O(1); expired tasks run on the supplied
+ * executor. Deadlines are wall-clock epoch milliseconds.
+ */
+public class HierarchicalTimingWheel implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HierarchicalTimingWheel.class);
+
+    private static final long POLL_TIMEOUT_MS = 200;
+
+    private final DelayQueue<Bucket> delayQueue = new DelayQueue<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Executor executor;
+    private final Level root;
+    private final Thread driver;
+    private volatile boolean running = true;
+
+    public HierarchicalTimingWheel(String name, long tickMs, int wheelSize, Executor executor) {
+        this.executor = executor;
+        this.root = new Level(tickMs, wheelSize, System.currentTimeMillis());
+        this.driver = Thread.ofPlatform().name(name).daemon().start(this::drive);
+    }
+
+    /**
+     * Schedules a task to run at the given deadline (epoch milliseconds). A
+     * deadline in the past runs the task immediately.
+     *
+     * @return handle that can cancel the task before it runs
+     */
+    public Timeout schedule(long deadlineMs, Runnable task) {
+        Timeout timeout = new Timeout(deadlineMs, task);
+        pending.incrementAndGet();
+        lock.readLock().lock();
+        try {
+            addOrRun(timeout);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return timeout;
+    }
+
+    /**
+     * Number of scheduled tasks that have neither run nor been cancelled
+     */
+    public int size() {
+        return pending.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        driver.interrupt();
+    }
+
+    private void drive() {
+        while (running) {
+            try {
+                Bucket bucket = delayQueue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (bucket == null) {
+                    continue;
+                }
+                lock.writeLock().lock();
+                try {
+                    while (bucket != null) {
+                        root.advanceClock(bucket.getExpiration());
+                        bucket.drain().forEach(this::addOrRun);
+                        bucket = delayQueue.poll();
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Timing wheel {} failed to advance: {}", driver.getName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    private void addOrRun(Timeout timeout) {
+        if (timeout.isDone() || root.add(timeout)) {
+            return;
+        }
+        // Already expired: run now, unless cancelled meanwhile
+        if (timeout.markDone()) {
+            pending.decrementAndGet();
+            executor.execute(timeout.task);
+        }
+    }
+
+    /**
+     * Handle of a scheduled task
+     */
+    public final class Timeout {
+
+        private final long deadlineMs;
+        private final Runnable task;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Timeout(long deadlineMs, Runnable task) {
+            this.deadlineMs = deadlineMs;
+            this.task = task;
+        }
+
+        public long getDeadlineMs() {
+            return deadlineMs;
+        }
+
+        /**
+         * Cancels the task; the bucket entry is dropped lazily when it expires
+         *
+         * @return true if the task had not run or been cancelled yet
+         */
+        public boolean cancel() {
+            if (markDone()) {
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean isDone() {
+            return done.get();
+        }
+
+        private boolean markDone() {
+            return done.compareAndSet(false, true);
+        }
+    }
+
+    /**
+     * Slot of a wheel level; queued in the delay queue while it holds tasks
+     */
+    private static final class Bucket implements Delayed {
+
+        private final AtomicLong expiration = new AtomicLong(-1L);
+        private final List<Timeout> timeouts = new ArrayList<>();
+
+        synchronized void add(Timeout timeout) {
+            timeouts.add(timeout);
+        }
+
+        synchronized List<Timeout> drain() {
+            List<Timeout> drained = new ArrayList<>(timeouts);
+            timeouts.clear();
+            expiration.set(-1L);
+            return drained;
+        }
+
+        /**
+         * @return true if the expiration changed, i.e. the bucket must be
+         *         (re-)queued
+         */
+        boolean setExpiration(long expirationMs) {
+            return expiration.getAndSet(expirationMs) != expirationMs;
+        }
+
+        long getExpiration() {
+            return expiration.get();
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Math.max(getExpiration() - System.currentTimeMillis(), 0L), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getExpiration(), ((Bucket) other).getExpiration());
+        }
+    }
+
+    /**
+     * One level of the hierarchy
+     */
+    private final class Level {
+
+        private final long tickMs;
+        private final int wheelSize;
+        private final long interval;
+        private final Bucket[] buckets;
+        private volatile long currentTime;
+        private volatile Level overflow;
+
+        Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.interval = tickMs * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket();
+            }
+            this.currentTime = startMs - (startMs % tickMs);
+        }
+
+        /**
+         * @return false if the deadline is already within the current tick
+         */
+        boolean add(Timeout timeout) {
+            long deadline = timeout.deadlineMs;
+            if (deadline < currentTime + tickMs) {
+                return false;
+            }
+            if (deadline < currentTime + interval) {
+                long virtualId = deadline / tickMs;
+                Bucket bucket = buckets[(int) (virtualId % wheelSize)];
+                bucket.add(timeout);
+                if (bucket.setExpiration(virtualId * tickMs)) {
+                    delayQueue.offer(bucket);
+                }
+                return true;
+            }
+            return overflow().add(timeout);
+        }
+
+        void advanceClock(long timeMs) {
+            if (timeMs >= currentTime + tickMs) {
+                currentTime = timeMs - (timeMs % tickMs);
+                Level next = overflow;
+                if (next != null) {
+                    next.advanceClock(currentTime);
+                }
+            }
+        }
+
+        private Level overflow() {
+            Level next = overflow;
+            if (next == null) {
+                synchronized (this) {
+                    next = overflow;
+                    if (next == null) {
+                        next = new Level(interval, wheelSize, currentTime);
+                        overflow = next;
+                    }
+                }
+            }
+            return next;
+        }
+    }
+}
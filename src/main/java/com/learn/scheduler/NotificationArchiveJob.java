@@ -0,0 +1,240 @@
+package com.learn.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learn.repository.NotificationArchiveRepository;
+import com.learn.service.TombstoneService;
+import com.learn.service.UnreadCounterService;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Moves notifications older than the hot-tier retention into the archive.
+ *
+ * <p>
+ * Each run claims a bounded batch of old documents from the notifications
+ * collection by stamping {@code archiveClaim} on them, so nodes running the job
+ * at the same time work on different documents. A claim left behind by a
+ * crashed run can be taken over once its lease expires. The claimed documents
+ * are grouped per user and month:
+ * <ul>
+ * <li>Visible notifications are appended to a monthly archive bucket as one
+ * compressed chunk, marked read (archived notifications count as read)</li>
+ * <li>Disabled, expiring or tombstoned notifications are not archived, only
+ * removed</li>
+ * </ul>
+ * The hot documents are deleted after their bucket write succeeds, and only
+ * while this run still holds their claim. Appends skip notifications that are
+ * already archived, so a run repeated after a partial failure does not store
+ * anything twice. Users whose unread notifications were archived get their
+ * unread counter reconciled.
+ */
+@Component
+public class NotificationArchiveJob {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationArchiveJob.class);
+    private static final String NOTIFICATIONS_COLLECTION = "notifications";
+    private static final String CLAIM_OWNER = "archiveClaim.owner";
+    private static final String CLAIMED_AT = "archiveClaim.claimedAt";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final NotificationArchiveRepository archiveRepository;
+    private final TombstoneService tombstoneService;
+    private final UnreadCounterService unreadCounterService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.archive.enabled}")
+    private boolean enabled;
+
+    @Value("${app.archive.hot-retention-days}")
+    private int hotRetentionDays;
+
+    @Value("${app.archive.batch-size}")
+    private int batchSize;
+
+    @Value("${app.archive.claim-lease-ms}")
+    private long claimLeaseMs;
+
+    @Value("${app.archive.max-bucket-notifications}")
+    private int maxBucketNotifications;
+
+    public NotificationArchiveJob(ReactiveMongoTemplate mongoTemplate,
+            NotificationArchiveRepository archiveRepository,
+            TombstoneService tombstoneService,
+            UnreadCounterService unreadCounterService) {
+        this.mongoTemplate = mongoTemplate;
+        this.archiveRepository = archiveRepository;
+        this.tombstoneService = tombstoneService;
+        this.unreadCounterService = unreadCounterService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms}")
+    public void archive() {
+        // Skip the tick if disabled or the previous run is still going
+        if (!enabled || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(Duration.ofDays(hotRetentionDays));
+        Instant leaseCutoff = now.minusMillis(claimLeaseMs);
+        String runId = new ObjectId().toHexString();
+
+        Query candidates = Query.query(claimable(Criteria.where("timestamps.createdAt").lt(cutoff), leaseCutoff))
+                .limit(batchSize);
+        candidates.fields().include("_id");
+
+        mongoTemplate.find(candidates, Document.class, NOTIFICATIONS_COLLECTION)
+                .map(candidate -> candidate.get("_id"))
+                .collectList()
+                .filter(ids -> !ids.isEmpty())
+                // Another node may claim some of the same candidates; each document goes to one run
+                .flatMap(ids -> mongoTemplate.updateMulti(
+                        Query.query(claimable(Criteria.where("_id").in(ids), leaseCutoff)),
+                        new Update().set(CLAIM_OWNER, runId).set(CLAIMED_AT, now),
+                        NOTIFICATIONS_COLLECTION))
+                .flatMapMany(claimed -> mongoTemplate.find(Query.query(Criteria.where(CLAIM_OWNER).is(runId)),
+                        Document.class, NOTIFICATIONS_COLLECTION))
+                .collectList()
+                .flatMapMany(batch -> Flux.fromIterable(groupByUser(batch).entrySet()))
+                .concatMap(entry -> archiveUser(entry.getKey(), entry.getValue(), runId, cutoff, now))
+                .reduce(0L, Long::sum)
+                .doOnNext(total -> {
+                    if (total > 0) {
+                        log.debug("📦 Moved {} notifications older than {} days out of the hot tier", total,
+                                hotRetentionDays);
+                    }
+                })
+                .doFinally(signal -> running.set(false))
+                .subscribe(null, error -> log.warn("Archive run failed: {}", error.getMessage(), error));
+    }
+
+    private Mono<Long> archiveUser(String userId, List<Document> notifications, String runId, Instant cutoff,
+            Instant archivedAt) {
+        return tombstoneService.getHiddenBefore(userId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(hiddenBefore -> {
+                    long generation = NotificationArchiveRepository.generationOf(hiddenBefore.orElse(null));
+
+                    Map<String, List<Document>> visibleByMonth = new LinkedHashMap<>();
+                    boolean archivesUnread = false;
+                    for (Document notification : notifications) {
+                        Instant createdAt = createdAtOf(notification);
+                        if (isVisible(notification, createdAt, hiddenBefore.orElse(null))) {
+                            archivesUnread |= markRead(notification, archivedAt);
+                            notification.remove("archiveClaim");
+                            visibleByMonth.computeIfAbsent(NotificationArchiveRepository.monthOf(createdAt),
+                                    month -> new ArrayList<>()).add(notification);
+                        }
+                    }
+                    boolean reconcileCounter = archivesUnread;
+
+                    List<Object> ids = notifications.stream().map(notification -> notification.get("_id")).toList();
+                    // Only documents still claimed by this run and still old: a collapse overwrite
+                    // (claim dropped, fresh creation time) or a lease taken over is left alone
+                    Query claimedByRun = Query.query(Criteria.where("_id").in(ids)
+                            .and(CLAIM_OWNER).is(runId)
+                            .and("timestamps.createdAt").lt(cutoff));
+
+                    return Flux.fromIterable(visibleByMonth.entrySet())
+                            .concatMap(month -> archiveRepository.append(userId, month.getKey(), generation,
+                                    month.getValue(), maxBucketNotifications))
+                            .then(mongoTemplate.remove(claimedByRun, NOTIFICATIONS_COLLECTION))
+                            .map(result -> result.getDeletedCount())
+                            .flatMap(deleted -> reconcileCounter
+                                    ? reconcileUnreadCounter(userId).thenReturn(deleted)
+                                    : Mono.just(deleted));
+                });
+    }
+
+    /**
+     * Counter failures never fail the run; the reconciliation job repairs the
+     * drift.
+     */
+    private Mono<Long> reconcileUnreadCounter(String userId) {
+        return unreadCounterService.reconcile(userId)
+                .onErrorResume(error -> {
+                    log.warn("Failed to reconcile unread counter for user {}: {}", userId, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * Not claimed yet, or claimed by a run whose lease has expired
+     */
+    private static Criteria claimable(Criteria criteria, Instant leaseCutoff) {
+        return criteria.orOperator(
+                Criteria.where(CLAIMED_AT).exists(false),
+                Criteria.where(CLAIMED_AT).lt(leaseCutoff));
+    }
+
+    /**
+     * @return true if the notification was unread
+     */
+    private static boolean markRead(Document notification, Instant readAt) {
+        Document status = notification.get("status", Document.class);
+        if (status == null) {
+            status = new Document();
+            notification.put("status", status);
+        }
+        if (Boolean.TRUE.equals(status.getBoolean("read"))) {
+            return false;
+        }
+        status.put("read", true);
+        Document timestamps = notification.get("timestamps", Document.class);
+        if (timestamps != null && timestamps.get("readAt") == null) {
+            timestamps.put("readAt", Date.from(readAt));
+        }
+        return true;
+    }
+
+    private Map<String, List<Document>> groupByUser(List<Document> batch) {
+        Map<String, List<Document>> byUser = new LinkedHashMap<>();
+        for (Document notification : batch) {
+            String userId = notification.getString("userId");
+            if (userId != null) {
+                byUser.computeIfAbsent(userId, key -> new ArrayList<>()).add(notification);
+            }
+        }
+        return byUser;
+    }
+
+    private boolean isVisible(Document notification, Instant createdAt, Instant hiddenBefore) {
+        if (createdAt == null || Boolean.TRUE.equals(notification.getBoolean("disabled"))) {
+            return false;
+        }
+        // Expiring notifications are short-lived by definition and never archived
+        if (notification.get("expiresAt") != null) {
+            return false;
+        }
+        return hiddenBefore == null || createdAt.isAfter(hiddenBefore);
+    }
+
+    private static Instant createdAtOf(Document notification) {
+        Document timestamps = notification.get("timestamps", Document.class);
+        Date createdAt = timestamps != null ? timestamps.getDate("createdAt") : null;
+        return createdAt != null ? createdAt.toInstant() : null;
+    }
+}
@@ -0,0 +1,184 @@
+package com.learn.scheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learn.model.Notification;
+import com.learn.model.UserTombstone;
+import com.learn.repository.NotificationArchiveRepository;
+import com.learn.repository.UserTombstoneRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Background compactor for tombstoned users.
+ *
+ * <p>
+ * Disable-all only moves a per-user watermark (see
+ * {@link com.learn.service.TombstoneService}). This job applies the physical
+ * changes afterwards:
+ * <ol>
+ * <li>Sets {@code disabled=true} on notifications at or before the
+ * watermark</li>
+ * <li>If a purge was requested, deletes the user's disabled notifications</li>
+ * <li>Drops archive buckets of older tombstone generations</li>
+ * <li>Clears the pending flag once there is nothing left to do</li>
+ * </ol>
+ *
+ * <p>
+ * Each run handles at most one id-bounded batch per user for a limited number
+ * of users, with a pause between batches. The write rate is therefore capped at
+ * roughly {@code users-per-run * batch-size} documents per interval, so it
+ * never competes with the live insert and {@code markAsSent} write path. Users
+ * are picked least recently compacted first and each batch moves the user to
+ * the back, so users with large backlogs take turns with everyone else instead
+ * of holding the page.
+ */
+@Component
+public class NotificationCompactionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationCompactionJob.class);
+
+    private final UserTombstoneRepository tombstoneRepository;
+    private final NotificationArchiveRepository archiveRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.compaction.batch-size}")
+    private int batchSize;
+
+    @Value("${app.compaction.users-per-run}")
+    private int usersPerRun;
+
+    @Value("${app.compaction.batch-pause-ms}")
+    private long batchPauseMs;
+
+    public NotificationCompactionJob(UserTombstoneRepository tombstoneRepository,
+            NotificationArchiveRepository archiveRepository,
+            ReactiveMongoTemplate mongoTemplate) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.archiveRepository = archiveRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${app.compaction.interval-ms}")
+    public void compact() {
+        // Skip the tick if the previous run is still going
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        // Never attempted (missing) sorts first
+        tombstoneRepository.findByCompactionPendingTrue(
+                PageRequest.of(0, usersPerRun, Sort.by(Sort.Direction.ASC, "compactionAttemptAt")))
+                .concatMap(this::compactUser)
+                .reduce(0L, Long::sum)
+                .doOnNext(total -> {
+                    if (total > 0) {
+                        log.debug("🧹 Compaction run touched {} notifications", total);
+                    }
+                })
+                .doFinally(signal -> running.set(false))
+                .subscribe(null, error -> log.warn("Compaction run failed: {}", error.getMessage(), error));
+    }
+
+    /**
+     * Runs one batch for the user and emits the number of touched documents. When
+     * nothing is left the tombstone is marked as compacted.
+     */
+    private Flux<Long> compactUser(UserTombstone tombstone) {
+        return markAttempted(tombstone)
+                .then(disableHiddenBatch(tombstone))
+                .flatMap(disabled -> disabled > 0
+                        ? Mono.just(disabled)
+                        : purgeDisabledBatch(tombstone))
+                .flatMap(touched -> touched > 0
+                        ? Mono.just(touched)
+                        : archiveRepository.deleteGenerationsBefore(tombstone.getUserId(),
+                                NotificationArchiveRepository.generationOf(tombstone.getHiddenBefore()))
+                                .then(markCompacted(tombstone))
+                                .thenReturn(0L))
+                .delayElement(Duration.ofMillis(batchPauseMs))
+                .flux();
+    }
+
+    private Mono<Long> disableHiddenBatch(UserTombstone tombstone) {
+        if (tombstone.getHiddenBefore() == null) {
+            return Mono.just(0L);
+        }
+        Criteria criteria = Criteria.where("userId").is(tombstone.getUserId())
+                .and("disabled").is(false)
+                .and("timestamps.createdAt").lte(tombstone.getHiddenBefore());
+
+        return nextBatchIds(criteria)
+                .flatMap(ids -> ids.isEmpty()
+                        ? Mono.just(0L)
+                        : mongoTemplate.updateMulti(Query.query(Criteria.where("_id").in(ids)),
+                                new Update().set("disabled", true), Notification.class)
+                                .map(result -> result.getModifiedCount()));
+    }
+
+    private Mono<Long> purgeDisabledBatch(UserTombstone tombstone) {
+        if (!tombstone.isPurgeRequested()) {
+            return Mono.just(0L);
+        }
+        Criteria criteria = Criteria.where("userId").is(tombstone.getUserId())
+                .and("disabled").is(true);
+
+        return nextBatchIds(criteria)
+                .flatMap(ids -> ids.isEmpty()
+                        ? Mono.just(0L)
+                        : mongoTemplate.remove(Query.query(Criteria.where("_id").in(ids)), Notification.class)
+                                .map(result -> result.getDeletedCount()));
+    }
+
+    private Mono<List<String>> nextBatchIds(Criteria criteria) {
+        Query query = Query.query(criteria).limit(batchSize);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Notification.class)
+                .map(Notification::getId)
+                .collectList();
+    }
+
+    /**
+     * Moves the user to the back of the compaction order
+     */
+    private Mono<Void> markAttempted(UserTombstone tombstone) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(tombstone.getUserId())),
+                new Update().set("compactionAttemptAt", Instant.now()), UserTombstone.class)
+                .then();
+    }
+
+    /**
+     * Clears the pending flags only if the watermark has not moved since this run
+     * read it, so a concurrent disable-all is never lost.
+     */
+    private Mono<Void> markCompacted(UserTombstone tombstone) {
+        Query query = Query.query(Criteria.where("_id").is(tombstone.getUserId())
+                .and("hiddenBefore").is(tombstone.getHiddenBefore())
+                .and("purgeRequested").is(tombstone.isPurgeRequested()));
+        Update update = new Update()
+                .set("compactionPending", false)
+                .set("purgeRequested", false)
+                .set("updatedAt", Instant.now());
+
+        return mongoTemplate.updateFirst(query, update, UserTombstone.class)
+                .doOnSuccess(result -> log.debug("Compaction finished for user: {}", tombstone.getUserId()))
+                .then();
+    }
+}
@@ -0,0 +1,32 @@
+package com.learn.scheduler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learn.service.RateLimiterService;
+
+/**
+ * Periodically drops idle rate-limit buckets so per-key state only exists for
+ * recently active users and source systems.
+ */
+@Component
+public class RateLimitEvictionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitEvictionJob.class);
+
+    private final RateLimiterService rateLimiterService;
+
+    public RateLimitEvictionJob(RateLimiterService rateLimiterService) {
+        this.rateLimiterService = rateLimiterService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms}")
+    public void evict() {
+        int evicted = rateLimiterService.evictIdle();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate-limit buckets", evicted);
+        }
+    }
+}
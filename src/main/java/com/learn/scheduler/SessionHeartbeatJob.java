@@ -0,0 +1,43 @@
+package com.learn.scheduler;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learn.service.SessionDirectory;
+import com.learn.service.SseSessionManager;
+
+/**
+ * Keeps this node's entries in the cluster session directory alive. Entries
+ * stop being refreshed when the node goes away and then expire.
+ */
+@Component
+public class SessionHeartbeatJob {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionHeartbeatJob.class);
+
+    private final SessionDirectory sessionDirectory;
+    private final SseSessionManager sseSessionManager;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SessionHeartbeatJob(SessionDirectory sessionDirectory, SseSessionManager sseSessionManager) {
+        this.sessionDirectory = sessionDirectory;
+        this.sseSessionManager = sseSessionManager;
+    }
+
+    @Scheduled(fixedDelayString = "${app.session-directory.heartbeat-interval-ms}")
+    public void heartbeat() {
+        // Skip the tick if the previous run is still going
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        sessionDirectory.heartbeat(sseSessionManager.connectedUsers())
+                .doOnNext(refreshed -> log.debug("Refreshed {} session directory entries", refreshed))
+                .doFinally(signal -> running.set(false))
+                .subscribe(null, error -> log.warn("Session directory heartbeat failed: {}", error.getMessage()));
+    }
+}
@@ -0,0 +1,63 @@
+package com.learn.scheduler;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.learn.model.UnreadCounter;
+import com.learn.service.UnreadCounterService;
+
+/**
+ * Periodically repairs drift in the materialized unread counters.
+ *
+ * <p>
+ * Each run recomputes a bounded batch of counters, least recently reconciled
+ * first (never-reconciled counters come first), so every counter is eventually
+ * checked without a full scan per run.
+ */
+@Component
+public class UnreadCounterReconciliationJob {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadCounterReconciliationJob.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final UnreadCounterService unreadCounterService;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.unread-counter.reconciliation.batch-size}")
+    private int batchSize;
+
+    public UnreadCounterReconciliationJob(ReactiveMongoTemplate mongoTemplate,
+            UnreadCounterService unreadCounterService) {
+        this.mongoTemplate = mongoTemplate;
+        this.unreadCounterService = unreadCounterService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.unread-counter.reconciliation.interval-ms}")
+    public void reconcile() {
+        // Skip the tick if the previous run is still going
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+
+        Query query = new Query()
+                .with(Sort.by(Sort.Direction.ASC, "reconciledAt"))
+                .limit(batchSize);
+        query.fields().include("_id");
+
+        mongoTemplate.find(query, UnreadCounter.class)
+                .concatMap(counter -> unreadCounterService.reconcile(counter.getUserId()))
+                .count()
+                .doOnNext(total -> log.debug("Reconciled {} unread counters", total))
+                .doFinally(signal -> running.set(false))
+                .subscribe(null, error -> log.warn("Unread counter reconciliation failed: {}", error.getMessage(),
+                        error));
+    }
+}
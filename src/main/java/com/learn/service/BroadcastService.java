@@ -0,0 +1,49 @@
+package com.learn.service;
+
+import java.time.Instant;
+
+import com.learn.dto.BroadcastRequestDTO;
+import com.learn.model.Notification;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Notifications addressed to a segment or to all users.
+ * <p>
+ * A broadcast is rendered and stored once. A user's copy is materialized in
+ * the notifications collection (ID {@code broadcastId:userId}) only when the
+ * broadcast is about to be sent to that user or the user reads their history or
+ * unread count, so read/sent state is tracked exactly like for a regular
+ * notification from then on.
+ */
+public interface BroadcastService {
+
+    /**
+     * Renders the template once and stores the broadcast.
+     *
+     * @param request the broadcast request
+     * @return Mono with the broadcast ID
+     */
+    Mono<String> publishBroadcast(BroadcastRequestDTO request);
+
+    /**
+     * Broadcasts the user has no copy of yet (bounded look-back), materialized as
+     * unsent notifications.
+     *
+     * @param userId       the user identifier
+     * @param hiddenBefore the user's tombstone watermark (nullable)
+     * @return Flux of newly materialized notifications
+     */
+    Flux<Notification> pendingBroadcasts(String userId, Instant hiddenBefore);
+
+    /**
+     * Broadcasts published while the user is connected, matched against the
+     * user's segments on this node's shared broadcast change stream and
+     * materialized as unsent notifications.
+     *
+     * @param userId the user identifier
+     * @return Flux of newly materialized notifications
+     */
+    Flux<Notification> liveBroadcasts(String userId);
+}
@@ -0,0 +1,33 @@
+package com.learn.service;
+
+import com.learn.dto.NotificationRequestDTO;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Drops repeated notification requests with the same content (userId,
+ * templateId, params) within a short window, e.g. upstream retries.
+ */
+public interface DeduplicationService {
+
+    /**
+     * Claims the request's content for the current window.
+     *
+     * @param request        the notification request
+     * @param notificationId the notification ID the request would be stored under
+     * @return Mono with true if this is the first request with this content in the
+     *         window (or deduplication is disabled), false for a duplicate
+     */
+    Mono<Boolean> claim(NotificationRequestDTO request, String notificationId);
+
+    /**
+     * Gives up a claim whose notification failed to process, so a retry of the
+     * same content is not dropped as a duplicate.
+     *
+     * @param request        the notification request
+     * @param notificationId the notification ID passed to
+     *                       {@link #claim(NotificationRequestDTO, String)}
+     * @return Mono that completes when the claim is removed
+     */
+    Mono<Void> release(NotificationRequestDTO request, String notificationId);
+}
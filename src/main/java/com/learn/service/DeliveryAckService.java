@@ -0,0 +1,80 @@
+package com.learn.service;
+
+import java.util.Collection;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Client acknowledgements of delivered SSE events.
+ * <p>
+ * With acks enabled, notifications handed to a connection are not marked as
+ * sent; they wait in the user's pending window until the client acknowledges
+ * them (POST or the Last-Event-ID of a reconnect). Unacknowledged ones stay
+ * unsent and are redelivered from the backlog on the next connection.
+ * Acknowledged ones are marked as sent in batched writes.
+ */
+public interface DeliveryAckService {
+
+    /**
+     * Whether deliveries wait for client acks
+     *
+     * @return false if notifications are marked as sent when emitted
+     */
+    boolean isEnabled();
+
+    /**
+     * Adds notifications just handed to the user's connection to the pending
+     * window, in delivery order.
+     *
+     * @param userId          the user identifier
+     * @param notificationIds delivered notification IDs
+     */
+    void track(String userId, Collection<String> notificationIds);
+
+    /**
+     * Acknowledges individual notifications pending for the user; other IDs are
+     * ignored. Written with the next batch.
+     *
+     * @param userId          the user identifier
+     * @param notificationIds acknowledged notification IDs
+     * @return number of notifications acknowledged
+     */
+    int ack(String userId, Collection<String> notificationIds);
+
+    /**
+     * Acknowledges a notification and every pending one delivered before it
+     * (SSE events arrive in order); nothing if it is not pending for the user.
+     * Written with the next batch.
+     *
+     * @param userId         the user identifier
+     * @param notificationId ID of the last event the client received
+     * @return number of notifications acknowledged
+     */
+    int ackUpTo(String userId, String notificationId);
+
+    /**
+     * Applies the Last-Event-ID of a reconnecting client, like
+     * {@link #ackUpTo}, but writes right away so the new connection's backlog
+     * does not return the acknowledged notifications again.
+     *
+     * @param userId      the user identifier
+     * @param lastEventId the Last-Event-ID header, may be null
+     * @return Mono that completes when the acknowledgements are written
+     */
+    Mono<Void> resume(String userId, String lastEventId);
+
+    /**
+     * Writes the queued acknowledgements as sent.
+     *
+     * @return Mono with the number of notifications written
+     */
+    Mono<Long> flush();
+
+    /**
+     * Drops the pending windows of users without deliveries or acks for the
+     * retention period. Their notifications stay unsent.
+     *
+     * @return number of windows dropped
+     */
+    int evictIdle();
+}
@@ -0,0 +1,55 @@
+package com.learn.service;
+
+import java.util.Collection;
+
+import com.learn.model.Notification;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Carries newly inserted notifications to the SSE connections of their user.
+ * <p>
+ * The implementation is selected with {@code app.delivery-bus.type}:
+ * {@code change-stream} (default, needs a replica set), {@code tailable}
+ * (capped notification_events collection) or {@code in-memory} (single node).
+ */
+public interface NotificationDeliveryBus {
+
+    /**
+     * Announces a notification that was just inserted.
+     *
+     * @param notification the saved notification
+     * @return Mono that completes when the notification is on the bus
+     */
+    Mono<Void> publish(Notification notification);
+
+    /**
+     * Opens a live stream of the user's new notifications. The returned Mono
+     * completes once the stream's start position is fixed, so it should be
+     * opened before the backlog is queried: everything published after that is
+     * delivered.
+     *
+     * @param userId    the user identifier
+     * @param languages rendered content languages the connection needs (a bus
+     *                  may deliver only these)
+     * @return Mono with the live stream
+     */
+    Mono<Flux<Notification>> open(String userId, Collection<String> languages);
+
+    /**
+     * Whether delivered notifications are complete documents that may be cached
+     * as such
+     */
+    default boolean deliversFullDocuments() {
+        return true;
+    }
+
+    /**
+     * Whether publishing writes to shared storage, so it is worth skipping for
+     * users who are not connected anywhere
+     */
+    default boolean publishWrites() {
+        return false;
+    }
+}
@@ -1,9 +1,12 @@
 package com.learn.service;
 
+import org.springframework.http.codec.ServerSentEvent;
+
 import com.learn.dto.NotificationDTO;
 import com.learn.dto.NotificationFilterDTO;
 import com.learn.dto.NotificationRequestDTO;
 import com.learn.dto.NotificationResponseDTO;
+import com.learn.dto.UnreadCountDTO;
 import com.learn.model.Notification;
 
 import reactor.core.publisher.Flux;
@@ -32,6 +35,50 @@ public interface NotificationService {
      */
     Flux<NotificationDTO> getNotificationStream(String userId, String language);
 
+    /**
+     * Streams SSE events for a user: notifications (default event, ID = notification
+     * ID) merged with out-of-band events such as "unread-count".
+     *
+     * @param userId   the user identifier
+     * @param language the language code (en, az, ru)
+     * @return Flux of SSE events
+     */
+    Flux<ServerSentEvent<Object>> getEventStream(String userId, String language);
+
+    /**
+     * Streams SSE events for a user, coalescing notification bursts: notifications
+     * arriving within the window are sent as a single "notification-batch" event
+     * carrying an array of notifications.
+     *
+     * @param userId           the user identifier
+     * @param language         the language code (en, az, ru)
+     * @param coalesceWindowMs coalescing window in milliseconds (0 disables it)
+     * @return Flux of SSE events
+     */
+    Flux<ServerSentEvent<Object>> getEventStream(String userId, String language, int coalesceWindowMs);
+
+    /**
+     * Streams SSE events for a reconnecting user. With delivery acks enabled, the
+     * last event ID the client received acknowledges it and the events delivered
+     * before it; the rest are redelivered.
+     *
+     * @param userId           the user identifier
+     * @param language         the language code (en, az, ru)
+     * @param coalesceWindowMs coalescing window in milliseconds (0 disables it)
+     * @param lastEventId      the Last-Event-ID header, may be null
+     * @return Flux of SSE events
+     */
+    Flux<ServerSentEvent<Object>> getEventStream(String userId, String language, int coalesceWindowMs,
+            String lastEventId);
+
+    /**
+     * Returns the materialized unread notification count for a user.
+     *
+     * @param userId the user identifier
+     * @return Mono with the unread count
+     */
+    Mono<UnreadCountDTO> getUnreadCount(String userId);
+
     /**
      * Marks a notification as read.
      *
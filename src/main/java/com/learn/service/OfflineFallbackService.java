@@ -0,0 +1,19 @@
+package com.learn.service;
+
+import com.learn.model.Notification;
+
+/**
+ * Hands notifications that stay undelivered over SSE to outbound channel
+ * workers (EMAIL/SMS/PUSH) after a delay per priority and channel.
+ */
+public interface OfflineFallbackService {
+
+    /**
+     * Arms the fallback of a just saved notification. When the delay configured
+     * for its priority and channel has passed and it is still unsent and unread,
+     * it is published to the outbound topic. No-op if no delay applies.
+     *
+     * @param notification the saved notification
+     */
+    void schedule(Notification notification);
+}
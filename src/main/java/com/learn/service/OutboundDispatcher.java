@@ -0,0 +1,24 @@
+package com.learn.service;
+
+import java.util.List;
+
+import com.learn.dto.OutboundNotificationDTO;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Dispatches outbound notifications (EMAIL/SMS/PUSH) to their providers in
+ * batches.
+ */
+public interface OutboundDispatcher {
+
+    /**
+     * Queues notifications for their channel's provider.
+     *
+     * @param notifications notifications to send
+     * @return Mono that completes when every notification was accepted or
+     *         permanently rejected by its provider, or errors if a batch could
+     *         not be sent after retries
+     */
+    Mono<Void> dispatchAll(List<OutboundNotificationDTO> notifications);
+}
@@ -0,0 +1,42 @@
+package com.learn.service;
+
+import java.util.List;
+import java.util.Set;
+
+import com.learn.dto.OutboundNotificationDTO;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * SPI of an outbound delivery provider (email gateway, SMS aggregator, push
+ * service). Implementations are Spring beans; the dispatcher batches,
+ * rate-limits and circuit-breaks calls per provider.
+ * <p>
+ * A batch may be delivered more than once (retries, Kafka redelivery), so
+ * providers should pass the notification ID on as an idempotency key.
+ */
+public interface OutboundProvider {
+
+    /**
+     * Unique provider name, used in routes, per-provider settings and metrics
+     *
+     * @return the provider name
+     */
+    String getName();
+
+    /**
+     * Channels the provider can deliver (EMAIL, SMS, PUSH)
+     *
+     * @return supported channels
+     */
+    Set<String> getChannels();
+
+    /**
+     * Sends a batch with a single provider call.
+     *
+     * @param batch notifications of one channel or several supported ones
+     * @return Mono with the IDs the provider rejected permanently (e.g. no
+     *         recipient address); an error means the whole batch may be retried
+     */
+    Mono<List<String>> send(List<OutboundNotificationDTO> batch);
+}
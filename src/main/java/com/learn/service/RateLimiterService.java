@@ -0,0 +1,26 @@
+package com.learn.service;
+
+/**
+ * Token-bucket rate limiting of send requests per user and per source system.
+ */
+public interface RateLimiterService {
+
+    /**
+     * Takes one token from the user's bucket and one from the source system's
+     * bucket (if a source system is given).
+     *
+     * @param userId       the recipient user identifier
+     * @param sourceSystem the calling source system (nullable)
+     * @throws com.learn.exception.RateLimitExceededException if either bucket is
+     *                                                        empty
+     */
+    void acquireSend(String userId, String sourceSystem);
+
+    /**
+     * Drops buckets that have refilled completely; an evicted bucket is
+     * indistinguishable from a new one, so eviction never changes a decision.
+     *
+     * @return number of evicted buckets
+     */
+    int evictIdle();
+}
@@ -0,0 +1,97 @@
+package com.learn.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import com.learn.dto.NotificationFilterDTO;
+import com.learn.model.Notification;
+
+/**
+ * Bounded node-local cache of the most recent notifications of users connected
+ * via SSE to this node. Serves page-0 list queries and get-by-id without a
+ * database round trip.
+ */
+public interface RecentNotificationCache {
+
+    /**
+     * Page of recent notifications (newest first) with the user's total count.
+     * The count is not exact after live inserts and has to be recounted.
+     */
+    record RecentPage(List<Notification> notifications, long totalCount, boolean countExact) {
+    }
+
+    /**
+     * Checks whether a list request can be answered from the cache: first page,
+     * no filters, default sort and a page size within the cached window.
+     *
+     * @param filter the filter criteria
+     * @return true if the request is cacheable
+     */
+    boolean isCacheable(NotificationFilterDTO filter);
+
+    /**
+     * Number of notifications cached per user.
+     *
+     * @return cache window size
+     */
+    int windowSize();
+
+    /**
+     * Returns the cached page for the user and records a hit or a miss.
+     *
+     * @param userId the user identifier
+     * @return cached page, empty on miss
+     */
+    Optional<RecentPage> get(String userId);
+
+    /**
+     * Returns a cached notification by ID and records a hit or a miss.
+     *
+     * @param notificationId the notification identifier
+     * @return cached notification, empty on miss
+     */
+    Optional<Notification> getById(String notificationId);
+
+    /**
+     * Returns the user's mutation version, to be passed to
+     * {@link #put(String, List, long, long)} after loading from the database.
+     *
+     * @param userId the user identifier
+     * @return current version
+     */
+    long version(String userId);
+
+    /**
+     * Stores a freshly loaded page unless the user's notifications changed while
+     * it was loading.
+     *
+     * @param userId        the user identifier
+     * @param notifications most recent notifications, newest first
+     * @param totalCount    total visible notifications of the user
+     * @param version       version obtained before the load started
+     */
+    void put(String userId, List<Notification> notifications, long totalCount, long version);
+
+    /**
+     * Stores a recounted total unless the user's notifications changed meanwhile.
+     *
+     * @param userId     the user identifier
+     * @param totalCount total visible notifications of the user
+     * @param version    version obtained before the count started
+     */
+    void updateCount(String userId, long totalCount, long version);
+
+    /**
+     * Adds a newly inserted notification to the user's cached page (if any).
+     *
+     * @param notification the inserted notification
+     */
+    void onInserted(Notification notification);
+
+    /**
+     * Drops the user's cached page (read/disable operations).
+     *
+     * @param userId the user identifier
+     */
+    void invalidateUser(String userId);
+}
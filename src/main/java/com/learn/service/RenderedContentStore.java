@@ -0,0 +1,47 @@
+package com.learn.service;
+
+import java.util.List;
+
+import com.learn.model.Notification;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Content-addressed storage of rendered notification bodies.
+ * <p>
+ * Notifications with identical rendered content (campaigns: same template and
+ * params for many users) reference one shared document instead of each
+ * carrying every language. The read path resolves references from an
+ * in-memory cache of decoded bodies.
+ */
+public interface RenderedContentStore {
+
+    /**
+     * Replaces the notification's rendered content with a reference to the
+     * shared copy when the same content has been seen before. Content seen for
+     * the first time stays inline, so personalized notifications cost no extra
+     * write.
+     *
+     * @param notification the rendered notification, before it is saved
+     * @return Mono with the same notification, possibly without inline content
+     */
+    Mono<Notification> externalize(Notification notification);
+
+    /**
+     * Fills in the rendered content of a notification that only holds a
+     * reference.
+     *
+     * @param notification the notification as read from the database
+     * @return Mono with the same notification, content resolved
+     */
+    Mono<Notification> resolve(Notification notification);
+
+    /**
+     * Batch variant of {@link #resolve(Notification)}: cache misses are loaded
+     * with a single query.
+     *
+     * @param notifications the notifications as read from the database
+     * @return Mono with the same notifications, content resolved
+     */
+    Mono<List<Notification>> resolveAll(List<Notification> notifications);
+}
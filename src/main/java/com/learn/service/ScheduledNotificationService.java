@@ -0,0 +1,53 @@
+package com.learn.service;
+
+import java.util.Collection;
+
+import com.learn.dto.NotificationRequestDTO;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Service for notification requests with a future {@code sendAt}.
+ * <p>
+ * Pending requests are persisted and held in an in-memory timing wheel by the
+ * node that owns their Kafka partition; at {@code sendAt} they are released
+ * through the normal render-and-save path.
+ */
+public interface ScheduledNotificationService {
+
+    /**
+     * Whether the request asks for delivery later than now
+     *
+     * @param request the notification request
+     * @return true if the request must be scheduled
+     */
+    boolean isScheduledForLater(NotificationRequestDTO request);
+
+    /**
+     * Persists the request as pending and arms its timer
+     *
+     * @param request        the notification request
+     * @param notificationId pre-generated notification ID
+     * @param topic          Kafka topic the request arrived on
+     * @param partition      Kafka partition the request arrived on
+     * @return Mono completing once the pending request is stored
+     */
+    Mono<Void> schedule(NotificationRequestDTO request, String notificationId, String topic, int partition);
+
+    /**
+     * Loads the pending requests of newly assigned partitions into the timing
+     * wheel
+     *
+     * @param topic      Kafka topic
+     * @param partitions assigned partitions
+     */
+    void onPartitionsAssigned(String topic, Collection<Integer> partitions);
+
+    /**
+     * Drops the timers of revoked partitions; their new owner loads them
+     *
+     * @param topic      Kafka topic
+     * @param partitions revoked partitions
+     */
+    void onPartitionsRevoked(String topic, Collection<Integer> partitions);
+}
@@ -0,0 +1,76 @@
+package com.learn.service;
+
+import java.util.Collection;
+
+import com.learn.model.SseSessionEntry;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Cluster-wide directory of SSE connections: which node holds each user's
+ * connection. Lets any node close a connection held elsewhere and answer
+ * whether a user is online.
+ */
+public interface SessionDirectory {
+
+    /**
+     * Identifier of this node in the directory
+     *
+     * @return the node ID
+     */
+    String getNodeId();
+
+    /**
+     * Records a new connection of the user on this node. A connection the
+     * user still had on another node is closed there (single-session policy).
+     *
+     * @param userId    the user identifier
+     * @param sessionId the local connection identifier
+     * @return Mono that completes when the entry is stored
+     */
+    Mono<Void> register(String userId, String sessionId);
+
+    /**
+     * Removes the user's entry if it still refers to the given connection.
+     *
+     * @param userId    the user identifier
+     * @param sessionId the local connection identifier
+     * @return Mono that completes when the entry is removed
+     */
+    Mono<Void> unregister(String userId, String sessionId);
+
+    /**
+     * Extends the entries of the users connected to this node.
+     *
+     * @param userIds users with a connection on this node
+     * @return Mono with the number of entries refreshed
+     */
+    Mono<Long> heartbeat(Collection<String> userIds);
+
+    /**
+     * Looks up where the user is connected.
+     *
+     * @param userId the user identifier
+     * @return Mono with the live entry, or empty if the user is offline
+     */
+    Mono<SseSessionEntry> locate(String userId);
+
+    /**
+     * Whether the user may have a connection anywhere. True when the directory
+     * is disabled or cannot be read, so callers only skip work for users that
+     * are known to be offline.
+     *
+     * @param userId the user identifier
+     * @return Mono with false only if the user is known to be offline
+     */
+    Mono<Boolean> isOnline(String userId);
+
+    /**
+     * Sends a close command to the node holding the user's connection, if it
+     * is not this node.
+     *
+     * @param userId the user identifier
+     * @return Mono that completes when the command is published
+     */
+    Mono<Void> requestRemoteClose(String userId);
+}
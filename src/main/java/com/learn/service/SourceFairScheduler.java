@@ -0,0 +1,36 @@
+package com.learn.service;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Weighted fair queuing of notification processing across source systems.
+ * <p>
+ * Every source system gets its own bounded queue (its quota) and a share of
+ * the processing slots proportional to its weight, so a flooding upstream only
+ * grows its own backlog.
+ */
+public interface SourceFairScheduler {
+
+    /**
+     * Enqueues work for a source system without waiting
+     *
+     * @param sourceSystem the source system (null is treated as "unknown")
+     * @param work         the processing to run when the source gets its turn
+     * @return false if the source's quota is exhausted and nothing was enqueued
+     */
+    boolean offer(String sourceSystem, Supplier<Mono<?>> work);
+
+    /**
+     * Enqueues work for a source system, waiting for room in its quota. Blocks
+     * the calling thread; only used by the deferred-request listener.
+     *
+     * @param sourceSystem the source system (null is treated as "unknown")
+     * @param work         the processing to run when the source gets its turn
+     * @param timeout      maximum time to wait for room
+     * @return false if there was still no room after the timeout
+     */
+    boolean offer(String sourceSystem, Supplier<Mono<?>> work, Duration timeout) throws InterruptedException;
+}
@@ -1,10 +1,16 @@
 package com.learn.service;
 
+import java.util.Collection;
+
+import org.springframework.http.codec.ServerSentEvent;
+
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Manages Server-Sent Events (SSE) sessions.
- * Ensures only one active SSE connection per user.
+ * Ensures only one active SSE connection per user, across the cluster through
+ * the session directory.
  */
 public interface SseSessionManager {
 
@@ -18,9 +24,63 @@ public interface SseSessionManager {
     Mono<Void> createConnection(String userId);
 
     /**
-     * Manually closes an active SSE connection for the user.
+     * Completes once the user's current connection on this node is recorded in
+     * the cluster session directory (also if recording failed).
+     *
+     * @param userId the user identifier
+     * @return Mono that completes when the connection is registered, empty if
+     *         the user is not connected here
+     */
+    Mono<Void> registered(String userId);
+
+    /**
+     * Manually closes the user's SSE connection, on whichever node holds it.
+     *
+     * @param userId the user identifier
+     * @return Mono that completes when the local connection is closed and a
+     *         connection on another node has been asked to close
+     */
+    Mono<Void> closeConnection(String userId);
+
+    /**
+     * Closes the user's connection on this node only.
+     *
+     * @param userId    the user identifier
+     * @param sessionId the connection to close, or null for any
+     * @return true if a connection was closed
+     */
+    boolean closeLocalConnection(String userId, String sessionId);
+
+    /**
+     * Checks whether the user has an active SSE connection on this node.
+     *
+     * @param userId the user identifier
+     * @return true if a connection is active
+     */
+    boolean isConnected(String userId);
+
+    /**
+     * Returns the users with an active SSE connection on this node.
+     *
+     * @return snapshot of the connected user IDs
+     */
+    Collection<String> connectedUsers();
+
+    /**
+     * Returns out-of-band events (e.g. unread counter updates) pushed to the
+     * user's current connection. Completes when the connection is closed.
+     *
+     * @param userId the user identifier
+     * @return Flux of SSE events, empty if the user is not connected
+     */
+    Flux<ServerSentEvent<Object>> sessionEvents(String userId);
+
+    /**
+     * Pushes an out-of-band event to the user's active connection on this node.
      *
      * @param userId the user identifier
+     * @param event  the SSE event
+     * @return true if the event was queued for an active connection
      */
-    void closeConnection(String userId);
+    boolean pushEvent(String userId, ServerSentEvent<Object> event);
 }
@@ -0,0 +1,36 @@
+package com.learn.service;
+
+import java.time.Instant;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Manages per-user tombstone watermarks used for O(1) disable-all.
+ */
+public interface TombstoneService {
+
+    /**
+     * Returns the instant at or before which the user's notifications are hidden.
+     *
+     * @param userId the user identifier
+     * @return Mono with the watermark, or empty if the user has no tombstone
+     */
+    Mono<Instant> getHiddenBefore(String userId);
+
+    /**
+     * Hides all current notifications of the user by moving the watermark to now.
+     * Physical compaction is done in the background.
+     *
+     * @param userId the user identifier
+     * @return Mono with the new watermark
+     */
+    Mono<Instant> hideAll(String userId);
+
+    /**
+     * Requests background physical deletion of the user's disabled notifications.
+     *
+     * @param userId the user identifier
+     * @return Mono that completes when the request is recorded
+     */
+    Mono<Void> requestPurge(String userId);
+}
@@ -0,0 +1,53 @@
+package com.learn.service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Service for the materialized per-user unread notification counters.
+ * Every change is pushed to the user's SSE connection as an "unread-count"
+ * event.
+ */
+public interface UnreadCounterService {
+
+    /**
+     * Returns the user's unread count, seeding the counter from the
+     * notifications collection if it does not exist yet.
+     *
+     * @param userId the user identifier
+     * @return Mono with the unread count
+     */
+    Mono<Long> getUnreadCount(String userId);
+
+    /**
+     * Increments the counter after a new notification is inserted.
+     *
+     * @param userId the user identifier
+     * @return Mono with the new count
+     */
+    Mono<Long> increment(String userId);
+
+    /**
+     * Decrements the counter after a notification is marked as read. Never goes
+     * below zero.
+     *
+     * @param userId the user identifier
+     * @return Mono with the new count
+     */
+    Mono<Long> decrement(String userId);
+
+    /**
+     * Resets the counter to zero (mark-all-read, disable-all).
+     *
+     * @param userId the user identifier
+     * @return Mono with the new count
+     */
+    Mono<Long> reset(String userId);
+
+    /**
+     * Recomputes the counter from the notifications collection to repair drift.
+     *
+     * @param userId the user identifier
+     * @return Mono with the reconciled count
+     */
+    Mono<Long> reconcile(String userId);
+}
@@ -0,0 +1,91 @@
+package com.learn.service;
+
+import java.util.Optional;
+import java.util.Set;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Consistent-hash ownership of users across the SSE nodes.
+ * <p>
+ * Users map to a fixed number of slots; slots are placed on a ring of the
+ * live nodes (with virtual nodes), so a membership change only moves the
+ * slots next to the node that joined or left. Each node can then limit its
+ * node-level delivery work to the slots it owns.
+ * <p>
+ * The mode is set with {@code app.affinity.mode}: {@code none} (any node
+ * serves any user), {@code hint} (owner returned in a response header for the
+ * load balancer) or {@code redirect} (non-owners redirect subscriptions to the
+ * owner).
+ */
+public interface UserAffinityService {
+
+    /**
+     * Response header carrying the owning node ID
+     */
+    String OWNER_HEADER = "X-SSE-Owner-Node";
+
+    /**
+     * Whether ownership is tracked at all
+     *
+     * @return false in mode none
+     */
+    boolean isEnabled();
+
+    /**
+     * Slot of the user; the same on every node
+     *
+     * @param userId the user identifier
+     * @return slot number in [0, slots)
+     */
+    int slotOf(String userId);
+
+    /**
+     * Node owning the user according to this node's view of the ring
+     *
+     * @param userId the user identifier
+     * @return the owner node ID; this node while the ring is empty
+     */
+    String ownerOf(String userId);
+
+    /**
+     * Whether this node owns the user
+     *
+     * @param userId the user identifier
+     * @return true if the user is owned here (always true in mode none)
+     */
+    boolean isLocalOwner(String userId);
+
+    /**
+     * URL a subscription of the user should be redirected to
+     *
+     * @param userId the user identifier
+     * @return the owner's advertised base URL, empty unless in redirect mode and
+     *         another node owns the user
+     */
+    Optional<String> redirectTarget(String userId);
+
+    /**
+     * Whether node-level delivery may be limited to the owned slots. Only in
+     * redirect mode, where this node does not serve other users' subscriptions.
+     *
+     * @return true if delivery work may be filtered by slot
+     */
+    boolean filtersDelivery();
+
+    /**
+     * Slots owned by this node: the current set, then every change
+     *
+     * @return Flux of owned slot sets
+     */
+    Flux<Set<Integer>> ownedSlots();
+
+    /**
+     * Refreshes this node's membership entry and rebuilds the ring from the
+     * live members.
+     *
+     * @return Mono with true if the ring changed
+     */
+    Mono<Boolean> refreshMembership();
+}
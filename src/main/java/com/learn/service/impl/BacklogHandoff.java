@@ -0,0 +1,69 @@
+package com.learn.service.impl;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.learn.model.Notification;
+
+/**
+ * Deduplicates the backlog and the live stream of one SSE connection while
+ * both run at the same time.
+ *
+ * <p>
+ * The live stream starts at the cluster time captured before the backlog
+ * query, so a notification inserted around that time can show up on both
+ * sides. Whichever side delivers a version first wins; only versions that may
+ * still arrive from the other side are remembered, so the set is bounded by
+ * the backlog size rather than the connection lifetime.
+ *
+ * <p>
+ * A version is the ID plus the creation time: a collapse overwrite keeps the
+ * ID but is a new notification with its own creation time, and must be
+ * delivered even though an older version of the ID already was. Creation
+ * times are compared in milliseconds, the precision they are stored with.
+ */
+final class BacklogHandoff {
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private volatile boolean backlogDone;
+
+    /**
+     * @return true if the backlog notification was not delivered live yet
+     */
+    boolean fromBacklog(Notification notification) {
+        return first(version(notification));
+    }
+
+    /**
+     * @return true if the live notification was not delivered from the backlog
+     */
+    boolean fromLive(Notification notification) {
+        if (backlogDone) {
+            // Backlog versions only; live versions no longer need to be remembered
+            return !pending.remove(version(notification));
+        }
+        return first(version(notification));
+    }
+
+    void backlogDone() {
+        backlogDone = true;
+    }
+
+    private boolean first(String version) {
+        if (pending.add(version)) {
+            return true;
+        }
+        pending.remove(version);
+        return false;
+    }
+
+    private static String version(Notification notification) {
+        Instant createdAt = notification.getTimestamps() != null
+                ? notification.getTimestamps().getCreatedAt()
+                : null;
+        return createdAt != null
+                ? notification.getId() + '@' + createdAt.toEpochMilli()
+                : notification.getId();
+    }
+}
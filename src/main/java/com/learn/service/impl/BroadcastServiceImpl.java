@@ -0,0 +1,240 @@
+package com.learn.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ChangeStreamEvent;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.learn.dto.BroadcastRequestDTO;
+import com.learn.exception.TemplateNotFoundException;
+import com.learn.model.Broadcast;
+import com.learn.model.Notification;
+import com.learn.model.UserSegments;
+import com.learn.repository.TemplateRepository;
+import com.learn.service.BroadcastService;
+import com.learn.service.RecentNotificationCache;
+import com.learn.service.RenderedContentStore;
+import com.learn.service.TemplateRenderingService;
+import com.learn.service.UnreadCounterService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Broadcasts stored once in the broadcasts collection.
+ *
+ * <p>
+ * Live delivery uses one change stream per node, shared by every connected
+ * session: each session only filters the stream by its user's segments, so a
+ * broadcast costs one change event per node instead of one insert per user.
+ * The stream is opened with the first subscriber and closed with the last.
+ *
+ * <p>
+ * Materialization inserts the user's copy with a deterministic ID; a duplicate
+ * key means it was already materialized (backlog and live overlap, or an
+ * earlier connection), so it is skipped instead of sent twice.
+ */
+@Service
+public class BroadcastServiceImpl implements BroadcastService {
+
+    private static final Logger log = LoggerFactory.getLogger(BroadcastServiceImpl.class);
+    private static final String BROADCASTS_COLLECTION = "broadcasts";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final TemplateRepository templateRepository;
+    private final TemplateRenderingService templateRenderingService;
+    private final UnreadCounterService unreadCounterService;
+    private final RecentNotificationCache recentNotificationCache;
+    private final RenderedContentStore renderedContentStore;
+    private final MeterRegistry meterRegistry;
+
+    private Flux<Broadcast> broadcastChanges;
+    private Counter materialized;
+
+    @Value("${app.broadcast.backlog-lookback-days}")
+    private int backlogLookbackDays;
+
+    @Value("${app.broadcast.backlog-limit}")
+    private int backlogLimit;
+
+    public BroadcastServiceImpl(
+            ReactiveMongoTemplate mongoTemplate,
+            TemplateRepository templateRepository,
+            TemplateRenderingService templateRenderingService,
+            UnreadCounterService unreadCounterService,
+            RecentNotificationCache recentNotificationCache,
+            RenderedContentStore renderedContentStore,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.templateRepository = templateRepository;
+        this.templateRenderingService = templateRenderingService;
+        this.unreadCounterService = unreadCounterService;
+        this.recentNotificationCache = recentNotificationCache;
+        this.renderedContentStore = renderedContentStore;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        materialized = meterRegistry.counter("notification.broadcast.materialized");
+        broadcastChanges = mongoTemplate.changeStream(Broadcast.class)
+                .watchCollection(BROADCASTS_COLLECTION)
+                .filter(Criteria.where("operationType").is("insert"))
+                .listen()
+                .mapNotNull(ChangeStreamEvent::getBody)
+                .doOnError(error -> log.warn("Broadcast change stream failed, reopening: {}", error.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .share();
+    }
+
+    @Override
+    public Mono<String> publishBroadcast(BroadcastRequestDTO request) {
+        return templateRepository.existsById(request.getTemplateId())
+                .flatMap(exists -> {
+                    if (!exists) {
+                        return Mono.error(new TemplateNotFoundException(request.getTemplateId()));
+                    }
+
+                    // Rendered once for every recipient; params are shared by the whole audience
+                    Notification prototype = new Notification();
+                    prototype.setTemplateId(request.getTemplateId());
+                    prototype.setChannel(request.getChannel());
+                    prototype.setParams(request.getParams());
+                    return templateRenderingService.renderNotification(prototype);
+                })
+                .flatMap(rendered -> {
+                    Broadcast broadcast = new Broadcast();
+                    broadcast.setTemplateId(request.getTemplateId());
+                    broadcast.setSegment(request.getSegment());
+                    broadcast.setChannel(request.getChannel());
+                    broadcast.setPriority(request.getPriority() != null ? request.getPriority() : "NORMAL");
+                    broadcast.setSourceSystem(request.getSourceSystem());
+                    broadcast.setRenderedContent(rendered.getRenderedContent());
+                    broadcast.setParams(request.getParams());
+                    broadcast.setMetadata(request.getMetadata());
+                    broadcast.setCreatedAt(Instant.now());
+                    broadcast.setExpiresAt(request.getExpiresAt());
+                    return mongoTemplate.insert(broadcast);
+                })
+                .map(Broadcast::getId)
+                .doOnNext(broadcastId -> log.debug("Broadcast {} stored for segment: {}", broadcastId,
+                        request.getSegment() != null ? request.getSegment() : "all users"));
+    }
+
+    @Override
+    public Flux<Notification> pendingBroadcasts(String userId, Instant hiddenBefore) {
+        Instant now = Instant.now();
+        Instant lookback = now.minus(Duration.ofDays(backlogLookbackDays));
+        Instant since = hiddenBefore != null && hiddenBefore.isAfter(lookback) ? hiddenBefore : lookback;
+
+        return userSegments(userId)
+                .flatMapMany(segments -> {
+                    Criteria audience = new Criteria().orOperator(
+                            Criteria.where("segment").is(null),
+                            Criteria.where("segment").in(segments));
+                    Query query = Query.query(new Criteria().andOperator(
+                            audience,
+                            Criteria.where("createdAt").gt(since),
+                            Criteria.where("expiresAt").not().lte(now)))
+                            .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                            .limit(backlogLimit);
+                    return mongoTemplate.find(query, Broadcast.class).collectList();
+                })
+                .flatMapMany(broadcasts -> notMaterialized(broadcasts, userId))
+                .concatMap(broadcast -> materialize(broadcast, userId));
+    }
+
+    /**
+     * Drops the broadcasts the user already has a copy of with one ID lookup, so
+     * repeated calls (every REST read of an offline user) do not pay a failing
+     * insert per broadcast.
+     */
+    private Flux<Broadcast> notMaterialized(List<Broadcast> broadcasts, String userId) {
+        if (broadcasts.isEmpty()) {
+            return Flux.empty();
+        }
+        List<String> copyIds = broadcasts.stream().map(broadcast -> copyId(broadcast, userId)).toList();
+        Query existing = Query.query(Criteria.where("_id").in(copyIds));
+        existing.fields().include("_id");
+        return mongoTemplate.find(existing, Notification.class)
+                .map(Notification::getId)
+                .collect(Collectors.toSet())
+                .flatMapMany(materialized -> Flux.fromIterable(broadcasts)
+                        .filter(broadcast -> !materialized.contains(copyId(broadcast, userId))));
+    }
+
+    private static String copyId(Broadcast broadcast, String userId) {
+        return broadcast.getId() + ":" + userId;
+    }
+
+    @Override
+    public Flux<Notification> liveBroadcasts(String userId) {
+        return userSegments(userId)
+                .flatMapMany(segments -> broadcastChanges
+                        .filter(broadcast -> broadcast.isAddressedTo(segments))
+                        .filter(broadcast -> !broadcast.isExpired(Instant.now())))
+                .concatMap(broadcast -> materialize(broadcast, userId));
+    }
+
+    private Mono<List<String>> userSegments(String userId) {
+        return mongoTemplate.findById(userId, UserSegments.class)
+                .mapNotNull(UserSegments::getSegments)
+                .defaultIfEmpty(List.of());
+    }
+
+    /**
+     * Inserts the user's unsent copy of the broadcast
+     *
+     * @return the copy, or empty if it was already materialized
+     */
+    private Mono<Notification> materialize(Broadcast broadcast, String userId) {
+        Notification notification = new Notification();
+        notification.setId(copyId(broadcast, userId));
+        notification.setBroadcastId(broadcast.getId());
+        notification.setTemplateId(broadcast.getTemplateId());
+        notification.setUserId(userId);
+        notification.setChannel(broadcast.getChannel());
+        notification.setPriority(broadcast.getPriority());
+        notification.setSourceSystem(broadcast.getSourceSystem());
+        notification.setRenderedContent(broadcast.getRenderedContent());
+        notification.setParams(broadcast.getParams());
+        notification.setMetadata(broadcast.getMetadata());
+        notification.setExpiresAt(broadcast.getExpiresAt());
+        notification.setDisabled(false);
+        notification.setStatus(new Notification.NotificationStatus(false, false));
+        notification.setTimestamps(new Notification.NotificationTimestamps(broadcast.getCreatedAt(), null, null));
+
+        // Every copy has the same content: all but the first reference the shared one
+        return renderedContentStore.externalize(notification)
+                .flatMap(mongoTemplate::insert)
+                .flatMap(renderedContentStore::resolve)
+                .doOnNext(saved -> {
+                    materialized.increment();
+                    recentNotificationCache.onInserted(saved);
+                    log.debug("Materialized broadcast {} for user: {}", broadcast.getId(), userId);
+                })
+                .flatMap(saved -> unreadCounterService.increment(userId)
+                        .onErrorResume(error -> {
+                            log.warn("Failed to increment unread counter for user {}: {}", userId,
+                                    error.getMessage());
+                            return Mono.empty();
+                        })
+                        .thenReturn(saved))
+                .onErrorResume(DuplicateKeyException.class, error -> Mono.empty());
+    }
+}
@@ -0,0 +1,62 @@
+package com.learn.service.impl;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.learn.model.Notification;
+import com.learn.repository.NotificationRepository;
+import com.learn.service.NotificationDeliveryBus;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Delivery bus on MongoDB Change Streams: one change stream per connection,
+ * started at the cluster operation time captured when it is opened. Nothing
+ * needs to be published; the insert itself is the event.
+ */
+@Service
+@ConditionalOnProperty(name = "app.delivery-bus.type", havingValue = "change-stream", matchIfMissing = true)
+public class ChangeStreamDeliveryBus implements NotificationDeliveryBus {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeStreamDeliveryBus.class);
+
+    private final NotificationRepository notificationRepository;
+
+    @Value("${app.change-stream.trim-payload}")
+    private boolean trimChangeEvents;
+
+    public ChangeStreamDeliveryBus(NotificationRepository notificationRepository) {
+        this.notificationRepository = notificationRepository;
+    }
+
+    @Override
+    public Mono<Void> publish(Notification notification) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Flux<Notification>> open(String userId, Collection<String> languages) {
+        return notificationRepository.currentOperationTime()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(error -> {
+                    log.debug("Could not read the operation time for user {}, live stream starts now: {}", userId,
+                            error.getMessage());
+                    return Mono.just(Optional.empty());
+                })
+                .map(startAt -> notificationRepository.watchNewNotifications(userId, startAt.orElse(null),
+                        languages));
+    }
+
+    @Override
+    public boolean deliversFullDocuments() {
+        return !trimChangeEvents;
+    }
+}
@@ -0,0 +1,228 @@
+package com.learn.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.learn.dto.NotificationRequestDTO;
+import com.learn.model.NotificationDedupEntry;
+import com.learn.service.DeduplicationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Mono;
+
+/**
+ * Content deduplication backed by a local time-bucketed set and the
+ * notification_dedup collection.
+ *
+ * <p>
+ * The window is split into {@code buckets} slots; the local set only holds the
+ * hashes seen in the live slots, so old hashes are dropped a whole slot at a
+ * time instead of per entry. A local hit is a duplicate without a database
+ * round trip. A local miss claims the hash with a single conditional upsert:
+ * it inserts a new claim or takes over an expired one, and fails with a
+ * duplicate key error while another node's claim is still live.
+ *
+ * <p>
+ * Store errors fail open (the request is processed), since losing a
+ * notification is worse than delivering one twice.
+ */
+@Service
+public class DeduplicationServiceImpl implements DeduplicationService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeduplicationServiceImpl.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private AtomicReferenceArray<Slot> slots;
+    private long slotMs;
+    private Counter memoryHits;
+    private Counter storeHits;
+
+    @Value("${app.dedup.enabled}")
+    private boolean enabled;
+
+    @Value("${app.dedup.window-ms}")
+    private long windowMs;
+
+    @Value("${app.dedup.buckets}")
+    private int buckets;
+
+    @Value("${app.dedup.max-entries-per-bucket}")
+    private int maxEntriesPerBucket;
+
+    public DeduplicationServiceImpl(ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        slots = new AtomicReferenceArray<>(buckets);
+        slotMs = Math.max(1L, windowMs / buckets);
+        memoryHits = meterRegistry.counter("notification.dedup.hits", "tier", "memory");
+        storeHits = meterRegistry.counter("notification.dedup.hits", "tier", "store");
+    }
+
+    @Override
+    public Mono<Boolean> claim(NotificationRequestDTO request, String notificationId) {
+        if (!enabled) {
+            return Mono.just(true);
+        }
+
+        String hash = contentHash(request);
+        if (seenLocally(hash)) {
+            memoryHits.increment();
+            return Mono.just(false);
+        }
+
+        Instant now = Instant.now();
+        Query query = Query.query(Criteria.where("_id").is(hash).and("expiresAt").lte(now));
+        Update update = new Update()
+                .set("notificationId", notificationId)
+                .set("expiresAt", now.plus(Duration.ofMillis(windowMs)));
+
+        return mongoTemplate.upsert(query, update, NotificationDedupEntry.class)
+                .thenReturn(true)
+                .onErrorResume(DuplicateKeyException.class, e -> {
+                    storeHits.increment();
+                    return Mono.just(false);
+                })
+                .onErrorResume(error -> {
+                    log.warn("Dedup claim failed for notification {}, processing anyway: {}", notificationId,
+                            error.getMessage());
+                    return Mono.just(true);
+                })
+                // Claimed here or live elsewhere: either way later copies are duplicates
+                .doOnNext(claimed -> remember(hash));
+    }
+
+    @Override
+    public Mono<Void> release(NotificationRequestDTO request, String notificationId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+
+        String hash = contentHash(request);
+        forget(hash);
+        Query query = Query.query(Criteria.where("_id").is(hash).and("notificationId").is(notificationId));
+        return mongoTemplate.remove(query, NotificationDedupEntry.class)
+                .onErrorResume(error -> {
+                    log.warn("Failed to release dedup claim of notification {}: {}", notificationId,
+                            error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private boolean seenLocally(String hash) {
+        long current = System.currentTimeMillis() / slotMs;
+        for (int i = 0; i < buckets; i++) {
+            Slot slot = slots.get(index(current - i));
+            if (slot != null && slot.epoch() == current - i && slot.hashes().contains(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remember(String hash) {
+        long current = System.currentTimeMillis() / slotMs;
+        int index = index(current);
+        Slot slot = slots.get(index);
+        while (slot == null || slot.epoch() != current) {
+            // Rotate: the slot still holds hashes from a full window ago
+            Slot fresh = new Slot(current, ConcurrentHashMap.newKeySet());
+            if (slots.compareAndSet(index, slot, fresh)) {
+                slot = fresh;
+            } else {
+                slot = slots.get(index);
+            }
+        }
+        // Bounded per slot; misses beyond the bound still hit the unique claim
+        if (slot.hashes().size() < maxEntriesPerBucket) {
+            slot.hashes().add(hash);
+        }
+    }
+
+    private void forget(String hash) {
+        for (int i = 0; i < buckets; i++) {
+            Slot slot = slots.get(i);
+            if (slot != null) {
+                slot.hashes().remove(hash);
+            }
+        }
+    }
+
+    private int index(long epoch) {
+        return (int) Math.floorMod(epoch, (long) buckets);
+    }
+
+    /**
+     * 128-bit SHA-256 prefix of the canonical (userId, templateId, params) form;
+     * map keys are sorted so parameter order does not matter
+     */
+    private static String contentHash(NotificationRequestDTO request) {
+        StringBuilder canonical = new StringBuilder()
+                .append(request.getUserId()).append('\u0000')
+                .append(request.getTemplateId()).append('\u0000');
+        appendCanonical(canonical, request.getParams());
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void appendCanonical(StringBuilder out, Object value) {
+        if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            new TreeMap<>(map).forEach((key, nested) -> {
+                out.append(key).append('=');
+                appendCanonical(out, nested);
+                out.append(',');
+            });
+            out.append('}');
+        } else if (value instanceof Collection<?> collection) {
+            out.append('[');
+            collection.forEach(nested -> {
+                appendCanonical(out, nested);
+                out.append(',');
+            });
+            out.append(']');
+        } else if (value != null) {
+            out.append(value.getClass().getSimpleName()).append(':').append(value);
+        }
+    }
+
+    /**
+     * Hashes seen during one slot of the window
+     */
+    private record Slot(long epoch, Set<String> hashes) {
+    }
+}
@@ -0,0 +1,296 @@
+package com.learn.service.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.learn.repository.NotificationRepository;
+import com.learn.service.DeliveryAckService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Node-local pending windows of delivered, unacknowledged notifications.
+ *
+ * <p>
+ * A window is kept per user rather than per connection, so the Last-Event-ID
+ * of a reconnect still finds the events of the previous connection. Windows
+ * are bounded: past {@code max-pending-per-user} the oldest entries are taken
+ * as delivered (the behaviour without acks), and past {@code max-users} the
+ * least recently used window is dropped, leaving its notifications unsent.
+ *
+ * <p>
+ * Only IDs pending in the user's window count as acknowledged: a client
+ * cannot mark other users' notifications, or ones it never received, as sent.
+ * Acks for events delivered by another node or before a restart are dropped,
+ * and those notifications are delivered again on the next connection.
+ *
+ * <p>
+ * Acknowledged IDs are queued per user and written with one user-scoped
+ * update per batch by the flush job, so acks do not add a write per event.
+ */
+@Service
+public class DeliveryAckServiceImpl implements DeliveryAckService {
+
+    private static final Logger log = LoggerFactory.getLogger(DeliveryAckServiceImpl.class);
+
+    private final NotificationRepository notificationRepository;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Set<String>> ackedUnwritten = new ConcurrentHashMap<>();
+
+    private Map<String, PendingWindow> windows;
+    private Counter redelivered;
+    private Counter overflowed;
+
+    @Value("${app.ack.enabled}")
+    private boolean enabled;
+
+    @Value("${app.ack.max-pending-per-user}")
+    private int maxPendingPerUser;
+
+    @Value("${app.ack.max-users}")
+    private int maxUsers;
+
+    @Value("${app.ack.flush-batch-size}")
+    private int flushBatchSize;
+
+    @Value("${app.ack.window-retention-seconds}")
+    private long windowRetentionSeconds;
+
+    public DeliveryAckServiceImpl(NotificationRepository notificationRepository, MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        windows = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PendingWindow> eldest) {
+                return size() > maxUsers;
+            }
+        });
+        redelivered = meterRegistry.counter("notification.ack.redelivered");
+        overflowed = meterRegistry.counter("notification.ack.overflowed");
+        meterRegistry.gauge("notification.ack.pending", this, DeliveryAckServiceImpl::pendingCount);
+        meterRegistry.gauge("notification.ack.unwritten", ackedUnwritten,
+                unwritten -> unwritten.values().stream().mapToInt(Set::size).sum());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void track(String userId, Collection<String> notificationIds) {
+        if (!enabled) {
+            return;
+        }
+        PendingWindow window = windows.computeIfAbsent(userId, key -> new PendingWindow());
+        List<String> overflow = new ArrayList<>();
+        for (String notificationId : notificationIds) {
+            if (window.add(notificationId, maxPendingPerUser, overflow)) {
+                redelivered.increment();
+            }
+        }
+        if (!overflow.isEmpty()) {
+            // Client is not acking fast enough (or at all): fall back to delivered-on-send
+            overflowed.increment(overflow.size());
+            queueAcked(userId, overflow);
+        }
+    }
+
+    @Override
+    public int ack(String userId, Collection<String> notificationIds) {
+        if (!enabled || notificationIds.isEmpty()) {
+            return 0;
+        }
+        PendingWindow window = windows.get(userId);
+        if (window == null) {
+            return 0;
+        }
+        List<String> acked = notificationIds.stream().filter(window::remove).toList();
+        queueAcked(userId, acked);
+        return acked.size();
+    }
+
+    @Override
+    public int ackUpTo(String userId, String notificationId) {
+        if (!enabled || notificationId == null || notificationId.isBlank()) {
+            return 0;
+        }
+        List<String> acked = acknowledgedUpTo(userId, notificationId);
+        queueAcked(userId, acked);
+        return acked.size();
+    }
+
+    @Override
+    public Mono<Void> resume(String userId, String lastEventId) {
+        if (!enabled || lastEventId == null || lastEventId.isBlank()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            List<String> acked = acknowledgedUpTo(userId, lastEventId);
+            if (acked.isEmpty()) {
+                return Mono.<Void>empty();
+            }
+            return notificationRepository.markAllAsSent(userId, acked, Instant.now())
+                    .doOnNext(count -> log.debug("Acknowledged {} notifications of user {} on reconnect", count,
+                            userId))
+                    .then();
+        });
+    }
+
+    @Override
+    public Mono<Long> flush() {
+        if (ackedUnwritten.isEmpty()) {
+            return Mono.just(0L);
+        }
+        List<AckBatch> batches = new ArrayList<>();
+        for (String userId : List.copyOf(ackedUnwritten.keySet())) {
+            // Acks arriving from now on start a new set
+            Set<String> ids = ackedUnwritten.remove(userId);
+            if (ids == null) {
+                continue;
+            }
+            List<String> batch = new ArrayList<>(flushBatchSize);
+            for (String id : ids) {
+                batch.add(id);
+                if (batch.size() == flushBatchSize) {
+                    batches.add(new AckBatch(userId, batch));
+                    batch = new ArrayList<>(flushBatchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(new AckBatch(userId, batch));
+            }
+        }
+
+        Instant sentAt = Instant.now();
+        return Flux.fromIterable(batches)
+                .concatMap(batch -> notificationRepository.markAllAsSent(batch.userId(), batch.ids(), sentAt)
+                        .onErrorResume(error -> {
+                            // Requeue: the next flush retries
+                            log.warn("Failed to write {} delivery acks: {}", batch.ids().size(),
+                                    error.getMessage());
+                            queueAcked(batch.userId(), batch.ids());
+                            return Mono.just(0L);
+                        }))
+                .reduce(0L, Long::sum);
+    }
+
+    @Override
+    public int evictIdle() {
+        long cutoff = System.currentTimeMillis() - windowRetentionSeconds * 1000;
+        int evicted = 0;
+        synchronized (windows) {
+            for (Iterator<PendingWindow> it = windows.values().iterator(); it.hasNext();) {
+                if (it.next().touchedAt < cutoff) {
+                    it.remove();
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Removes the ID and everything delivered before it from the user's window;
+     * nothing if the ID is not pending here
+     */
+    private List<String> acknowledgedUpTo(String userId, String notificationId) {
+        PendingWindow window = windows.get(userId);
+        return window != null ? window.removeUpTo(notificationId) : List.of();
+    }
+
+    private void queueAcked(String userId, Collection<String> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return;
+        }
+        ackedUnwritten.compute(userId, (key, ids) -> {
+            Set<String> queued = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            queued.addAll(notificationIds);
+            return queued;
+        });
+    }
+
+    private int pendingCount() {
+        synchronized (windows) {
+            return windows.values().stream().mapToInt(PendingWindow::size).sum();
+        }
+    }
+
+    private record AckBatch(String userId, List<String> ids) {
+    }
+
+    /**
+     * Delivered, unacknowledged notification IDs of one user in delivery order
+     */
+    private static final class PendingWindow {
+
+        private final LinkedHashMap<String, Boolean> ids = new LinkedHashMap<>();
+        private volatile long touchedAt = System.currentTimeMillis();
+
+        /**
+         * @return true if the ID was already pending (delivered again)
+         */
+        synchronized boolean add(String id, int maxPending, List<String> overflow) {
+            touchedAt = System.currentTimeMillis();
+            boolean again = ids.remove(id) != null;
+            ids.put(id, Boolean.TRUE);
+            Iterator<String> oldest = ids.keySet().iterator();
+            while (ids.size() > maxPending) {
+                overflow.add(oldest.next());
+                oldest.remove();
+            }
+            return again;
+        }
+
+        /**
+         * @return true if the ID was pending
+         */
+        synchronized boolean remove(String id) {
+            touchedAt = System.currentTimeMillis();
+            return ids.remove(id) != null;
+        }
+
+        synchronized List<String> removeUpTo(String id) {
+            touchedAt = System.currentTimeMillis();
+            if (!ids.containsKey(id)) {
+                return List.of();
+            }
+            List<String> removed = new ArrayList<>();
+            Iterator<String> it = ids.keySet().iterator();
+            while (it.hasNext()) {
+                String next = it.next();
+                it.remove();
+                removed.add(next);
+                if (next.equals(id)) {
+                    break;
+                }
+            }
+            return removed;
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+    }
+}
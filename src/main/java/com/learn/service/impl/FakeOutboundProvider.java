@@ -0,0 +1,75 @@
+package com.learn.service.impl;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+
+import com.learn.dto.OutboundNotificationDTO;
+import com.learn.service.OutboundProvider;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process provider for local runs and load tests: waits the configured
+ * latency per call, fails a configurable share of calls and logs what would
+ * have been sent. Notifications without rendered content are rejected, like a
+ * real gateway rejects an empty message.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbound.fake-provider.enabled", havingValue = "true")
+public class FakeOutboundProvider implements OutboundProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(FakeOutboundProvider.class);
+
+    private final AtomicLong sent = new AtomicLong();
+
+    @Value("${app.outbound.fake-provider.latency-ms}")
+    private long latencyMs;
+
+    @Value("${app.outbound.fake-provider.failure-rate}")
+    private double failureRate;
+
+    @Override
+    public String getName() {
+        return "fake";
+    }
+
+    @Override
+    public Set<String> getChannels() {
+        return Set.of("EMAIL", "SMS", "PUSH");
+    }
+
+    @Override
+    public Mono<List<String>> send(List<OutboundNotificationDTO> batch) {
+        return Mono.delay(Duration.ofMillis(latencyMs))
+                .flatMap(ignored -> {
+                    if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                        return Mono.error(new IllegalStateException("Simulated provider failure"));
+                    }
+                    List<String> rejected = batch.stream()
+                            .filter(notification -> CollectionUtils.isEmpty(notification.getRenderedContent()))
+                            .map(OutboundNotificationDTO::getNotificationId)
+                            .toList();
+                    long total = sent.addAndGet(batch.size() - rejected.size());
+                    log.info("[fake provider] sent {} notifications, rejected {} (total {})",
+                            batch.size() - rejected.size(), rejected.size(), total);
+                    return Mono.just(rejected);
+                });
+    }
+
+    /**
+     * Number of notifications accepted so far
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+}
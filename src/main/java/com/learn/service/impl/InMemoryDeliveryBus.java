@@ -0,0 +1,53 @@
+package com.learn.service.impl;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import com.learn.model.Notification;
+import com.learn.service.NotificationDeliveryBus;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-process delivery bus for a single node (local development, tests): the
+ * inserting thread hands the notification straight to the user's streams. No
+ * MongoDB involvement at all, so notifications inserted by another node are
+ * not seen live.
+ */
+@Service
+@ConditionalOnProperty(name = "app.delivery-bus.type", havingValue = "in-memory")
+public class InMemoryDeliveryBus implements NotificationDeliveryBus {
+
+    private final MeterRegistry meterRegistry;
+
+    private LocalDeliveryFanOut fanOut;
+
+    @Value("${app.delivery-bus.stream-buffer-size}")
+    private int streamBufferSize;
+
+    public InMemoryDeliveryBus(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        fanOut = new LocalDeliveryFanOut(streamBufferSize);
+        meterRegistry.gauge("notification.delivery_bus.streams", fanOut, LocalDeliveryFanOut::size);
+    }
+
+    @Override
+    public Mono<Void> publish(Notification notification) {
+        return Mono.fromRunnable(() -> fanOut.dispatch(notification));
+    }
+
+    @Override
+    public Mono<Flux<Notification>> open(String userId, Collection<String> languages) {
+        return Mono.fromSupplier(() -> fanOut.register(userId));
+    }
+}
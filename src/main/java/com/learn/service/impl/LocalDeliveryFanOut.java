@@ -0,0 +1,87 @@
+package com.learn.service.impl;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.learn.exception.LiveStreamOverflowException;
+import com.learn.model.Notification;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Hands notifications to the live streams registered on this node, by user.
+ *
+ * <p>
+ * Each stream has a bounded buffer. A stream that falls behind by more than
+ * the buffer is failed with {@link LiveStreamOverflowException} rather than
+ * blocking the bus. The error is signalled right away, ahead of the buffered
+ * notifications, so the connection ends even if its client stopped reading;
+ * the client picks the missed notifications up from the backlog on reconnect,
+ * since they are still unsent.
+ */
+final class LocalDeliveryFanOut {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalDeliveryFanOut.class);
+
+    private final Map<String, Set<LiveStream>> streams = new ConcurrentHashMap<>();
+    private final int bufferSize;
+
+    LocalDeliveryFanOut(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Registers a stream immediately; it buffers from now on even before it is
+     * subscribed, and unregisters when it terminates or is cancelled
+     */
+    Flux<Notification> register(String userId) {
+        LiveStream stream = new LiveStream(Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<Notification>get(bufferSize).get()), Sinks.empty());
+        streams.compute(userId, (key, registered) -> {
+            Set<LiveStream> updated = registered != null ? registered : ConcurrentHashMap.newKeySet();
+            updated.add(stream);
+            return updated;
+        });
+        // Merge fails as soon as the overflow signal does, without draining the buffer first
+        return Flux.merge(stream.buffer().asFlux(), stream.overflow().asMono())
+                .doFinally(signal -> unregister(userId, stream));
+    }
+
+    void dispatch(Notification notification) {
+        Set<LiveStream> registered = streams.get(notification.getUserId());
+        if (registered == null) {
+            return;
+        }
+        for (LiveStream stream : registered) {
+            Sinks.EmitResult result;
+            // Publishers run on different threads; a unicast sink needs serialized emissions
+            synchronized (stream) {
+                result = stream.buffer().tryEmitNext(notification);
+            }
+            if (result == Sinks.EmitResult.FAIL_OVERFLOW) {
+                log.debug("Live stream of user {} fell behind, closing it", notification.getUserId());
+                stream.overflow().tryEmitError(new LiveStreamOverflowException(notification.getUserId()));
+            }
+        }
+    }
+
+    int size() {
+        return streams.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void unregister(String userId, LiveStream stream) {
+        streams.computeIfPresent(userId, (key, registered) -> {
+            registered.remove(stream);
+            return registered.isEmpty() ? null : registered;
+        });
+    }
+
+    private record LiveStream(Sinks.Many<Notification> buffer, Sinks.Empty<Notification> overflow) {
+    }
+}
@@ -1,17 +1,26 @@
 package com.learn.service.impl;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
+import org.bson.Document;
 import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.mongodb.core.ChangeStreamEvent;
-import org.springframework.data.mongodb.core.ChangeStreamOptions;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.messaging.Message;
@@ -22,18 +31,36 @@ import com.learn.dto.NotificationDTO;
 import com.learn.dto.NotificationFilterDTO;
 import com.learn.dto.NotificationRequestDTO;
 import com.learn.dto.NotificationResponseDTO;
+import com.learn.dto.UnreadCountDTO;
 import com.learn.exception.KafkaPublishException;
+import com.learn.exception.LiveStreamOverflowException;
 import com.learn.exception.NotificationNotFoundException;
 import com.learn.exception.TemplateNotFoundException;
 import com.learn.model.Notification;
+import com.learn.model.PriorityLane;
+import com.learn.repository.NotificationArchiveRepository;
 import com.learn.repository.NotificationRepository;
+import com.learn.repository.ReadRouting;
 import com.learn.repository.TemplateRepository;
+import com.learn.service.BroadcastService;
+import com.learn.service.DeliveryAckService;
+import com.learn.service.NotificationDeliveryBus;
 import com.learn.service.NotificationService;
+import com.learn.service.OfflineFallbackService;
+import com.learn.service.RateLimiterService;
+import com.learn.service.RecentNotificationCache;
+import com.learn.service.RenderedContentStore;
+import com.learn.service.SessionDirectory;
 import com.learn.service.SseSessionManager;
 import com.learn.service.TemplateRenderingService;
+import com.learn.service.TombstoneService;
+import com.learn.service.UnreadCounterService;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.function.Tuple2;
+import reactor.util.retry.Retry;
 
 /**
  * Implementation of a notification service with SSE streaming support using MongoDB
@@ -43,13 +70,33 @@ import reactor.core.publisher.Mono;
 public class NotificationServiceImpl implements NotificationService {
 
         private static final Logger log = LoggerFactory.getLogger(NotificationServiceImpl.class);
+        private static final Comparator<Notification> BACKLOG_ORDER = Comparator
+                        .comparing((Notification notification) -> PriorityLane.of(notification.getPriority()))
+                        .thenComparing(notification -> notification.getTimestamps() != null
+                                        ? notification.getTimestamps().getCreatedAt()
+                                        : null, Comparator.nullsFirst(Comparator.naturalOrder()));
+        public static final String NOTIFICATION_BATCH_EVENT = "notification-batch";
+        private static final String FALLBACK_LANGUAGE = "en";
 
         private final NotificationRepository notificationRepository;
+        private final NotificationArchiveRepository archiveRepository;
         private final SseSessionManager sseSessionManager;
         private final TemplateRenderingService templateRenderingService;
         private final KafkaTemplate<String, NotificationRequestDTO> kafkaTemplate;
         private final ReactiveMongoTemplate mongoTemplate;
         private final TemplateRepository templateRepository;
+        private final TombstoneService tombstoneService;
+        private final UnreadCounterService unreadCounterService;
+        private final RecentNotificationCache recentNotificationCache;
+        private final ReadRouting readRouting;
+        private final PriorityLaneMetrics priorityLaneMetrics;
+        private final RateLimiterService rateLimiterService;
+        private final BroadcastService broadcastService;
+        private final RenderedContentStore renderedContentStore;
+        private final NotificationDeliveryBus notificationDeliveryBus;
+        private final SessionDirectory sessionDirectory;
+        private final DeliveryAckService deliveryAckService;
+        private final OfflineFallbackService offlineFallbackService;
 
         @Value("${app.sse.max-connection-duration}")
         private int maxConnectionDuration;
@@ -60,31 +107,85 @@ public class NotificationServiceImpl implements NotificationService {
         @Value("${app.kafka.topics.notification-requests}")
         private String notificationRequestsTopic;
 
+        @Value("${app.kafka.topics.notification-requests-urgent}")
+        private String urgentRequestsTopic;
+
+        @Value("${app.kafka.topics.notification-requests-high}")
+        private String highRequestsTopic;
+
+        @Value("${app.kafka.topics.notification-requests-low}")
+        private String lowRequestsTopic;
+
+        @Value("${app.sse.coalescing.max-window-ms}")
+        private int coalesceMaxWindowMs;
+
+        @Value("${app.sse.priority-prefetch}")
+        private int priorityPrefetch;
+
+        @Value("${app.sse.coalescing.max-batch-size}")
+        private int coalesceMaxBatchSize;
+
         public NotificationServiceImpl(
                         NotificationRepository notificationRepository,
+                        NotificationArchiveRepository archiveRepository,
                         SseSessionManager sseSessionManager,
                         TemplateRenderingService templateRenderingService,
                         KafkaTemplate<String, NotificationRequestDTO> kafkaTemplate,
                         ReactiveMongoTemplate mongoTemplate,
-                        TemplateRepository templateRepository) {
+                        TemplateRepository templateRepository,
+                        TombstoneService tombstoneService,
+                        UnreadCounterService unreadCounterService,
+                        RecentNotificationCache recentNotificationCache,
+                        ReadRouting readRouting,
+                        PriorityLaneMetrics priorityLaneMetrics,
+                        RateLimiterService rateLimiterService,
+                        BroadcastService broadcastService,
+                        RenderedContentStore renderedContentStore,
+                        NotificationDeliveryBus notificationDeliveryBus,
+                        SessionDirectory sessionDirectory,
+                        DeliveryAckService deliveryAckService,
+                        OfflineFallbackService offlineFallbackService) {
                 this.notificationRepository = notificationRepository;
+                this.archiveRepository = archiveRepository;
                 this.sseSessionManager = sseSessionManager;
                 this.templateRenderingService = templateRenderingService;
                 this.kafkaTemplate = kafkaTemplate;
                 this.mongoTemplate = mongoTemplate;
                 this.templateRepository = templateRepository;
+                this.tombstoneService = tombstoneService;
+                this.unreadCounterService = unreadCounterService;
+                this.recentNotificationCache = recentNotificationCache;
+                this.readRouting = readRouting;
+                this.priorityLaneMetrics = priorityLaneMetrics;
+                this.rateLimiterService = rateLimiterService;
+                this.broadcastService = broadcastService;
+                this.renderedContentStore = renderedContentStore;
+                this.notificationDeliveryBus = notificationDeliveryBus;
+                this.sessionDirectory = sessionDirectory;
+                this.deliveryAckService = deliveryAckService;
+                this.offlineFallbackService = offlineFallbackService;
         }
 
+        /**
+         * Marks the notification as read only if it is still unread, so the unread
+         * counter is decremented exactly once per notification.
+         */
         @Override
         public Mono<Void> markNotificationAsRead(String notificationId) {
-                return notificationRepository.markAsRead(notificationId, Instant.now())
-                                .flatMap(updateCount -> {
-                                        if (updateCount == 0) {
-                                                return Mono.error(new NotificationNotFoundException(notificationId));
-                                        }
+                return notificationRepository.markAsReadIfUnread(notificationId, Instant.now())
+                                .flatMap(previous -> {
                                         log.debug("Marked notification as read: {}", notificationId);
-                                        return Mono.empty();
-                                });
+                                        recentNotificationCache.invalidateUser(previous.getUserId());
+                                        return decrementUnreadCounter(previous).thenReturn(true);
+                                })
+                                // Already read (or missing) - only fail if it does not exist; archived ones are read
+                                .switchIfEmpty(Mono.defer(() -> notificationRepository.existsById(notificationId)
+                                                .flatMap(exists -> exists
+                                                                ? Mono.just(true)
+                                                                : archiveRepository.isArchived(notificationId))))
+                                .flatMap(found -> found
+                                                ? Mono.<Void>empty()
+                                                : Mono.error(new NotificationNotFoundException(notificationId)));
         }
 
         @Override
@@ -94,25 +195,38 @@ public class NotificationServiceImpl implements NotificationService {
                                                 updateCount -> log.debug(
                                                                 "✅ Marked {} notifications as read for user: {}",
                                                                 updateCount, userId))
+                                .doOnSuccess(updateCount -> recentNotificationCache.invalidateUser(userId))
+                                .then(unreadCounterService.reset(userId))
                                 .then();
         }
 
+        /**
+         * Disable-all only moves the user's tombstone watermark (a single document
+         * write). Read paths hide everything at or before the watermark right away and
+         * {@link com.learn.scheduler.NotificationCompactionJob} sets the physical
+         * {@code disabled} flag in throttled batches.
+         */
         @Override
         public Mono<Void> disableAllNotifications(String userId) {
-                return notificationRepository.disableAllByUserId(userId)
-                                .doOnSuccess(
-                                                updateCount -> log.debug("🗑️ Disabled {} notifications for user: {}",
-                                                                updateCount, userId))
+                return tombstoneService.hideAll(userId)
+                                .doOnSuccess(hiddenBefore -> log.debug(
+                                                "🗑️ Disabled all notifications for user: {} (hidden before {})",
+                                                userId, hiddenBefore))
+                                .doOnSuccess(hiddenBefore -> recentNotificationCache.invalidateUser(userId))
+                                .then(unreadCounterService.reset(userId))
                                 .then();
         }
 
+        /**
+         * Records a purge request; the physical delete is done by
+         * {@link com.learn.scheduler.NotificationCompactionJob}.
+         */
         @Override
         public Mono<Void> deleteAllDisabledNotifications(String userId) {
-                return notificationRepository.deleteByUserIdAndDisabledTrue(userId)
-                                .doOnSuccess(deleteCount -> log.debug(
-                                                "💀 Permanently deleted {} disabled notifications for user: {}",
-                                                deleteCount, userId))
-                                .then();
+                return tombstoneService.requestPurge(userId)
+                                .doOnSuccess(ignored -> log.debug(
+                                                "💀 Scheduled permanent deletion of disabled notifications for user: {}",
+                                                userId));
         }
 
         @Override
@@ -130,8 +244,28 @@ public class NotificationServiceImpl implements NotificationService {
 
         @Override
         public Mono<NotificationDTO> getNotificationById(String notificationId, String language) {
-                return notificationRepository.findById(notificationId)
+                Optional<Notification> cached = recentNotificationCache.getById(notificationId);
+                Mono<Notification> lookup;
+                if (cached.isPresent()) {
+                        lookup = Mono.just(cached.get());
+                } else {
+                        // Read-your-writes path (get-by-id right after send): routed to the primary by default
+                        Query byId = Query.query(Criteria.where("_id").is(notificationId));
+                        byId.withReadPreference(readRouting.readPreference(ReadRouting.Route.BY_ID));
+                        lookup = readRouting.timed(ReadRouting.Route.BY_ID,
+                                        mongoTemplate.findOne(byId, Notification.class))
+                                        .switchIfEmpty(Mono.defer(
+                                                        () -> archiveRepository.findArchivedById(notificationId)))
+                                        .switchIfEmpty(Mono.defer(() -> findBroadcastCopy(notificationId)));
+                }
+
+                // Cached or not, the same visibility rules apply
+                return lookup
                                 .filter(notification -> !notification.isDisabled())
+                                .filter(notification -> !notification.isExpired(Instant.now()))
+                                .filterWhen(notification -> hiddenBefore(notification.getUserId())
+                                                .map(watermark -> !isHidden(notification, watermark.orElse(null))))
+                                .flatMap(renderedContentStore::resolve)
                                 .map(notification -> NotificationDTO.fromNotification(notification, language))
                                 .switchIfEmpty(Mono.defer(() -> 
                                         Mono.error(new NotificationNotFoundException(notificationId))));
@@ -145,14 +279,13 @@ public class NotificationServiceImpl implements NotificationService {
         @Override
         public Mono<NotificationResponseDTO> getFilteredNotifications(String userId, NotificationFilterDTO filter,
                         String language) {
-                Mono<List<Notification>> notificationsMono = notificationRepository
-                                .findNotificationsWithFilters(userId, filter)
-                                .collectList();
-
-                Mono<Long> countMono = notificationRepository
-                                .countNotificationsWithFilters(userId, filter);
+                // Page 0 of recent notifications for a user connected to this node
+                if (recentNotificationCache.isCacheable(filter) && sseSessionManager.isConnected(userId)) {
+                        return getRecentNotifications(userId, filter, language);
+                }
 
-                return Mono.zip(notificationsMono, countMono)
+                return syncBroadcasts(userId)
+                                .then(Mono.defer(() -> queryNotifications(userId, filter)))
                                 .map(tuple -> {
                                         List<Notification> notifications = tuple.getT1();
                                         Long totalCount = tuple.getT2();
@@ -162,51 +295,318 @@ public class NotificationServiceImpl implements NotificationService {
                                 });
         }
 
+        /**
+         * Serves page 0 from the recent notifications cache, loading the whole cache
+         * window on a miss.
+         */
+        private Mono<NotificationResponseDTO> getRecentNotifications(String userId, NotificationFilterDTO filter,
+                        String language) {
+                Optional<RecentNotificationCache.RecentPage> cached = recentNotificationCache.get(userId);
+                if (cached.isPresent()) {
+                        return serveRecentPage(userId, cached.get(), filter, language);
+                }
+                return loadRecentNotifications(userId, filter, language);
+        }
+
+        /**
+         * Applies the database visibility rules to a cached page. A page holding
+         * disabled or tombstoned notifications (changed on another node) is dropped
+         * and reloaded; an inexact total count is recounted.
+         */
+        private Mono<NotificationResponseDTO> serveRecentPage(String userId, RecentNotificationCache.RecentPage page,
+                        NotificationFilterDTO filter, String language) {
+                return hiddenBefore(userId).flatMap(watermark -> {
+                        Instant hidden = watermark.orElse(null);
+                        boolean stale = page.notifications().stream()
+                                        .anyMatch(notification -> notification.isDisabled()
+                                                        || isHidden(notification, hidden));
+                        if (stale) {
+                                recentNotificationCache.invalidateUser(userId);
+                                return loadRecentNotifications(userId, filter, language);
+                        }
+                        if (page.countExact()) {
+                                return Mono.just(toFirstPage(page.notifications(), page.totalCount(), filter,
+                                                language));
+                        }
+
+                        long version = recentNotificationCache.version(userId);
+                        return notificationRepository.countNotificationsWithFilters(userId, new NotificationFilterDTO(),
+                                        hidden)
+                                        .doOnNext(count -> recentNotificationCache.updateCount(userId, count, version))
+                                        .map(count -> toFirstPage(page.notifications(), count, filter, language));
+                });
+        }
+
+        private Mono<NotificationResponseDTO> loadRecentNotifications(String userId, NotificationFilterDTO filter,
+                        String language) {
+                long version = recentNotificationCache.version(userId);
+                NotificationFilterDTO window = new NotificationFilterDTO();
+                window.setSize(recentNotificationCache.windowSize());
+
+                return queryNotifications(userId, window)
+                                .doOnNext(tuple -> recentNotificationCache.put(userId, tuple.getT1(), tuple.getT2(),
+                                                version))
+                                .map(tuple -> toFirstPage(tuple.getT1(), tuple.getT2(), filter, language));
+        }
+
+        private NotificationResponseDTO toFirstPage(List<Notification> recent, long totalCount,
+                        NotificationFilterDTO filter, String language) {
+                Instant now = Instant.now();
+                List<Notification> page = recent.stream()
+                                .filter(notification -> !notification.isExpired(now))
+                                .limit(filter.getSize())
+                                .toList();
+                return NotificationResponseDTO.of(page, totalCount, 0, filter.getSize(), language);
+        }
+
+        private Mono<Tuple2<List<Notification>, Long>> queryNotifications(String userId,
+                        NotificationFilterDTO filter) {
+                return hiddenBefore(userId).flatMap(watermark -> {
+                        Mono<List<Notification>> notificationsMono = notificationRepository
+                                        .findNotificationsWithFilters(userId, filter, watermark.orElse(null))
+                                        .collectList()
+                                        .flatMap(renderedContentStore::resolveAll);
+
+                        Mono<Long> countMono = notificationRepository
+                                        .countNotificationsWithFilters(userId, filter, watermark.orElse(null));
+
+                        return Mono.zip(notificationsMono, countMono);
+                });
+        }
+
+        @Override
+        public Mono<UnreadCountDTO> getUnreadCount(String userId) {
+                return syncBroadcasts(userId)
+                                .then(unreadCounterService.getUnreadCount(userId))
+                                .map(count -> new UnreadCountDTO(userId, count));
+        }
+
+        /**
+         * Wraps the notification stream into SSE events and merges the
+         * connection's out-of-band events (unread counter updates). The current
+         * unread count is sent right after the connection is opened.
+         */
+        @Override
+        public Flux<ServerSentEvent<Object>> getEventStream(String userId, String language) {
+                return getEventStream(userId, language, 0);
+        }
+
+        /**
+         * With a coalescing window, bursts are sent as one "notification-batch" event
+         * carrying an array of notifications (ID = last notification ID); a batch of
+         * one is sent as a regular notification event.
+         */
+        @Override
+        public Flux<ServerSentEvent<Object>> getEventStream(String userId, String language, int coalesceWindowMs) {
+                return getEventStream(userId, language, coalesceWindowMs, null);
+        }
+
+        /**
+         * The Last-Event-ID of a reconnect acknowledges the events received on the
+         * previous connection before its backlog is queried.
+         */
+        @Override
+        public Flux<ServerSentEvent<Object>> getEventStream(String userId, String language, int coalesceWindowMs,
+                        String lastEventId) {
+                Mono<Void> resume = deliveryAckService.resume(userId, lastEventId)
+                                .onErrorResume(error -> {
+                                        log.warn("Failed to apply Last-Event-ID of user {}: {}", userId,
+                                                        error.getMessage());
+                                        return Mono.empty();
+                                });
+                return resume.thenMany(Flux.defer(() -> {
+                        Flux<ServerSentEvent<Object>> notifications = coalesceWindowMs > 0
+                                        ? getCoalescedNotificationStream(userId, language,
+                                                        Math.min(coalesceWindowMs, coalesceMaxWindowMs))
+                                                        .map(this::toNotificationEvent)
+                                        : pendingNotificationStream(userId, language)
+                                                        .map(dto -> ServerSentEvent.<Object>builder(dto)
+                                                                        .id(dto.getId())
+                                                                        .build());
+
+                        // Straight from the counter: the backlog materializes pending broadcasts itself
+                        Flux<ServerSentEvent<Object>> initialUnreadCount = unreadCounterService.getUnreadCount(userId)
+                                        .map(count -> ServerSentEvent.<Object>builder(new UnreadCountDTO(userId, count))
+                                                        .event(UnreadCounterServiceImpl.UNREAD_COUNT_EVENT)
+                                                        .build())
+                                        .onErrorResume(error -> {
+                                                log.debug("Could not load unread count for user {}: {}", userId,
+                                                                error.getMessage());
+                                                return Mono.empty();
+                                        })
+                                        .flux();
+
+                        // Slow clients drain URGENT notifications first; marked as sent once
+                        // handed to the connection, not while they wait in the buffer
+                        return PriorityBufferedFlux.prioritize(Flux.merge(notifications, initialUnreadCount,
+                                        sseSessionManager.sessionEvents(userId)), this::eventRank, priorityPrefetch)
+                                        // No prefetch: events leave the buffer only on client demand
+                                        .concatMap(event -> markSent(userId, deliveredNotifications(event))
+                                                        .thenReturn(event), 0)
+                                        // Too slow for the live stream: end the response, the client replays on reconnect
+                                        .onErrorResume(LiveStreamOverflowException.class, error -> {
+                                                log.info("Live stream of user {} overflowed, closing the SSE connection",
+                                                                userId);
+                                                return Flux.empty();
+                                        });
+                }));
+        }
+
+        /**
+         * Notifications carried by an SSE event (none for control events).
+         */
+        private List<NotificationDTO> deliveredNotifications(ServerSentEvent<Object> event) {
+                if (event.data() instanceof NotificationDTO dto) {
+                        return List.of(dto);
+                }
+                if (event.data() instanceof List<?> batch) {
+                        return batch.stream()
+                                        .filter(NotificationDTO.class::isInstance)
+                                        .map(NotificationDTO.class::cast)
+                                        .toList();
+                }
+                return List.of();
+        }
+
+        /**
+         * Delivery rank of an SSE event: the lane of its notification (most urgent one
+         * for a batch); small control events such as "unread-count" go first.
+         */
+        private int eventRank(ServerSentEvent<Object> event) {
+                if (event.data() instanceof NotificationDTO dto) {
+                        return PriorityLane.of(dto.getPriority()).ordinal();
+                }
+                if (event.data() instanceof List<?> batch) {
+                        return batch.stream()
+                                        .filter(NotificationDTO.class::isInstance)
+                                        .mapToInt(dto -> PriorityLane.of(((NotificationDTO) dto).getPriority())
+                                                        .ordinal())
+                                        .min()
+                                        .orElse(PriorityLane.NORMAL.ordinal());
+                }
+                return PriorityLane.URGENT.ordinal();
+        }
+
+        private ServerSentEvent<Object> toNotificationEvent(List<NotificationDTO> batch) {
+                String lastId = batch.get(batch.size() - 1).getId();
+                if (batch.size() == 1) {
+                        return ServerSentEvent.<Object>builder(batch.get(0)).id(lastId).build();
+                }
+                return ServerSentEvent.<Object>builder(batch)
+                                .event(NOTIFICATION_BATCH_EVENT)
+                                .id(lastId)
+                                .build();
+        }
+
         @Override
         public Flux<NotificationDTO> getNotificationStream(String userId) {
                 return getNotificationStream(userId, "az");
         }
 
         @Override
-        @SuppressWarnings("unused")
         public Flux<NotificationDTO> getNotificationStream(String userId, String language) {
+                return pendingNotificationStream(userId, language)
+                                .concatMap(dto -> markSent(userId, List.of(dto)).thenReturn(dto));
+        }
+
+        /**
+         * Notifications to deliver as DTOs; marking them as sent is left to the caller.
+         */
+        private Flux<NotificationDTO> pendingNotificationStream(String userId, String language) {
+                return notificationsToDeliver(userId, language)
+                                .map(notification -> NotificationDTO.fromNotification(notification, language));
+        }
+
+        /**
+         * Coalesced variant of the notification stream: notifications arriving within
+         * the window (up to the max batch size) are delivered together and later
+         * marked with a single status write. Backpressure is fair: a window that
+         * elapses while a slow client has no demand keeps its batch (and stops
+         * requesting) instead of failing the stream.
+         */
+        private Flux<List<NotificationDTO>> getCoalescedNotificationStream(String userId, String language,
+                        int coalesceWindowMs) {
+                return pendingNotificationStream(userId, language)
+                                .bufferTimeout(coalesceMaxBatchSize, java.time.Duration.ofMillis(coalesceWindowMs), true);
+        }
+
+        /**
+         * Historical unsent notifications and live inserts from the delivery bus,
+         * bounded by the connection lifetime. Nothing is marked as sent here.
+         *
+         * <p>
+         * The live stream is opened before the backlog query (for the change-stream
+         * bus: at the cluster operation time captured then), so both phases run
+         * concurrently without a gap: an insert landing while the backlog is loaded
+         * is delivered live, and one seen by both phases is delivered once.
+         *
+         * <p>
+         * The bus may only deliver the client's language (plus the English
+         * fallback); such partial documents are never put into the recent
+         * notifications cache.
+         *
+         * <p>
+         * The bus is only opened once the connection is in the session directory, so
+         * a publisher that finds the user offline there inserted before the backlog
+         * query and the notification is delivered from the backlog.
+         */
+        private Flux<Notification> notificationsToDeliver(String userId, String language) {
                 java.time.Instant connectionStartTime = java.time.Instant.now();
 
                 Mono<Void> cancellationSignal = sseSessionManager.createConnection(userId);
 
-                // 1. Get historical unsent notifications first
-                Flux<NotificationDTO> historicalNotifications = getUnsentNotifications(userId)
-                                .flatMap(notification -> markNotificationAsSent(notification.getId())
-                                                .thenReturn(notification))
-                                .map(notification -> NotificationDTO.fromNotification(notification, language))
-                                .doOnNext(dto -> log.debug("Sent historical notification: {} to user: {}",
-                                                dto.getId(), userId));
-
-                // 2. Watch for new notifications via MongoDB Change Streams
-                Flux<NotificationDTO> liveNotifications = watchNotificationChanges(userId)
-                                .takeWhile(notification -> {
-                                        java.time.Duration elapsed = java.time.Duration.between(connectionStartTime,
-                                                        java.time.Instant.now());
-                                        if (elapsed.getSeconds() >= maxConnectionDuration) {
-                                                log.debug("SSE connection for user {} reached max duration ({}s), terminating",
-                                                                userId, maxConnectionDuration);
-                                                return false;
-                                        }
-                                        return true;
-                                })
-                                .flatMap(notification -> markNotificationAsSent(notification.getId())
-                                                .thenReturn(notification))
-                                .map(notification -> NotificationDTO.fromNotification(notification, language))
-                                .doOnNext(dto -> log.debug("Sent live notification: {} to user: {}",
-                                                dto.getId(), userId));
+                // Anything cached before this connection may have missed inserts delivered elsewhere
+                recentNotificationCache.invalidateUser(userId);
+
+                // NotificationDTO falls back to English when the language is missing
+                return sseSessionManager.registered(userId)
+                                .then(notificationDeliveryBus.open(userId, List.of(language, FALLBACK_LANGUAGE)))
+                                .flatMapMany(busNotifications -> {
+                                        BacklogHandoff handoff = new BacklogHandoff();
 
-                // 3. Combine historical and live notifications
-                return Flux.concat(historicalNotifications, liveNotifications)
+                                        // 1. Historical unsent notifications, then pending broadcasts materialized
+                                        // (after the query, so a fresh copy is not returned twice), most urgent lane first
+                                        Flux<Notification> historicalNotifications = Flux.concat(
+                                                        getUnsentNotifications(userId), getPendingBroadcasts(userId))
+                                                        .sort(BACKLOG_ORDER)
+                                                        .filter(handoff::fromBacklog)
+                                                        .doOnComplete(handoff::backlogDone)
+                                                        .doOnNext(notification -> log.debug(
+                                                                        "Delivering historical notification: {} to user: {}",
+                                                                        notification.getId(), userId));
+
+                                        // 2. New notifications since the live stream was opened, and broadcasts;
+                                        // the stream ends with the user's bus stream so the client reconnects
+                                        // and replays what it missed
+                                        Sinks.Empty<Void> busEnded = Sinks.empty();
+                                        Flux<Notification> liveNotifications = Flux.merge(
+                                                        watchNotificationChanges(userId, busNotifications)
+                                                                        .doFinally(signal -> busEnded.tryEmitEmpty()),
+                                                        watchBroadcasts(userId).takeUntilOther(busEnded.asMono()))
+                                                        .filter(handoff::fromLive)
+                                                        .doOnNext(this::onLiveInsert)
+                                                        .takeWhile(notification -> {
+                                                                java.time.Duration elapsed = java.time.Duration.between(
+                                                                                connectionStartTime, java.time.Instant.now());
+                                                                if (elapsed.getSeconds() >= maxConnectionDuration) {
+                                                                        log.debug("SSE connection for user {} reached max duration ({}s), terminating",
+                                                                                        userId, maxConnectionDuration);
+                                                                        return false;
+                                                                }
+                                                                return true;
+                                                        })
+                                                        .doOnNext(notification -> log.debug(
+                                                                        "Delivering live notification: {} to user: {}",
+                                                                        notification.getId(), userId));
+
+                                        // 3. Run both phases concurrently
+                                        return Flux.merge(historicalNotifications, liveNotifications);
+                                })
                                 .timeout(java.time.Duration.ofSeconds(connectionTimeout))
                                 .takeUntilOther(cancellationSignal)
                                 .doOnSubscribe(subscription -> log.debug(
-                                                "Started SSE stream with Change Streams for user: {} in language: {} (max duration: {}s, timeout: {}s)",
-                                                userId, language, maxConnectionDuration, connectionTimeout))
+                                                "Started SSE stream for user: {} (max duration: {}s, timeout: {}s)",
+                                                userId, maxConnectionDuration, connectionTimeout))
                                 .doOnCancel(() -> log.debug("Cancelled SSE stream for user: {}", userId))
                                 .doOnComplete(() -> log.debug("SSE stream completed for user: {}", userId))
                                 .onErrorResume(java.util.concurrent.TimeoutException.class, error -> {
@@ -217,41 +617,179 @@ public class NotificationServiceImpl implements NotificationService {
         }
 
         /**
-         * Watch MongoDB Change Streams for new notifications inserted for a specific
-         * user.
+         * New notifications inserted for a specific user, as delivered by the bus.
+         * An overflow of the user's live buffer ends the whole SSE response; other
+         * bus errors end the live stream.
          */
-        private Flux<Notification> watchNotificationChanges(String userId) {
-                // MongoDB Change Stream aggregation pipeline to filter by userId and insert
-                // operations only
-                Aggregation aggregation = Aggregation.newAggregation(
-                                Aggregation.match(Criteria.where("operationType").is("insert")
-                                                .and("fullDocument.userId").is(userId)
-                                                .and("fullDocument.disabled").is(false)
-                                                .and("fullDocument.status.sent").is(false)));
-
-                return mongoTemplate
-                                .changeStream("notifications", ChangeStreamOptions.builder()
-                                                .filter(aggregation)
-                                                .build(), Notification.class)
-                                .map(ChangeStreamEvent::getBody)
-                                .filter(java.util.Objects::nonNull)
+        private Flux<Notification> watchNotificationChanges(String userId, Flux<Notification> busNotifications) {
+                return busNotifications
+                                .filter(notification -> !notification.isExpired(Instant.now()))
+                                .concatMap(renderedContentStore::resolve)
                                 .doOnNext(notification -> log.debug(
-                                                "Change Stream: New notification inserted for user {}: {}",
+                                                "Delivery bus: New notification inserted for user {}: {}",
                                                 userId, notification.getId()))
+                                .onErrorResume(error -> !(error instanceof LiveStreamOverflowException), error -> {
+                                        log.debug("Delivery bus error for user {}, ending the live stream: {}",
+                                                        userId, error.getMessage());
+                                        return Flux.empty();
+                                });
+        }
+
+        /**
+         * Broadcasts published for the user on the node-level broadcast stream;
+         * errors end only the broadcast part of the live stream.
+         */
+        private Flux<Notification> watchBroadcasts(String userId) {
+                return broadcastService.liveBroadcasts(userId)
                                 .onErrorResume(error -> {
-                                        log.debug("Change Stream error for user {}, resuming with empty stream: {}", 
+                                        log.debug("Broadcast stream error for user {}, resuming with empty stream: {}",
                                                         userId, error.getMessage());
                                         return Flux.empty();
                                 });
         }
 
+        private void onLiveInsert(Notification notification) {
+                if (notificationDeliveryBus.deliversFullDocuments()) {
+                        recentNotificationCache.onInserted(notification);
+                } else {
+                        recentNotificationCache.invalidateUser(notification.getUserId());
+                }
+        }
+
+        private Flux<Notification> getPendingBroadcasts(String userId) {
+                return hiddenBefore(userId)
+                                .flatMapMany(watermark -> broadcastService.pendingBroadcasts(userId,
+                                                watermark.orElse(null)))
+                                .doOnNext(notification -> log.debug("Materialized pending broadcast: {} for user: {}",
+                                                notification.getId(), userId));
+        }
+
+        /**
+         * Materializes the broadcasts a user without a connection to this node has not
+         * received yet, so REST reads (history, counts) include them. Connected users
+         * get them from the event stream.
+         */
+        private Mono<Void> syncBroadcasts(String userId) {
+                if (sseSessionManager.isConnected(userId)) {
+                        return Mono.empty();
+                }
+                return getPendingBroadcasts(userId)
+                                .onErrorResume(error -> {
+                                        log.warn("Failed to materialize pending broadcasts for user {}: {}", userId,
+                                                        error.getMessage());
+                                        return Mono.empty();
+                                })
+                                .then();
+        }
+
+        /**
+         * Get-by-id of a broadcast copy ({@code broadcastId:userId}) that was not
+         * materialized yet.
+         */
+        private Mono<Notification> findBroadcastCopy(String notificationId) {
+                int separator = notificationId.indexOf(':');
+                if (separator < 0) {
+                        return Mono.empty();
+                }
+                return syncBroadcasts(notificationId.substring(separator + 1))
+                                .then(mongoTemplate.findById(notificationId, Notification.class));
+        }
+
         private Flux<Notification> getUnsentNotifications(String userId) {
-                return notificationRepository.findByUserIdAndStatus_SentFalseAndDisabledFalse(userId)
+                return hiddenBefore(userId)
+                                .flatMapMany(watermark -> notificationRepository.findUnsentNotifications(userId,
+                                                watermark.orElse(null)))
+                                .collectList()
+                                .flatMap(renderedContentStore::resolveAll)
+                                .flatMapIterable(notifications -> notifications)
                                 .doOnNext(notification -> log.debug("Found unsent notification: {} for user: {}",
                                                 notification.getId(), userId))
                                 .filter(notification -> !notification.isDisabled());
         }
 
+        /**
+         * Counter failures never fail the insert; the reconciliation job repairs the
+         * drift.
+         */
+        private Mono<Long> incrementUnreadCounter(String userId) {
+                return unreadCounterService.increment(userId)
+                                .onErrorResume(error -> {
+                                        log.warn("Failed to increment unread counter for user {}: {}", userId,
+                                                        error.getMessage());
+                                        return Mono.empty();
+                                });
+        }
+
+        /**
+         * Decrements the unread counter for a notification that just became read,
+         * unless it was already excluded from the count (disabled or hidden).
+         */
+        private Mono<Void> decrementUnreadCounter(Notification previous) {
+                if (previous.isDisabled()) {
+                        return Mono.empty();
+                }
+                return hiddenBefore(previous.getUserId())
+                                .filter(watermark -> !isHidden(previous, watermark.orElse(null)))
+                                .flatMap(ignored -> unreadCounterService.decrement(previous.getUserId()))
+                                .onErrorResume(error -> {
+                                        log.warn("Failed to decrement unread counter for user {}: {}",
+                                                        previous.getUserId(), error.getMessage());
+                                        return Mono.empty();
+                                })
+                                .then();
+        }
+
+        /**
+         * Resolves the user's tombstone watermark (empty Optional when there is none).
+         */
+        private Mono<Optional<Instant>> hiddenBefore(String userId) {
+                return tombstoneService.getHiddenBefore(userId)
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty());
+        }
+
+        private boolean isHidden(Notification notification, Instant hiddenBefore) {
+                if (hiddenBefore == null || notification.getTimestamps() == null
+                                || notification.getTimestamps().getCreatedAt() == null) {
+                        return false;
+                }
+                return !notification.getTimestamps().getCreatedAt().isAfter(hiddenBefore);
+        }
+
+        private void recordDelivery(NotificationDTO notification) {
+                if (notification.getCreatedAt() != null) {
+                        priorityLaneMetrics.recordDelivery(PriorityLane.of(notification.getPriority()),
+                                        notification.getCreatedAt());
+                }
+        }
+
+        /**
+         * Records notifications handed to the connection: marked as sent right away,
+         * or with client acks only added to the user's pending window until the
+         * client acknowledges them.
+         */
+        private Mono<Void> markSent(String userId, List<NotificationDTO> notifications) {
+                if (notifications.isEmpty()) {
+                        return Mono.empty();
+                }
+                notifications.forEach(this::recordDelivery);
+                log.debug("Sent {} notification(s) to user: {}", notifications.size(), userId);
+                List<String> notificationIds = notifications.stream().map(NotificationDTO::getId).toList();
+                if (deliveryAckService.isEnabled()) {
+                        return Mono.fromRunnable(() -> deliveryAckService.track(userId, notificationIds));
+                }
+                return notificationIds.size() == 1
+                                ? markNotificationAsSent(notificationIds.get(0)).then()
+                                : markNotificationsAsSent(userId, notificationIds);
+        }
+
+        private Mono<Void> markNotificationsAsSent(String userId, List<String> notificationIds) {
+                return notificationRepository.markAllAsSent(userId, notificationIds, java.time.Instant.now())
+                                .doOnNext(updateCount -> log.debug("Marked {} notifications as sent via SSE",
+                                                updateCount))
+                                .then();
+        }
+
         private Mono<Boolean> markNotificationAsSent(String notificationId) {
                 return notificationRepository.markAsSent(notificationId, java.time.Instant.now())
                                 .map(updateCount -> updateCount > 0)
@@ -277,6 +815,13 @@ public class NotificationServiceImpl implements NotificationService {
                 // Build notification entity from DTO
                 Notification notification = buildNotificationFromDTO(notificationRequest);
 
+                // Expired before it could be processed (consumer lag, late scheduled release)
+                if (notification.isExpired(Instant.now())) {
+                        log.debug("⌛ Dropping expired notification for user {} (expiresAt={})",
+                                        notification.getUserId(), notification.getExpiresAt());
+                        return Mono.empty();
+                }
+
                 // Use provided ID or generate a new one using MongoDB ObjectId (strongly unique in distributed systems)
                 notification.setId(notificationId != null ? notificationId : new ObjectId().toHexString());
 
@@ -285,17 +830,138 @@ public class NotificationServiceImpl implements NotificationService {
                                 .flatMap(templateRenderingService::renderNotification)
                                 .doOnNext(rendered -> log.debug("Template rendered for notification {}: subject='{}'",
                                                 rendered.getId(), rendered.getSubject()))
-                                .flatMap(this::saveNotification)
+                                // Campaign content is stored once and referenced by hash
+                                .flatMap(renderedContentStore::externalize)
+                                .flatMap(rendered -> saveCollapsing(rendered)
+                                                .flatMap(previous -> publishToDeliveryBus(rendered)
+                                                                .thenReturn(previous))
+                                                // Outbound channels take over if it is still unsent later
+                                                .doOnNext(previous -> offlineFallbackService.schedule(rendered))
+                                                // Saved: put the content back for the in-memory readers
+                                                .flatMap(previous -> renderedContentStore.resolve(rendered)
+                                                                .thenReturn(previous))
+                                                .doOnNext(previous -> {
+                                                        if (previous.isPresent()) {
+                                                                recentNotificationCache.invalidateUser(
+                                                                                rendered.getUserId());
+                                                        } else {
+                                                                recentNotificationCache.onInserted(rendered);
+                                                        }
+                                                })
+                                                .flatMap(previous -> replacedCountedUnread(previous)
+                                                                // A counted unread version replaced by another unread one: count unchanged
+                                                                .flatMap(unchanged -> unchanged
+                                                                                ? Mono.<Long>empty()
+                                                                                : incrementUnreadCounter(rendered.getUserId())))
+                                                .thenReturn(rendered.getId()))
                                 .doOnSuccess(savedId -> log.debug(
                                                 "Notification processed and saved: {} for user: {}",
                                                 savedId, notification.getUserId()));
         }
 
+        /**
+         * Publishes to the delivery bus; when publishing costs a write, only for
+         * users the session directory does not know to be offline (they get the
+         * notification from the backlog when they connect). A failed publish does
+         * not fail the insert: the notification stays unsent and is delivered with
+         * the backlog on the next connection.
+         */
+        private Mono<Void> publishToDeliveryBus(Notification notification) {
+                Mono<Boolean> recipientOnline = notificationDeliveryBus.publishWrites()
+                                ? sessionDirectory.isOnline(notification.getUserId())
+                                : Mono.just(true);
+                return recipientOnline
+                                .filter(Boolean::booleanValue)
+                                .flatMap(online -> notificationDeliveryBus.publish(notification))
+                                .onErrorResume(error -> {
+                                        log.warn("Failed to publish notification {} to the delivery bus: {}",
+                                                        notification.getId(), error.getMessage());
+                                        return Mono.empty();
+                                });
+        }
+
+        /**
+         * Stores the notification. With a collapse key this is a single upsert on
+         * (userId, collapseKey): the user's previous version is overwritten in place,
+         * keeping its ID so clients replace the entry they show, or the notification
+         * is inserted under its own ID. The new version is deliberately a fresh
+         * notification: unsent, unread and enabled, with the fields and claims of the
+         * previous version dropped, so it is delivered again.
+         *
+         * @return Mono with the replaced version (empty Optional if nothing was replaced)
+         */
+        private Mono<Optional<Notification>> saveCollapsing(Notification notification) {
+                if (notification.getCollapseKey() == null) {
+                        return saveNotification(notification).thenReturn(Optional.empty());
+                }
+
+                Document document = new Document();
+                mongoTemplate.getConverter().write(notification, document);
+                Object id = document.remove("_id");
+
+                // Change streams pick the overwrite up by this field
+                Update update = new Update()
+                                .setOnInsert("_id", id)
+                                .set(Notification.COLLAPSED_AT_FIELD, Date.from(Instant.now()));
+                document.forEach(update::set);
+                collapsibleFields().stream()
+                                .filter(field -> !document.containsKey(field))
+                                .forEach(update::unset);
+
+                Query query = Query.query(Criteria.where("userId").is(notification.getUserId())
+                                .and("collapseKey").is(notification.getCollapseKey()));
+                String collection = mongoTemplate.getCollectionName(Notification.class);
+                return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().upsert(true),
+                                Document.class, collection)
+                                .map(previous -> mongoTemplate.getConverter().read(Notification.class, previous))
+                                .doOnNext(previous -> {
+                                        log.debug("🔁 Collapsed notification {} into {} for user {}", id,
+                                                        previous.getId(), notification.getUserId());
+                                        notification.setId(previous.getId());
+                                })
+                                .map(Optional::of)
+                                .defaultIfEmpty(Optional.empty())
+                                // Two first versions inserted at once (unique index): the loser overwrites the winner
+                                .retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance));
+        }
+
+        /**
+         * Stored fields of a notification plus the archive claim; those missing from
+         * the new version are removed from the overwritten one
+         */
+        private List<String> collapsibleFields() {
+                List<String> fields = new ArrayList<>();
+                mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Notification.class)
+                                .doWithProperties((PropertyHandler<MongoPersistentProperty>) property -> {
+                                        if (!property.isIdProperty()) {
+                                                fields.add(property.getFieldName());
+                                        }
+                                });
+                fields.add("archiveClaim");
+                return fields;
+        }
+
+        /**
+         * Whether the replaced version was counted as unread (enabled, unread and not
+         * tombstoned), so the new unread version leaves the counter unchanged
+         */
+        private Mono<Boolean> replacedCountedUnread(Optional<Notification> previous) {
+                if (previous.isEmpty() || previous.get().isDisabled()
+                                || (previous.get().getStatus() != null && previous.get().getStatus().isRead())) {
+                        return Mono.just(false);
+                }
+                return hiddenBefore(previous.get().getUserId())
+                                .map(watermark -> !isHidden(previous.get(), watermark.orElse(null)));
+        }
+
         @Override
         @SuppressWarnings("unused")
         public Mono<String> publishNotificationRequest(NotificationRequestDTO notificationRequest) {
-                // Validate template existence before publishing to Kafka
-                return templateRepository.existsById(notificationRequest.getTemplateId())
+                // Rate limit first: rejected requests cost no database round trip
+                return Mono.fromRunnable(() -> rateLimiterService.acquireSend(notificationRequest.getUserId(),
+                                notificationRequest.getSourceSystem()))
+                                // Validate template existence before publishing to Kafka
+                                .then(templateRepository.existsById(notificationRequest.getTemplateId()))
                                 .flatMap(exists -> {
                                         if (!exists) {
                                                 return Mono.error(new TemplateNotFoundException(
@@ -309,10 +975,13 @@ public class NotificationServiceImpl implements NotificationService {
                                                         notificationId, notificationRequest.getUserId(),
                                                         notificationRequest.getTemplateId());
 
+                                        // Priority lane decides the topic; the NORMAL lane keeps the original topic
+                                        String topic = topicFor(PriorityLane.of(notificationRequest.getPriority()));
+
                                         // Build message with a custom header: "notificationId"
                                         Message<NotificationRequestDTO> message = MessageBuilder
                                                         .withPayload(notificationRequest)
-                                                        .setHeader(KafkaHeaders.TOPIC, notificationRequestsTopic)
+                                                        .setHeader(KafkaHeaders.TOPIC, topic)
                                                         .setHeader(KafkaHeaders.KEY, notificationRequest.getUserId())
                                                         .setHeader("notificationId", notificationId)
                                                         .build();
@@ -327,13 +996,22 @@ public class NotificationServiceImpl implements NotificationService {
                                                                         })
                                                                         .exceptionally(ex -> {
                                                                                 throw new KafkaPublishException(
-                                                                                                notificationRequestsTopic,
+                                                                                                topic,
                                                                                                 ex);
                                                                         })
                                                                         .toCompletableFuture());
                                 });
         }
 
+        private String topicFor(PriorityLane lane) {
+                return switch (lane) {
+                        case URGENT -> urgentRequestsTopic;
+                        case HIGH -> highRequestsTopic;
+                        case NORMAL -> notificationRequestsTopic;
+                        case LOW -> lowRequestsTopic;
+                };
+        }
+
         private Notification buildNotificationFromDTO(NotificationRequestDTO dto) {
                 Notification notification = new Notification();
 
@@ -344,6 +1022,8 @@ public class NotificationServiceImpl implements NotificationService {
                 notification.setSourceSystem(dto.getSourceSystem());
                 notification.setParams(dto.getParams());
                 notification.setMetadata(dto.getMetadata());
+                notification.setExpiresAt(dto.getExpiresAt());
+                notification.setCollapseKey(dto.getCollapseKey());
                 notification.setDisabled(false);
 
                 notification.setStatus(buildNotificationStatus());
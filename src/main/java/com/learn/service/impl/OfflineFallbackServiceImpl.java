@@ -0,0 +1,318 @@
+package com.learn.service.impl;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.learn.dto.OutboundNotificationDTO;
+import com.learn.model.Notification;
+import com.learn.model.PriorityLane;
+import com.learn.scheduler.HierarchicalTimingWheel;
+import com.learn.service.OfflineFallbackService;
+import com.learn.service.RenderedContentStore;
+import com.learn.service.TombstoneService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+/**
+ * Offline fallback on a hierarchical timing wheel.
+ *
+ * <p>
+ * The node that saves a notification arms its fallback timer; nothing polls
+ * Mongo for due work. When the timer fires, a single conditional
+ * findAndModify claims the notification (still unsent, unread, enabled, not
+ * expired, not handed over and not claimed by a live claim) by setting
+ * {@code timestamps.fallbackClaimedAt}, so only one of the nodes that armed it
+ * publishes. Once the outbound topic acknowledges the publish,
+ * {@code timestamps.fallbackAt} is set and the claim removed. A failed publish
+ * releases the claim and retries later.
+ *
+ * <p>
+ * A claim that is not confirmed within {@code claim-timeout-ms} (the node
+ * died between claim and publish) can be taken over, so the notification is
+ * handed over at least once; a crash between publish and confirmation
+ * publishes it again.
+ *
+ * <p>
+ * Timers live in memory: on startup each node re-arms the unsent notifications
+ * not handed over yet, created within the longest delay plus the claim timeout
+ * (one range query on the creation index); claimed ones fire when their claim
+ * expires. Delays are configured as {@code "LANE:ms"} with optional
+ * {@code "LANE.CHANNEL:ms"} overrides; lanes without a delay never fall back.
+ */
+@Service
+public class OfflineFallbackServiceImpl implements OfflineFallbackService {
+
+    private static final Logger log = LoggerFactory.getLogger(OfflineFallbackServiceImpl.class);
+    private static final Set<String> CHANNELS = Set.of("EMAIL", "SMS", "PUSH");
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final TombstoneService tombstoneService;
+    private final RenderedContentStore renderedContentStore;
+    private final KafkaTemplate<String, OutboundNotificationDTO> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Long> delays = new HashMap<>();
+
+    private HierarchicalTimingWheel timingWheel;
+    private long maxDelayMs;
+
+    @Value("${app.fallback.enabled}")
+    private boolean enabled;
+
+    @Value("${app.fallback.delays}")
+    private String delaysConfig;
+
+    @Value("${app.fallback.default-channel}")
+    private String defaultChannel;
+
+    @Value("${app.fallback.max-pending}")
+    private int maxPending;
+
+    @Value("${app.fallback.tick-ms}")
+    private long tickMs;
+
+    @Value("${app.fallback.wheel-size}")
+    private int wheelSize;
+
+    @Value("${app.fallback.retry-delay-ms}")
+    private long retryDelayMs;
+
+    @Value("${app.fallback.claim-timeout-ms}")
+    private long claimTimeoutMs;
+
+    @Value("${app.kafka.topics.notification-outbound}")
+    private String outboundTopic;
+
+    public OfflineFallbackServiceImpl(
+            ReactiveMongoTemplate mongoTemplate,
+            TombstoneService tombstoneService,
+            RenderedContentStore renderedContentStore,
+            KafkaTemplate<String, OutboundNotificationDTO> kafkaTemplate,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.tombstoneService = tombstoneService;
+        this.renderedContentStore = renderedContentStore;
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        // Format: "URGENT:60000,HIGH:300000,NORMAL.SMS:600000"
+        if (StringUtils.hasText(delaysConfig)) {
+            for (String entry : delaysConfig.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length == 2) {
+                    delays.put(parts[0].trim().toUpperCase(Locale.ROOT), Long.parseLong(parts[1].trim()));
+                }
+            }
+        }
+        maxDelayMs = delays.values().stream().mapToLong(Long::longValue).max().orElse(0L);
+        defaultChannel = defaultChannel.toUpperCase(Locale.ROOT);
+
+        timingWheel = new HierarchicalTimingWheel("offline-fallback-wheel", tickMs, wheelSize,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("offline-fallback-release")
+                        .daemon().factory()));
+        meterRegistry.gauge("notification.fallback.pending", timingWheel, HierarchicalTimingWheel::size);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timingWheel.close();
+    }
+
+    @Override
+    public void schedule(Notification notification) {
+        // Broadcast copies only exist once delivered
+        if (!enabled || notification.getBroadcastId() != null) {
+            return;
+        }
+        arm(notification, 0L);
+    }
+
+    /**
+     * Arms the fallback timer at the lane/channel delay after creation, or at
+     * {@code notBeforeMs} if that is later
+     */
+    private void arm(Notification notification, long notBeforeMs) {
+        PriorityLane lane = PriorityLane.of(notification.getPriority());
+        String channel = channelOf(notification);
+        long delayMs = delayFor(lane, channel);
+        if (delayMs <= 0) {
+            return;
+        }
+        if (timingWheel.size() >= maxPending) {
+            meterRegistry.counter("notification.fallback.skipped", "reason", "capacity").increment();
+            return;
+        }
+
+        Instant createdAt = notification.getTimestamps() != null && notification.getTimestamps().getCreatedAt() != null
+                ? notification.getTimestamps().getCreatedAt()
+                : Instant.now();
+        String notificationId = notification.getId();
+        timingWheel.schedule(Math.max(createdAt.toEpochMilli() + delayMs, notBeforeMs),
+                () -> fire(notificationId, lane, channel));
+        meterRegistry.counter("notification.fallback.scheduled", "lane", lane.tag()).increment();
+    }
+
+    /**
+     * Re-arms the fallbacks lost with the previous process, including the ones
+     * it claimed but never confirmed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!enabled || maxDelayMs <= 0) {
+            return;
+        }
+        Instant since = Instant.now().minusMillis(maxDelayMs + claimTimeoutMs);
+        Query query = Query.query(Criteria.where("timestamps.createdAt").gte(since)
+                .and("status.sent").is(false)
+                .and("status.read").is(false)
+                .and("disabled").is(false)
+                .and("timestamps.fallbackAt").exists(false)
+                .and("broadcastId").exists(false))
+                .limit(maxPending);
+        query.fields().include("_id", "userId", "channel", "priority", "timestamps");
+
+        mongoTemplate.find(query, Notification.class)
+                // A claim can only be taken over once it has timed out
+                .doOnNext(notification -> arm(notification, claimExpiryMs(notification)))
+                .count()
+                .subscribe(armed -> log.info("Re-armed {} offline fallbacks", armed),
+                        error -> log.warn("Failed to re-arm offline fallbacks: {}", error.getMessage(), error));
+    }
+
+    private void fire(String notificationId, PriorityLane lane, String channel) {
+        Instant now = Instant.now();
+        Query claim = Query.query(new Criteria().andOperator(
+                Criteria.where("_id").is(notificationId)
+                        .and("status.sent").is(false)
+                        .and("status.read").is(false)
+                        .and("disabled").is(false)
+                        .and("timestamps.fallbackAt").exists(false),
+                new Criteria().orOperator(
+                        Criteria.where("timestamps.fallbackClaimedAt").exists(false),
+                        Criteria.where("timestamps.fallbackClaimedAt").lt(now.minusMillis(claimTimeoutMs))),
+                new Criteria().orOperator(
+                        Criteria.where("expiresAt").exists(false),
+                        Criteria.where("expiresAt").gt(now))));
+
+        mongoTemplate.findAndModify(claim, new Update().set("timestamps.fallbackClaimedAt", now),
+                FindAndModifyOptions.options().returnNew(true), Notification.class)
+                .switchIfEmpty(Mono.fromRunnable(() -> skipped("delivered")))
+                .filterWhen(this::isVisible)
+                .flatMap(renderedContentStore::resolve)
+                .doOnNext(notification -> notification.getTimestamps().setFallbackAt(now))
+                .flatMap(notification -> Mono.fromFuture(() -> kafkaTemplate.send(outboundTopic,
+                        notification.getUserId(), OutboundNotificationDTO.fromNotification(notification, channel))))
+                .flatMap(result -> confirm(notificationId, now).thenReturn(result))
+                .subscribe(
+                        result -> {
+                            meterRegistry.counter("notification.fallback.emitted",
+                                    "lane", lane.tag(), "channel", channel.toLowerCase(Locale.ROOT)).increment();
+                            log.debug("Notification {} not delivered in time, sent to {} fallback", notificationId,
+                                    channel);
+                        },
+                        error -> {
+                            meterRegistry.counter("notification.fallback.failed").increment();
+                            log.warn("Offline fallback of notification {} failed, retrying in {}ms: {}",
+                                    notificationId, retryDelayMs, error.getMessage());
+                            release(notificationId, now, lane, channel);
+                        });
+    }
+
+    /**
+     * Records the hand-over of a published notification and drops its claim. A
+     * failure only leaves the claim, which is taken over (published again) after
+     * the claim timeout by a restarted node.
+     */
+    private Mono<Void> confirm(String notificationId, Instant claimedAt) {
+        return mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(notificationId)
+                .and("timestamps.fallbackClaimedAt").is(claimedAt)),
+                new Update().set("timestamps.fallbackAt", claimedAt).unset("timestamps.fallbackClaimedAt"),
+                Notification.class)
+                .onErrorResume(error -> {
+                    log.warn("Failed to confirm fallback of notification {}: {}", notificationId,
+                            error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private long claimExpiryMs(Notification notification) {
+        Instant claimedAt = notification.getTimestamps() != null
+                ? notification.getTimestamps().getFallbackClaimedAt()
+                : null;
+        return claimedAt != null ? claimedAt.toEpochMilli() + claimTimeoutMs + tickMs : 0L;
+    }
+
+    /**
+     * Notifications hidden by disable-all are claimed but not sent out
+     */
+    private Mono<Boolean> isVisible(Notification notification) {
+        return tombstoneService.getHiddenBefore(notification.getUserId())
+                .map(hiddenBefore -> notification.getTimestamps() == null
+                        || notification.getTimestamps().getCreatedAt() == null
+                        || notification.getTimestamps().getCreatedAt().isAfter(hiddenBefore))
+                .defaultIfEmpty(true)
+                .doOnNext(visible -> {
+                    if (!visible) {
+                        skipped("hidden");
+                    }
+                });
+    }
+
+    /**
+     * Releases the claim of a failed publish (unless taken over meanwhile) and
+     * arms a retry
+     */
+    private void release(String notificationId, Instant claimedAt, PriorityLane lane, String channel) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(notificationId)
+                .and("timestamps.fallbackClaimedAt").is(claimedAt)),
+                new Update().unset("timestamps.fallbackClaimedAt"), Notification.class)
+                .subscribe(
+                        result -> timingWheel.schedule(System.currentTimeMillis() + retryDelayMs,
+                                () -> fire(notificationId, lane, channel)),
+                        error -> log.warn("Failed to release fallback claim of notification {}: {}",
+                                notificationId, error.getMessage()));
+    }
+
+    private void skipped(String reason) {
+        meterRegistry.counter("notification.fallback.skipped", "reason", reason).increment();
+    }
+
+    private long delayFor(PriorityLane lane, String channel) {
+        Long delay = delays.get(lane.name() + "." + channel);
+        return delay != null ? delay : delays.getOrDefault(lane.name(), 0L);
+    }
+
+    /**
+     * Outbound channel of the notification; unknown values use the default
+     */
+    private String channelOf(Notification notification) {
+        String channel = notification.getChannel() != null
+                ? notification.getChannel().trim().toUpperCase(Locale.ROOT)
+                : null;
+        return channel != null && CHANNELS.contains(channel) ? channel : defaultChannel;
+    }
+}
@@ -0,0 +1,350 @@
+package com.learn.service.impl;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.learn.dto.OutboundNotificationDTO;
+import com.learn.service.OutboundDispatcher;
+import com.learn.service.OutboundProvider;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+import reactor.util.retry.Retry;
+
+/**
+ * Batching dispatcher in front of the {@link OutboundProvider} beans.
+ *
+ * <p>
+ * Each provider has its own lane: a bounded queue drained by
+ * {@code bufferTimeout(batchSize, linger)}, so a batch leaves when it is full
+ * or when its oldest entry has waited {@code linger-ms}, and at most
+ * {@code concurrency} provider calls run at a time; while all of them are busy
+ * the queue backs up instead of overflowing the batcher. Before a call the lane
+ * takes one token per notification from a GCRA bucket ({@code rate-per-second},
+ * {@code burst}) and waits for missing tokens instead of dropping. Calls go
+ * through a consecutive-failure circuit breaker; a failed or refused call is
+ * retried with backoff up to {@code max-attempts}, then every notification of
+ * the batch fails.
+ *
+ * <p>
+ * Channels are routed by {@code app.outbound.routes} ("EMAIL:sendgrid,SMS:twilio");
+ * channels without a route use the first provider that supports them.
+ * Per-provider settings under {@code app.outbound.providers.<name>.*} override
+ * the defaults under {@code app.outbound.*}.
+ */
+@Service
+public class OutboundDispatcherImpl implements OutboundDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundDispatcherImpl.class);
+
+    private final ObjectProvider<OutboundProvider> providers;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Lane> lanesByChannel = new HashMap<>();
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+
+    @Value("${app.outbound.routes}")
+    private String routesConfig;
+
+    @Value("${app.outbound.batch-size}")
+    private int batchSize;
+
+    @Value("${app.outbound.linger-ms}")
+    private long lingerMs;
+
+    @Value("${app.outbound.concurrency}")
+    private int concurrency;
+
+    @Value("${app.outbound.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.outbound.rate-per-second}")
+    private double ratePerSecond;
+
+    @Value("${app.outbound.burst}")
+    private int burst;
+
+    @Value("${app.outbound.call-timeout-ms}")
+    private long callTimeoutMs;
+
+    @Value("${app.outbound.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${app.outbound.retry-backoff-ms}")
+    private long retryBackoffMs;
+
+    @Value("${app.outbound.circuit.failure-threshold}")
+    private int failureThreshold;
+
+    @Value("${app.outbound.circuit.open-ms}")
+    private long openMs;
+
+    public OutboundDispatcherImpl(
+            ObjectProvider<OutboundProvider> providers,
+            Environment environment,
+            MeterRegistry meterRegistry) {
+        this.providers = providers;
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        providers.orderedStream().forEach(provider -> {
+            if (lanes.containsKey(provider.getName())) {
+                throw new IllegalStateException("Duplicate outbound provider name: " + provider.getName());
+            }
+            lanes.put(provider.getName(), new Lane(provider));
+        });
+
+        // Format: "EMAIL:sendgrid,SMS:twilio,PUSH:fcm"
+        if (StringUtils.hasText(routesConfig)) {
+            for (String entry : routesConfig.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length != 2) {
+                    continue;
+                }
+                Lane lane = lanes.get(parts[1].trim());
+                if (lane == null) {
+                    log.warn("Outbound route {} points to unknown provider {}", parts[0].trim(), parts[1].trim());
+                    continue;
+                }
+                lanesByChannel.put(parts[0].trim().toUpperCase(Locale.ROOT), lane);
+            }
+        }
+        for (Lane lane : lanes.values()) {
+            for (String channel : lane.provider.getChannels()) {
+                lanesByChannel.putIfAbsent(channel.toUpperCase(Locale.ROOT), lane);
+            }
+        }
+
+        lanes.values().forEach(Lane::start);
+        log.info("Outbound dispatcher started with providers {} and routes {}", lanes.keySet(),
+                lanesByChannel.entrySet().stream()
+                        .map(route -> route.getKey() + "->" + route.getValue().provider.getName())
+                        .toList());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        lanes.values().forEach(Lane::stop);
+    }
+
+    @Override
+    public Mono<Void> dispatchAll(List<OutboundNotificationDTO> notifications) {
+        return Flux.fromIterable(notifications)
+                .flatMap(this::dispatch, Math.max(notifications.size(), 1))
+                .then();
+    }
+
+    private Mono<Void> dispatch(OutboundNotificationDTO notification) {
+        return Mono.defer(() -> {
+            String channel = notification.getChannel() != null
+                    ? notification.getChannel().toUpperCase(Locale.ROOT)
+                    : null;
+            Lane lane = channel != null ? lanesByChannel.get(channel) : null;
+            if (lane == null) {
+                // Redelivery would not help: drop and count
+                log.warn("No outbound provider for channel {} of notification {}", channel,
+                        notification.getNotificationId());
+                meterRegistry.counter("notification.outbound.unroutable",
+                        "channel", String.valueOf(channel).toLowerCase(Locale.ROOT)).increment();
+                return Mono.empty();
+            }
+            return lane.submit(notification);
+        });
+    }
+
+    private int intSetting(String provider, String key, int defaultValue) {
+        return environment.getProperty("app.outbound.providers." + provider + "." + key, Integer.class, defaultValue);
+    }
+
+    private long longSetting(String provider, String key, long defaultValue) {
+        return environment.getProperty("app.outbound.providers." + provider + "." + key, Long.class, defaultValue);
+    }
+
+    private double doubleSetting(String provider, String key, double defaultValue) {
+        return environment.getProperty("app.outbound.providers." + provider + "." + key, Double.class, defaultValue);
+    }
+
+    /**
+     * Notification waiting in a lane, completed when its batch is done
+     */
+    private record Pending(OutboundNotificationDTO notification, Sinks.Empty<Void> done) {
+    }
+
+    /**
+     * Queue, batching pipeline, rate limiter and circuit breaker of one provider
+     */
+    private final class Lane {
+
+        private final OutboundProvider provider;
+        private final String name;
+        private final int laneBatchSize;
+        private final Duration linger;
+        private final int laneConcurrency;
+        private final Duration callTimeout;
+        private final int laneMaxAttempts;
+        private final Duration retryBackoff;
+        private final TokenBuckets rateLimiter;
+        private final CircuitBreaker circuitBreaker;
+        private final Sinks.Many<Pending> queue;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final DistributionSummary batchSizes;
+        private final Timer callTimer;
+        private Disposable pipeline;
+
+        Lane(OutboundProvider provider) {
+            this.provider = provider;
+            this.name = provider.getName();
+            this.laneBatchSize = intSetting(name, "batch-size", batchSize);
+            this.linger = Duration.ofMillis(longSetting(name, "linger-ms", lingerMs));
+            this.laneConcurrency = intSetting(name, "concurrency", concurrency);
+            this.callTimeout = Duration.ofMillis(longSetting(name, "call-timeout-ms", callTimeoutMs));
+            this.laneMaxAttempts = intSetting(name, "max-attempts", maxAttempts);
+            this.retryBackoff = Duration.ofMillis(longSetting(name, "retry-backoff-ms", retryBackoffMs));
+            this.rateLimiter = new TokenBuckets(intSetting(name, "burst", burst),
+                    doubleSetting(name, "rate-per-second", ratePerSecond), 1, 1);
+            this.circuitBreaker = new CircuitBreaker(intSetting(name, "circuit.failure-threshold", failureThreshold),
+                    TimeUnit.MILLISECONDS.toNanos(longSetting(name, "circuit.open-ms", openMs)));
+            this.queue = Sinks.many().unicast().onBackpressureBuffer(
+                    Queues.<Pending>get(intSetting(name, "queue-capacity", queueCapacity)).get());
+            this.batchSizes = DistributionSummary.builder("notification.outbound.batch.size")
+                    .tag("provider", name)
+                    .register(meterRegistry);
+            this.callTimer = Timer.builder("notification.outbound.call")
+                    .tag("provider", name)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            meterRegistry.gauge("notification.outbound.queued", Tags.of("provider", name), queued,
+                    AtomicInteger::get);
+            meterRegistry.gauge("notification.outbound.circuit.open", Tags.of("provider", name), circuitBreaker,
+                    breaker -> breaker.state() == CircuitBreaker.State.CLOSED ? 0 : 1);
+        }
+
+        void start() {
+            pipeline = queue.asFlux()
+                    // Fair backpressure: a lingering batch waits for a free call slot
+                    .bufferTimeout(laneBatchSize, linger, true)
+                    .flatMap(this::sendBatch, laneConcurrency)
+                    .subscribe(null, error -> log.error("Outbound lane {} stopped: {}", name, error.getMessage(),
+                            error));
+        }
+
+        void stop() {
+            queue.tryEmitComplete();
+            if (pipeline != null) {
+                pipeline.dispose();
+            }
+        }
+
+        Mono<Void> submit(OutboundNotificationDTO notification) {
+            Sinks.Empty<Void> done = Sinks.empty();
+            Sinks.EmitResult result;
+            // Unicast sinks reject concurrent emitters; Kafka listener threads share the lane
+            synchronized (queue) {
+                result = queue.tryEmitNext(new Pending(notification, done));
+            }
+            if (result.isFailure()) {
+                return Mono.error(new IllegalStateException(
+                        "Outbound queue of provider " + name + " is full (" + result + ")"));
+            }
+            queued.incrementAndGet();
+            return done.asMono();
+        }
+
+        private Mono<Void> sendBatch(List<Pending> batch) {
+            queued.addAndGet(-batch.size());
+            batchSizes.record(batch.size());
+            List<OutboundNotificationDTO> notifications = batch.stream().map(Pending::notification).toList();
+
+            // Tokens are taken once per batch, retries do not count against the rate
+            return acquire(notifications.size())
+                    .then(Mono.defer(() -> call(notifications))
+                            .retryWhen(Retry.backoff(Math.max(laneMaxAttempts - 1, 0), retryBackoff)
+                                    .doBeforeRetry(signal -> log.debug("Retrying batch of {} for provider {}: {}",
+                                            batch.size(), name, signal.failure().getMessage()))))
+                    .doOnNext(rejected -> {
+                        Set<String> rejectedIds = new HashSet<>(rejected);
+                        meterRegistry.counter("notification.outbound.sent", "provider", name)
+                                .increment(batch.size() - rejectedIds.size());
+                        if (!rejectedIds.isEmpty()) {
+                            log.warn("Provider {} rejected notifications {}", name, rejectedIds);
+                            meterRegistry.counter("notification.outbound.rejected", "provider", name)
+                                    .increment(rejectedIds.size());
+                        }
+                        batch.forEach(pending -> pending.done().tryEmitEmpty());
+                    })
+                    .doOnError(error -> {
+                        Throwable cause = Exceptions.isRetryExhausted(error) && error.getCause() != null
+                                ? error.getCause()
+                                : error;
+                        log.warn("Provider {} failed a batch of {} after {} attempts: {}", name, batch.size(),
+                                laneMaxAttempts, cause.getMessage());
+                        meterRegistry.counter("notification.outbound.failed", "provider", name)
+                                .increment(batch.size());
+                        batch.forEach(pending -> pending.done().tryEmitError(cause));
+                    })
+                    .onErrorResume(error -> Mono.empty())
+                    .then();
+        }
+
+        private Mono<List<String>> call(List<OutboundNotificationDTO> notifications) {
+            if (!circuitBreaker.tryPass()) {
+                return Mono.error(new IllegalStateException("Circuit of provider " + name + " is open"));
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return provider.send(notifications)
+                    .timeout(callTimeout)
+                    .defaultIfEmpty(List.of())
+                    .doOnNext(ignored -> circuitBreaker.onSuccess())
+                    .doOnError(error -> circuitBreaker.onFailure())
+                    .doFinally(signal -> sample.stop(callTimer));
+        }
+
+        /**
+         * Takes {@code permits} tokens, waiting for the bucket to refill when it
+         * runs dry
+         */
+        private Mono<Void> acquire(int permits) {
+            return Flux.range(0, permits)
+                    .concatMap(ignored -> acquireOne())
+                    .then();
+        }
+
+        private Mono<Void> acquireOne() {
+            return Mono.defer(() -> {
+                long waitNanos = rateLimiter.tryAcquire(name);
+                return waitNanos == 0
+                        ? Mono.<Void>empty()
+                        : Mono.delay(Duration.ofNanos(waitNanos)).then(acquireOne());
+            });
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.learn.service.impl;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.function.ToIntFunction;
+
+import org.reactivestreams.Subscription;
+
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Priority-ordered buffer between a source and a slow subscriber.
+ * <p>
+ * Up to {@code prefetch} items are requested from the source ahead of the
+ * subscriber; each item handed downstream is replenished. Items are handed to
+ * the subscriber only on demand, lowest rank first (FIFO within a rank). While
+ * the subscriber keeps up this is a pass-through; once it falls behind (e.g. a
+ * slow SSE client stops requesting because the channel is not writable) the
+ * buffered items drain URGENT first instead of in arrival order, and the
+ * backpressure reaches the source once the buffer is full.
+ * <p>
+ * Completion is signalled after the buffered items; an error right away,
+ * dropping them, so a failed source ends a subscriber that stopped requesting.
+ */
+final class PriorityBufferedFlux {
+
+    private PriorityBufferedFlux() {
+    }
+
+    static <T> Flux<T> prioritize(Flux<T> source, ToIntFunction<? super T> rank, int prefetch) {
+        return Flux.create(sink -> {
+            Buffer<T> buffer = new Buffer<>(sink, rank, prefetch);
+            sink.onRequest(ignored -> buffer.drain());
+            sink.onDispose(buffer);
+            source.subscribe(buffer);
+        });
+    }
+
+    private static final class Buffer<T> extends BaseSubscriber<T> {
+
+        private record Entry<T>(int rank, long sequence, T item) {
+        }
+
+        private final PriorityQueue<Entry<T>> queue = new PriorityQueue<>(
+                Comparator.<Entry<T>>comparingInt(Entry::rank).thenComparingLong(Entry::sequence));
+        private final FluxSink<T> sink;
+        private final ToIntFunction<? super T> rank;
+        private final int prefetch;
+        private long sequence;
+        private boolean sourceDone;
+        private Throwable sourceError;
+        private boolean terminated;
+
+        Buffer(FluxSink<T> sink, ToIntFunction<? super T> rank, int prefetch) {
+            this.sink = sink;
+            this.rank = rank;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            request(prefetch);
+        }
+
+        @Override
+        protected void hookOnNext(T item) {
+            synchronized (this) {
+                queue.add(new Entry<>(rank.applyAsInt(item), sequence++, item));
+            }
+            drain();
+        }
+
+        @Override
+        protected void hookOnError(Throwable error) {
+            synchronized (this) {
+                sourceDone = true;
+                sourceError = error;
+            }
+            drain();
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            synchronized (this) {
+                sourceDone = true;
+            }
+            drain();
+        }
+
+        void drain() {
+            long emitted = emit();
+            // Outside the lock: a synchronous source delivers right away
+            if (emitted > 0 && !isDisposed()) {
+                request(emitted);
+            }
+        }
+
+        private synchronized long emit() {
+            long emitted = 0;
+            while (!terminated && !queue.isEmpty() && sink.requestedFromDownstream() > 0) {
+                sink.next(queue.poll().item());
+                emitted++;
+            }
+            if (!terminated && sourceError != null) {
+                terminated = true;
+                queue.clear();
+                sink.error(sourceError);
+            } else if (!terminated && sourceDone && queue.isEmpty()) {
+                terminated = true;
+                sink.complete();
+            }
+            return sourceDone ? 0 : emitted;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.learn.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.learn.model.PriorityLane;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Per-lane latency metrics proving priority isolation.
+ * <p>
+ * {@code notification.lane.ingest.latency}: Kafka record timestamp to saved
+ * notification. {@code notification.lane.delivery.latency}: notification
+ * creation to SSE delivery. Both are tagged with {@code lane}.
+ */
+@Component
+public class PriorityLaneMetrics {
+
+    private final Map<PriorityLane, Timer> ingestTimers = new EnumMap<>(PriorityLane.class);
+    private final Map<PriorityLane, Timer> deliveryTimers = new EnumMap<>(PriorityLane.class);
+
+    public PriorityLaneMetrics(MeterRegistry meterRegistry) {
+        for (PriorityLane lane : PriorityLane.values()) {
+            ingestTimers.put(lane, Timer.builder("notification.lane.ingest.latency")
+                    .tag("lane", lane.tag())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            deliveryTimers.put(lane, Timer.builder("notification.lane.delivery.latency")
+                    .tag("lane", lane.tag())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    public void recordIngest(PriorityLane lane, Instant since) {
+        record(ingestTimers.get(lane), since);
+    }
+
+    public void recordDelivery(PriorityLane lane, Instant since) {
+        record(deliveryTimers.get(lane), since);
+    }
+
+    private void record(Timer timer, Instant since) {
+        if (since != null) {
+            Duration latency = Duration.between(since, Instant.now());
+            timer.record(latency.isNegative() ? Duration.ZERO : latency);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.learn.service.impl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.learn.exception.RateLimitExceededException;
+import com.learn.service.RateLimiterService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Rate limiter for /send backed by two {@link TokenBuckets}: one keyed by
+ * userId, one keyed by sourceSystem.
+ * <p>
+ * Metrics: {@code notification.rate_limit.rejected} tagged by dimension and the
+ * {@code notification.rate_limit.keys} gauges.
+ */
+@Service
+public class RateLimiterServiceImpl implements RateLimiterService {
+
+    private static final String USER_DIMENSION = "userId";
+    private static final String SOURCE_DIMENSION = "sourceSystem";
+
+    private final MeterRegistry meterRegistry;
+
+    private TokenBuckets userBuckets;
+    private TokenBuckets sourceBuckets;
+    private Counter userRejections;
+    private Counter sourceRejections;
+
+    @Value("${app.rate-limit.enabled}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.user.burst}")
+    private int userBurst;
+
+    @Value("${app.rate-limit.user.refill-per-second}")
+    private double userRefillPerSecond;
+
+    @Value("${app.rate-limit.source.burst}")
+    private int sourceBurst;
+
+    @Value("${app.rate-limit.source.refill-per-second}")
+    private double sourceRefillPerSecond;
+
+    @Value("${app.rate-limit.max-keys}")
+    private int maxKeys;
+
+    @Value("${app.rate-limit.overflow-stripes}")
+    private int overflowStripes;
+
+    public RateLimiterServiceImpl(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        userBuckets = new TokenBuckets(userBurst, userRefillPerSecond, maxKeys, overflowStripes);
+        sourceBuckets = new TokenBuckets(sourceBurst, sourceRefillPerSecond, maxKeys, overflowStripes);
+        userRejections = meterRegistry.counter("notification.rate_limit.rejected", "dimension", USER_DIMENSION);
+        sourceRejections = meterRegistry.counter("notification.rate_limit.rejected", "dimension", SOURCE_DIMENSION);
+        meterRegistry.gauge("notification.rate_limit.keys", List.of(Tag.of("dimension", USER_DIMENSION)),
+                userBuckets, TokenBuckets::size);
+        meterRegistry.gauge("notification.rate_limit.keys", List.of(Tag.of("dimension", SOURCE_DIMENSION)),
+                sourceBuckets, TokenBuckets::size);
+    }
+
+    @Override
+    public void acquireSend(String userId, String sourceSystem) {
+        if (!enabled) {
+            return;
+        }
+
+        long userWait = userBuckets.tryAcquire(userId);
+        if (userWait > 0) {
+            userRejections.increment();
+            throw new RateLimitExceededException(USER_DIMENSION, userId, retryAfterSeconds(userWait));
+        }
+
+        if (StringUtils.hasText(sourceSystem)) {
+            long sourceWait = sourceBuckets.tryAcquire(sourceSystem);
+            if (sourceWait > 0) {
+                // The request is rejected as a whole: give the user's token back
+                userBuckets.release(userId);
+                sourceRejections.increment();
+                throw new RateLimitExceededException(SOURCE_DIMENSION, sourceSystem,
+                        retryAfterSeconds(sourceWait));
+            }
+        }
+    }
+
+    @Override
+    public int evictIdle() {
+        return userBuckets.evictIdle() + sourceBuckets.evictIdle();
+    }
+
+    private long retryAfterSeconds(long waitNanos) {
+        // Retry-After has second granularity; round up so a retry is never early
+        return Math.max(1L, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
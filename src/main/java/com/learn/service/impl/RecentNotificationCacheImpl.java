@@ -0,0 +1,278 @@
+package com.learn.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.learn.dto.NotificationFilterDTO;
+import com.learn.model.Notification;
+import com.learn.service.RecentNotificationCache;
+import com.learn.specification.NotificationSpecification;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * LRU implementation of the recent notifications cache.
+ *
+ * <p>
+ * Entries are immutable snapshots replaced under a lock, so readers never see a
+ * partially updated page. Each entry expires after a short TTL because
+ * read/disable operations that land on another node cannot invalidate it.
+ *
+ * <p>
+ * Metrics: {@code notification.recent.cache.requests} (tags: type=page|id,
+ * result=hit|miss) and the {@code notification.recent.cache.users} gauge.
+ */
+@Service
+public class RecentNotificationCacheImpl implements RecentNotificationCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RecentNotificationCacheImpl.class);
+    private static final String DEFAULT_SORT_FIELD = "timestamps.createdAt";
+
+    @Value("${app.recent-cache.enabled}")
+    private boolean enabled;
+
+    @Value("${app.recent-cache.max-users}")
+    private int maxUsers;
+
+    @Value("${app.recent-cache.window-size}")
+    private int windowSize;
+
+    @Value("${app.recent-cache.ttl-seconds}")
+    private long ttlSeconds;
+
+    private final Map<String, CachedPage> pages = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedPage> eldest) {
+            if (size() > maxUsers) {
+                unindex(eldest.getValue());
+                versions.remove(eldest.getKey());
+                return true;
+            }
+            return false;
+        }
+    };
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final Map<String, String> userIdByNotificationId = new ConcurrentHashMap<>();
+
+    private final Counter pageHits;
+    private final Counter pageMisses;
+    private final Counter idHits;
+    private final Counter idMisses;
+
+    public RecentNotificationCacheImpl(MeterRegistry meterRegistry) {
+        this.pageHits = meterRegistry.counter("notification.recent.cache.requests", "type", "page", "result", "hit");
+        this.pageMisses = meterRegistry.counter("notification.recent.cache.requests", "type", "page", "result",
+                "miss");
+        this.idHits = meterRegistry.counter("notification.recent.cache.requests", "type", "id", "result", "hit");
+        this.idMisses = meterRegistry.counter("notification.recent.cache.requests", "type", "id", "result", "miss");
+        meterRegistry.gauge("notification.recent.cache.users", pages, map -> {
+            synchronized (map) {
+                return map.size();
+            }
+        });
+    }
+
+    @Override
+    public boolean isCacheable(NotificationFilterDTO filter) {
+        return enabled
+                && filter.getPage() == 0
+                && filter.getSize() <= windowSize
+                && filter.getRead() == null
+                && filter.getChannel() == null
+                && filter.getPriority() == null
+                && DEFAULT_SORT_FIELD.equals(NotificationSpecification.validateSortField(filter.getSortBy()))
+                && "DESC".equals(filter.getSortDirection());
+    }
+
+    @Override
+    public int windowSize() {
+        return windowSize;
+    }
+
+    @Override
+    public Optional<RecentPage> get(String userId) {
+        CachedPage page = livePage(userId);
+        if (page == null) {
+            pageMisses.increment();
+            return Optional.empty();
+        }
+        pageHits.increment();
+        return Optional.of(new RecentPage(page.notifications, page.totalCount, page.countExact));
+    }
+
+    @Override
+    public Optional<Notification> getById(String notificationId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String userId = userIdByNotificationId.get(notificationId);
+        CachedPage page = userId != null ? livePage(userId) : null;
+        if (page != null) {
+            for (Notification notification : page.notifications) {
+                if (notification.getId().equals(notificationId)) {
+                    idHits.increment();
+                    return Optional.of(notification);
+                }
+            }
+        }
+        idMisses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Registers a load in flight. The version entry lives as long as the user has
+     * a page or a pending load; inserts and invalidations remove or bump it so a
+     * concurrent load is discarded.
+     */
+    @Override
+    public long version(String userId) {
+        return versions.computeIfAbsent(userId, key -> 0L);
+    }
+
+    @Override
+    public void put(String userId, List<Notification> notifications, long totalCount, long version) {
+        if (!enabled) {
+            return;
+        }
+        List<Notification> window = notifications.size() > windowSize
+                ? notifications.subList(0, windowSize)
+                : notifications;
+        CachedPage page = new CachedPage(List.copyOf(window), totalCount, true, System.nanoTime());
+
+        synchronized (pages) {
+            // A concurrent insert or invalidation makes this load stale
+            Long current = versions.get(userId);
+            if (current == null || current != version) {
+                log.debug("Discarding stale recent notifications load for user: {}", userId);
+                versions.remove(userId);
+                return;
+            }
+            CachedPage previous = pages.put(userId, page);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(userId, page);
+        }
+    }
+
+    @Override
+    public void updateCount(String userId, long totalCount, long version) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pages) {
+            CachedPage page = pages.get(userId);
+            Long current = versions.get(userId);
+            if (page == null || current == null || current != version) {
+                return;
+            }
+            pages.put(userId, new CachedPage(page.notifications, totalCount, true, page.loadedAtNanos));
+        }
+    }
+
+    @Override
+    public void onInserted(Notification notification) {
+        if (!enabled) {
+            return;
+        }
+        String userId = notification.getUserId();
+        synchronized (pages) {
+            CachedPage page = pages.get(userId);
+            if (page == null) {
+                // Abort a load in flight, it may not include this notification
+                versions.remove(userId);
+                return;
+            }
+            versions.merge(userId, 1L, Long::sum);
+            // Not part of the unfiltered list; tombstones are checked when the page is served
+            if (notification.isDisabled() || notification.isExpired(Instant.now())
+                    || page.contains(notification.getId())) {
+                return;
+            }
+            List<Notification> updated = new ArrayList<>(page.notifications.size() + 1);
+            updated.add(notification);
+            updated.addAll(page.notifications);
+            if (updated.size() > windowSize) {
+                Notification evicted = updated.remove(updated.size() - 1);
+                userIdByNotificationId.remove(evicted.getId(), userId);
+            }
+            // The insert may have replaced or hidden others: recount on the next read
+            pages.put(userId, new CachedPage(Collections.unmodifiableList(updated), page.totalCount, false,
+                    page.loadedAtNanos));
+            userIdByNotificationId.put(notification.getId(), userId);
+        }
+    }
+
+    @Override
+    public void invalidateUser(String userId) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (pages) {
+            versions.remove(userId);
+            CachedPage removed = pages.remove(userId);
+            if (removed != null) {
+                unindex(removed);
+            }
+        }
+    }
+
+    /**
+     * Returns the user's page if present and not expired.
+     */
+    private CachedPage livePage(String userId) {
+        synchronized (pages) {
+            CachedPage page = pages.get(userId);
+            if (page == null) {
+                return null;
+            }
+            if (System.nanoTime() - page.loadedAtNanos > Duration.ofSeconds(ttlSeconds).toNanos()) {
+                pages.remove(userId);
+                unindex(page);
+                versions.remove(userId);
+                return null;
+            }
+            return page;
+        }
+    }
+
+    private void index(String userId, CachedPage page) {
+        page.notifications.forEach(notification -> userIdByNotificationId.put(notification.getId(), userId));
+    }
+
+    private void unindex(CachedPage page) {
+        page.notifications.forEach(notification -> userIdByNotificationId.remove(notification.getId()));
+    }
+
+    private static final class CachedPage {
+        private final List<Notification> notifications;
+        private final long totalCount;
+        private final boolean countExact;
+        private final long loadedAtNanos;
+
+        private CachedPage(List<Notification> notifications, long totalCount, boolean countExact,
+                long loadedAtNanos) {
+            this.notifications = notifications;
+            this.totalCount = totalCount;
+            this.countExact = countExact;
+            this.loadedAtNanos = loadedAtNanos;
+        }
+
+        private boolean contains(String notificationId) {
+            return notifications.stream().anyMatch(notification -> notification.getId().equals(notificationId));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.learn.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.learn.model.Notification;
+import com.learn.model.StoredRenderedContent;
+import com.learn.service.RenderedContentStore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Rendered content store backed by the rendered_contents collection and an LRU
+ * cache of decoded bodies.
+ *
+ * <p>
+ * The cache doubles as the "seen before" set of the write path: the first
+ * occurrence of a content hash on a node is only remembered, the second one
+ * writes the shared document (insert-if-absent, so concurrent nodes agree) and
+ * from then on notifications only carry the hash. Resolved notifications share
+ * the cached map instance, so a campaign occupies one copy in memory too.
+ *
+ * <p>
+ * Metrics: {@code notification.content.cache.requests} (result=hit|miss),
+ * {@code notification.content.externalized} and the
+ * {@code notification.content.cache.entries} gauge.
+ */
+@Service
+public class RenderedContentStoreImpl implements RenderedContentStore {
+
+    private static final Logger log = LoggerFactory.getLogger(RenderedContentStoreImpl.class);
+
+    @Value("${app.content-store.enabled}")
+    private boolean enabled;
+
+    @Value("${app.content-store.cache-max-entries}")
+    private int cacheMaxEntries;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    private final Map<String, CachedContent> entries = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedContent> eldest) {
+            return size() > cacheMaxEntries;
+        }
+    };
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter externalized;
+
+    public RenderedContentStoreImpl(ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.hits = meterRegistry.counter("notification.content.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("notification.content.cache.requests", "result", "miss");
+        this.externalized = meterRegistry.counter("notification.content.externalized");
+        meterRegistry.gauge("notification.content.cache.entries", entries, map -> {
+            synchronized (map) {
+                return map.size();
+            }
+        });
+    }
+
+    @Override
+    public Mono<Notification> externalize(Notification notification) {
+        if (!enabled || notification.getContentRef() != null || notification.getRenderedContent() == null
+                || notification.getRenderedContent().isEmpty()) {
+            return Mono.just(notification);
+        }
+
+        String hash = contentHash(notification);
+        CachedContent cached;
+        synchronized (entries) {
+            cached = entries.get(hash);
+            if (cached == null) {
+                entries.put(hash, new CachedContent(new StoredRenderedContent(hash,
+                        notification.getRenderedContent(), notification.getSubject(), notification.getContent(),
+                        Instant.now()), false));
+            }
+        }
+        if (cached == null) {
+            // First sighting on this node: likely personalized, keep it inline
+            return Mono.just(notification);
+        }
+
+        Mono<Void> persist = cached.persisted() ? Mono.empty() : persist(cached.content());
+        return persist
+                .thenReturn(true)
+                .onErrorResume(error -> {
+                    log.warn("Failed to store shared content {}, keeping it inline: {}", hash, error.getMessage());
+                    return Mono.just(false);
+                })
+                .map(stored -> {
+                    if (stored) {
+                        notification.setContentRef(hash);
+                        notification.setRenderedContent(null);
+                        notification.setSubject(null);
+                        notification.setContent(null);
+                        externalized.increment();
+                    }
+                    return notification;
+                });
+    }
+
+    @Override
+    public Mono<Notification> resolve(Notification notification) {
+        if (!needsResolving(notification)) {
+            return Mono.just(notification);
+        }
+
+        CachedContent cached = cached(notification.getContentRef());
+        if (cached != null) {
+            hits.increment();
+            return Mono.just(apply(notification, cached.content()));
+        }
+
+        misses.increment();
+        return mongoTemplate.findById(notification.getContentRef(), StoredRenderedContent.class)
+                .doOnNext(this::remember)
+                .map(content -> apply(notification, content))
+                .switchIfEmpty(Mono.fromCallable(() -> {
+                    log.warn("Shared content {} of notification {} not found", notification.getContentRef(),
+                            notification.getId());
+                    return notification;
+                }));
+    }
+
+    @Override
+    public Mono<List<Notification>> resolveAll(List<Notification> notifications) {
+        Set<String> missing = notifications.stream()
+                .filter(this::needsResolving)
+                .map(Notification::getContentRef)
+                .filter(ref -> cached(ref) == null)
+                .collect(Collectors.toSet());
+
+        Mono<Void> load = missing.isEmpty()
+                ? Mono.empty()
+                : mongoTemplate.find(Query.query(Criteria.where("_id").in(missing)), StoredRenderedContent.class)
+                        .doOnNext(this::remember)
+                        .then();
+
+        return load.then(Mono.fromCallable(() -> {
+            for (Notification notification : notifications) {
+                if (!needsResolving(notification)) {
+                    continue;
+                }
+                CachedContent cached = cached(notification.getContentRef());
+                if (cached != null) {
+                    (missing.contains(notification.getContentRef()) ? misses : hits).increment();
+                    apply(notification, cached.content());
+                }
+            }
+            return notifications;
+        }));
+    }
+
+    private Mono<Void> persist(StoredRenderedContent content) {
+        Update update = new Update()
+                .setOnInsert("renderedContent", content.getRenderedContent())
+                .setOnInsert("subject", content.getSubject())
+                .setOnInsert("content", content.getContent())
+                .setOnInsert("createdAt", content.getCreatedAt());
+
+        return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(content.getContentHash())), update,
+                StoredRenderedContent.class)
+                // Lost an upsert race with another node: the document exists either way
+                .onErrorResume(DuplicateKeyException.class, error -> Mono.empty())
+                .doOnSuccess(result -> remember(content))
+                .then();
+    }
+
+    private boolean needsResolving(Notification notification) {
+        return notification.getContentRef() != null && notification.getRenderedContent() == null;
+    }
+
+    private CachedContent cached(String hash) {
+        synchronized (entries) {
+            return entries.get(hash);
+        }
+    }
+
+    private void remember(StoredRenderedContent content) {
+        synchronized (entries) {
+            entries.put(content.getContentHash(), new CachedContent(content, true));
+        }
+    }
+
+    private Notification apply(Notification notification, StoredRenderedContent content) {
+        notification.setRenderedContent(content.getRenderedContent());
+        notification.setSubject(content.getSubject());
+        notification.setContent(content.getContent());
+        return notification;
+    }
+
+    /**
+     * SHA-256 over the languages in sorted order and the default-language copy
+     */
+    private static String contentHash(Notification notification) {
+        StringBuilder canonical = new StringBuilder();
+        new TreeMap<>(notification.getRenderedContent()).forEach((language, rendered) -> canonical
+                .append(language).append('\u0000')
+                .append(Objects.toString(rendered.getSubject(), "")).append('\u0000')
+                .append(Objects.toString(rendered.getContent(), "")).append('\u0000'));
+        canonical.append(Objects.toString(notification.getSubject(), "")).append('\u0000')
+                .append(Objects.toString(notification.getContent(), ""));
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Decoded content; {@code persisted} is false while the hash has only been
+     * seen once on this node and no shared document was written yet
+     */
+    private record CachedContent(StoredRenderedContent content, boolean persisted) {
+    }
+}
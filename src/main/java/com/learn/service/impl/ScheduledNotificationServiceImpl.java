@@ -0,0 +1,226 @@
+package com.learn.service.impl;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.learn.dto.NotificationRequestDTO;
+import com.learn.model.ScheduledNotification;
+import com.learn.repository.ScheduledNotificationRepository;
+import com.learn.scheduler.HierarchicalTimingWheel;
+import com.learn.service.NotificationService;
+import com.learn.service.ScheduledNotificationService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of scheduled notifications on a hierarchical timing wheel.
+ *
+ * <p>
+ * Durability comes from the scheduled_notifications collection: a request is
+ * stored before its Kafka offset is committed, and the pending requests of a
+ * partition are loaded once when the partition is assigned (startup or
+ * rebalance). Mongo is never polled for due work; the wheel fires each request
+ * at {@code sendAt} with {@code tick-ms} precision.
+ *
+ * <p>
+ * Release is idempotent and recorded on the pending entry itself, not by
+ * probing the notifications collection (a collapsed notification is stored
+ * under another ID, an archived one is gone from it): a release first claims
+ * the entry with a lease, then marks it released once the notification is
+ * stored and removes it. An entry already marked released is only removed; a
+ * claim left by a crashed node is taken over once its lease expires.
+ */
+@Service
+public class ScheduledNotificationServiceImpl implements ScheduledNotificationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ScheduledNotificationServiceImpl.class);
+
+    private final ScheduledNotificationRepository scheduledNotificationRepository;
+    private final NotificationService notificationService;
+    private final MeterRegistry meterRegistry;
+
+    // Armed timers per notification ID, with the partition they belong to
+    private final Map<String, ArmedTimer> armed = new ConcurrentHashMap<>();
+
+    private HierarchicalTimingWheel timingWheel;
+    private Counter releasedCounter;
+    private Timer releaseLagTimer;
+
+    @Value("${app.scheduling.tick-ms}")
+    private long tickMs;
+
+    @Value("${app.scheduling.wheel-size}")
+    private int wheelSize;
+
+    @Value("${app.scheduling.min-delay-ms}")
+    private long minDelayMs;
+
+    @Value("${app.scheduling.retry-delay-ms}")
+    private long retryDelayMs;
+
+    @Value("${app.scheduling.release-lease-ms}")
+    private long releaseLeaseMs;
+
+    public ScheduledNotificationServiceImpl(
+            ScheduledNotificationRepository scheduledNotificationRepository,
+            NotificationService notificationService,
+            MeterRegistry meterRegistry) {
+        this.scheduledNotificationRepository = scheduledNotificationRepository;
+        this.notificationService = notificationService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        timingWheel = new HierarchicalTimingWheel("scheduled-notifications-wheel", tickMs, wheelSize,
+                Executors.newSingleThreadExecutor(Thread.ofPlatform().name("scheduled-notifications-release")
+                        .daemon().factory()));
+        meterRegistry.gauge("notification.scheduled.pending", timingWheel, HierarchicalTimingWheel::size);
+        releasedCounter = meterRegistry.counter("notification.scheduled.released");
+        releaseLagTimer = Timer.builder("notification.scheduled.release.lag")
+                .description("Delay between sendAt and the actual release")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timingWheel.close();
+    }
+
+    @Override
+    public boolean isScheduledForLater(NotificationRequestDTO request) {
+        return request.getSendAt() != null
+                && request.getSendAt().isAfter(Instant.now().plusMillis(minDelayMs));
+    }
+
+    @Override
+    public Mono<Void> schedule(NotificationRequestDTO request, String notificationId, String topic, int partition) {
+        ScheduledNotification scheduled = new ScheduledNotification(notificationId, topic, partition,
+                request.getSendAt(), request, Instant.now());
+
+        return scheduledNotificationRepository.save(scheduled)
+                .doOnNext(this::arm)
+                .doOnNext(saved -> log.debug("⏰ Scheduled notification {} for user {} at {}",
+                        notificationId, request.getUserId(), request.getSendAt()))
+                .then();
+    }
+
+    @Override
+    public void onPartitionsAssigned(String topic, Collection<Integer> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        scheduledNotificationRepository.findByTopicAndPartitionIn(topic, partitions)
+                .doOnNext(this::arm)
+                .count()
+                .subscribe(
+                        loaded -> log.info("Loaded {} scheduled notifications for {} partitions {}",
+                                loaded, topic, partitions),
+                        error -> log.warn("Failed to load scheduled notifications for {} partitions {}: {}",
+                                topic, partitions, error.getMessage(), error));
+    }
+
+    @Override
+    public void onPartitionsRevoked(String topic, Collection<Integer> partitions) {
+        armed.values().removeIf(timer -> {
+            if (timer.topic().equals(topic) && partitions.contains(timer.partition())) {
+                timer.timeout().cancel();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void arm(ScheduledNotification scheduled) {
+        armed.computeIfAbsent(scheduled.getId(), id -> new ArmedTimer(scheduled.getTopic(),
+                scheduled.getPartition(),
+                timingWheel.schedule(scheduled.getSendAt().toEpochMilli(), () -> release(scheduled))));
+    }
+
+    private void release(ScheduledNotification scheduled) {
+        String notificationId = scheduled.getId();
+
+        releaseOnce(scheduled)
+                .subscribe(
+                        released -> {
+                            if (released) {
+                                armed.remove(notificationId);
+                                releasedCounter.increment();
+                                releaseLagTimer.record(Math.max(0L,
+                                        System.currentTimeMillis() - scheduled.getSendAt().toEpochMilli()),
+                                        TimeUnit.MILLISECONDS);
+                                log.debug("⏰ Released scheduled notification {} for user {}",
+                                        notificationId, scheduled.getRequest().getUserId());
+                            } else {
+                                log.debug("Release of scheduled notification {} is in progress elsewhere, "
+                                        + "checking again in {}ms", notificationId, retryDelayMs);
+                                rearm(scheduled);
+                            }
+                        },
+                        error -> {
+                            log.error("Failed to release scheduled notification {}, retrying in {}ms: {}",
+                                    notificationId, retryDelayMs, error.getMessage(), error);
+                            rearm(scheduled);
+                        });
+    }
+
+    /**
+     * Claims the release on the pending entry, stores the notification, records
+     * the release and removes the entry. An entry already released (only its
+     * removal failed) is just removed.
+     *
+     * @return Mono with false if another release holds a live claim
+     */
+    private Mono<Boolean> releaseOnce(ScheduledNotification scheduled) {
+        String notificationId = scheduled.getId();
+        Instant claimedAt = Instant.now();
+
+        return scheduledNotificationRepository
+                .claimRelease(notificationId, claimedAt, claimedAt.minusMillis(releaseLeaseMs))
+                .flatMap(claimed -> {
+                    if (claimed > 0) {
+                        return notificationService
+                                .processAndSaveNotification(scheduled.getRequest(), notificationId)
+                                // Give the claim back so the retry does not wait for the lease
+                                .onErrorResume(error -> scheduledNotificationRepository
+                                        .unclaimRelease(notificationId, claimedAt)
+                                        .then(Mono.<String>error(error)))
+                                .then(scheduledNotificationRepository.markReleased(notificationId, Instant.now()))
+                                .then(scheduledNotificationRepository.deleteById(notificationId))
+                                .thenReturn(true);
+                    }
+                    return scheduledNotificationRepository.findById(notificationId)
+                            .flatMap(pending -> pending.getReleasedAt() != null
+                                    ? scheduledNotificationRepository.deleteById(notificationId).thenReturn(true)
+                                    : Mono.just(false))
+                            // Removed by an earlier release
+                            .defaultIfEmpty(true);
+                });
+    }
+
+    /**
+     * Re-arms only while the partition is still owned by this node
+     */
+    private void rearm(ScheduledNotification scheduled) {
+        armed.computeIfPresent(scheduled.getId(), (id, timer) -> new ArmedTimer(timer.topic(),
+                timer.partition(), timingWheel.schedule(
+                        System.currentTimeMillis() + retryDelayMs, () -> release(scheduled))));
+    }
+
+    private record ArmedTimer(String topic, int partition, HierarchicalTimingWheel.Timeout timeout) {
+    }
+}
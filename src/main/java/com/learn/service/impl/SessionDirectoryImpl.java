@@ -0,0 +1,180 @@
+package com.learn.service.impl;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import com.learn.dto.SessionCloseCommandDTO;
+import com.learn.model.SseSessionEntry;
+import com.learn.service.SessionDirectory;
+import com.mongodb.client.result.UpdateResult;
+
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Session directory on the sse_sessions collection, with close commands routed
+ * through the session commands topic.
+ *
+ * <p>
+ * Entries are kept alive by the owning node's heartbeat and expire a few
+ * intervals after it stops, so a crashed node's users show as offline without
+ * any cleanup. Every node reads the commands topic in its own consumer group
+ * and only acts on commands addressed to it.
+ *
+ * <p>
+ * The node ID is unique per process (a restarted node gets a new one), so a
+ * command for a connection that died with its process is ignored by the
+ * successor.
+ */
+@Service
+public class SessionDirectoryImpl implements SessionDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionDirectoryImpl.class);
+    private static final int HEARTBEAT_BATCH_SIZE = 1000;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final KafkaTemplate<String, SessionCloseCommandDTO> kafkaTemplate;
+
+    private String nodeId;
+
+    @Value("${app.session-directory.enabled}")
+    private boolean enabled;
+
+    @Value("${app.session-directory.node-id}")
+    private String configuredNodeId;
+
+    @Value("${app.session-directory.ttl-seconds}")
+    private long ttlSeconds;
+
+    @Value("${app.kafka.topics.session-commands}")
+    private String sessionCommandsTopic;
+
+    public SessionDirectoryImpl(ReactiveMongoTemplate mongoTemplate,
+            KafkaTemplate<String, SessionCloseCommandDTO> kafkaTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    @PostConstruct
+    void init() {
+        String base = configuredNodeId == null || configuredNodeId.isBlank() ? hostName() : configuredNodeId;
+        nodeId = base + "-" + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+        log.info("Session directory node ID: {} (enabled: {})", nodeId, enabled);
+    }
+
+    @Override
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Override
+    public Mono<Void> register(String userId, String sessionId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("nodeId", nodeId)
+                .set("sessionId", sessionId)
+                .set("connectedAt", now)
+                .set("expiresAt", now.plusSeconds(ttlSeconds));
+
+        // Previous entry: a live one on another node is the connection to close
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(userId)), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(false), SseSessionEntry.class)
+                // Two concurrent first registrations race on the insert; the retry updates
+                .retryWhen(Retry.max(1).filter(DuplicateKeyException.class::isInstance))
+                .filter(previous -> !previous.isExpired(now) && !nodeId.equals(previous.getNodeId()))
+                .flatMap(previous -> sendClose(previous.getNodeId(), userId, previous.getSessionId()));
+    }
+
+    @Override
+    public Mono<Void> unregister(String userId, String sessionId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        Query query = Query.query(Criteria.where("_id").is(userId)
+                .and("nodeId").is(nodeId)
+                .and("sessionId").is(sessionId));
+        return mongoTemplate.remove(query, SseSessionEntry.class).then();
+    }
+
+    @Override
+    public Mono<Long> heartbeat(Collection<String> userIds) {
+        if (!enabled || userIds.isEmpty()) {
+            return Mono.just(0L);
+        }
+        Update update = new Update().set("expiresAt", Instant.now().plusSeconds(ttlSeconds));
+        return Flux.fromIterable(userIds)
+                .buffer(HEARTBEAT_BATCH_SIZE)
+                .concatMap(batch -> mongoTemplate.updateMulti(
+                        Query.query(Criteria.where("_id").in(batch).and("nodeId").is(nodeId)),
+                        update, SseSessionEntry.class))
+                .map(UpdateResult::getModifiedCount)
+                .reduce(0L, Long::sum);
+    }
+
+    @Override
+    public Mono<SseSessionEntry> locate(String userId) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        // The TTL monitor runs about once a minute: expired entries may still be there
+        return mongoTemplate.findById(userId, SseSessionEntry.class)
+                .filter(entry -> !entry.isExpired(Instant.now()));
+    }
+
+    @Override
+    public Mono<Boolean> isOnline(String userId) {
+        if (!enabled) {
+            return Mono.just(true);
+        }
+        return locate(userId)
+                .hasElement()
+                .onErrorResume(error -> {
+                    log.debug("Session directory lookup failed for user {}, assuming online: {}", userId,
+                            error.getMessage());
+                    return Mono.just(true);
+                });
+    }
+
+    @Override
+    public Mono<Void> requestRemoteClose(String userId) {
+        return locate(userId)
+                .filter(entry -> !nodeId.equals(entry.getNodeId()))
+                .flatMap(entry -> sendClose(entry.getNodeId(), userId, entry.getSessionId()));
+    }
+
+    private Mono<Void> sendClose(String targetNodeId, String userId, String sessionId) {
+        log.debug("Routing close of SSE connection for user {} to node {}", userId, targetNodeId);
+        return Mono.fromFuture(() -> kafkaTemplate.send(sessionCommandsTopic, targetNodeId,
+                new SessionCloseCommandDTO(targetNodeId, userId, sessionId)))
+                .then();
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.learn.service.impl;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.learn.service.SourceFairScheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Mono;
+
+/**
+ * Deficit round robin over per-source queues with a global in-flight limit.
+ *
+ * <p>
+ * Each active source receives {@code weight} credits per round and spends one
+ * credit per dispatched request, so with all sources backlogged the
+ * processing slots are shared in proportion to the weights. Idle sources keep
+ * no credit. The dispatch loop is serialized with a work-in-progress counter;
+ * submitting threads and completing tasks only signal it.
+ *
+ * <p>
+ * The number of tracked sources is bounded; sources beyond the limit share
+ * the "other" queue. Metrics per source: {@code notification.source.processed},
+ * {@code notification.source.rejected} and the {@code notification.source.backlog}
+ * gauge.
+ */
+@Service
+public class SourceFairSchedulerImpl implements SourceFairScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SourceFairSchedulerImpl.class);
+    private static final String UNKNOWN_SOURCE = "unknown";
+    private static final String OTHER_SOURCE = "other";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, SourceQueue> queues = new ConcurrentHashMap<>();
+    private final Queue<SourceQueue> activeQueues = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Map<String, Integer> weights = new HashMap<>();
+
+    @Value("${app.fair-queue.enabled}")
+    private boolean enabled;
+
+    @Value("${app.fair-queue.max-in-flight}")
+    private int maxInFlight;
+
+    @Value("${app.fair-queue.max-queued-per-source}")
+    private int maxQueuedPerSource;
+
+    @Value("${app.fair-queue.max-sources}")
+    private int maxSources;
+
+    @Value("${app.fair-queue.default-weight}")
+    private int defaultWeight;
+
+    @Value("${app.fair-queue.weights}")
+    private String weightsConfig;
+
+    public SourceFairSchedulerImpl(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        // Format: "source-a:4,source-b:1"
+        if (StringUtils.hasText(weightsConfig)) {
+            for (String entry : weightsConfig.split(",")) {
+                String[] parts = entry.trim().split(":");
+                if (parts.length == 2) {
+                    weights.put(parts[0].trim(), Math.max(1, Integer.parseInt(parts[1].trim())));
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean offer(String sourceSystem, Supplier<Mono<?>> work) {
+        if (!enabled) {
+            run(null, work);
+            return true;
+        }
+        SourceQueue queue = queueFor(sourceSystem);
+        if (!queue.quota.tryAcquire()) {
+            queue.rejected.increment();
+            return false;
+        }
+        enqueue(queue, work);
+        return true;
+    }
+
+    @Override
+    public boolean offer(String sourceSystem, Supplier<Mono<?>> work, Duration timeout) throws InterruptedException {
+        if (!enabled) {
+            run(null, work);
+            return true;
+        }
+        SourceQueue queue = queueFor(sourceSystem);
+        if (!queue.quota.tryAcquire(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            queue.rejected.increment();
+            return false;
+        }
+        enqueue(queue, work);
+        return true;
+    }
+
+    private void enqueue(SourceQueue queue, Supplier<Mono<?>> work) {
+        queue.tasks.offer(work);
+        if (queue.active.compareAndSet(false, true)) {
+            activeQueues.offer(queue);
+        }
+        drain();
+    }
+
+    /**
+     * Dispatch loop; only one thread runs it at a time
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (inFlight.get() < maxInFlight) {
+                SourceQueue queue = activeQueues.peek();
+                if (queue == null) {
+                    break;
+                }
+
+                Supplier<Mono<?>> work = queue.tasks.poll();
+                if (work == null) {
+                    // Source went idle: leave the round and forfeit its credit
+                    activeQueues.poll();
+                    queue.deficit = 0;
+                    queue.active.set(false);
+                    if (!queue.tasks.isEmpty() && queue.active.compareAndSet(false, true)) {
+                        activeQueues.offer(queue);
+                    }
+                    continue;
+                }
+
+                if (queue.deficit <= 0) {
+                    queue.deficit += queue.weight;
+                }
+                queue.deficit--;
+                queue.quota.release();
+                if (queue.deficit <= 0) {
+                    // Credit spent: move to the back of the round
+                    activeQueues.poll();
+                    activeQueues.offer(queue);
+                }
+
+                inFlight.incrementAndGet();
+                run(queue, work);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void run(SourceQueue queue, Supplier<Mono<?>> work) {
+        Mono<?> processing;
+        try {
+            processing = work.get();
+        } catch (RuntimeException e) {
+            processing = Mono.error(e);
+        }
+        processing.doFinally(signal -> {
+            if (queue != null) {
+                queue.processed.increment();
+                inFlight.decrementAndGet();
+                drain();
+            }
+        }).subscribe(null, error -> log.debug("Fair-queued processing failed: {}", error.getMessage()));
+    }
+
+    private SourceQueue queueFor(String sourceSystem) {
+        String source = StringUtils.hasText(sourceSystem) ? sourceSystem : UNKNOWN_SOURCE;
+        SourceQueue queue = queues.get(source);
+        if (queue != null) {
+            return queue;
+        }
+        if (queues.size() >= maxSources) {
+            source = OTHER_SOURCE;
+        }
+        return queues.computeIfAbsent(source, this::createQueue);
+    }
+
+    private SourceQueue createQueue(String source) {
+        SourceQueue queue = new SourceQueue(weights.getOrDefault(source, defaultWeight), maxQueuedPerSource,
+                meterRegistry.counter("notification.source.processed", "source", source),
+                meterRegistry.counter("notification.source.rejected", "source", source));
+        Gauge.builder("notification.source.backlog", queue.tasks, Queue::size)
+                .tag("source", source)
+                .register(meterRegistry);
+        return queue;
+    }
+
+    private static final class SourceQueue {
+
+        private final Queue<Supplier<Mono<?>>> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean active = new AtomicBoolean();
+        private final int weight;
+        private final Semaphore quota;
+        private final Counter processed;
+        private final Counter rejected;
+        private int deficit; // Only touched by the dispatch loop
+
+        SourceQueue(int weight, int maxQueued, Counter processed, Counter rejected) {
+            this.weight = weight;
+            this.quota = new Semaphore(maxQueued);
+            this.processed = processed;
+            this.rejected = rejected;
+        }
+    }
+}
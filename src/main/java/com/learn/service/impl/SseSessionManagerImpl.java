@@ -1,53 +1,150 @@
 package com.learn.service.impl;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 
+import com.learn.service.SessionDirectory;
 import com.learn.service.SseSessionManager;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
 
 /**
  * Implementation of SSE session management.
  * Maintains a thread-safe map of active connections and enforces
  * single-session-per-user policy.
+ * <p>
+ * Each connection is also registered in the cluster session directory, which
+ * closes a connection the user still had on another node and routes
+ * unsubscribes to the node holding the connection.
  */
 @Service
 public class SseSessionManagerImpl implements SseSessionManager {
 
     private static final Logger log = LoggerFactory.getLogger(SseSessionManagerImpl.class);
-    private final ConcurrentHashMap<String, Sinks.One<Void>> activeConnections = new ConcurrentHashMap<>();
+    private static final int MAX_PENDING_SESSION_EVENTS = 256;
+
+    private final ConcurrentHashMap<String, SseSession> activeConnections = new ConcurrentHashMap<>();
+    private final SessionDirectory sessionDirectory;
+
+    public SseSessionManagerImpl(SessionDirectory sessionDirectory) {
+        this.sessionDirectory = sessionDirectory;
+    }
 
     @Override
     @SuppressWarnings("unused")
     public Mono<Void> createConnection(String userId) {
-        Sinks.One<Void> oldSink = activeConnections.get(userId);
-        if (oldSink != null) {
+        String sessionId = UUID.randomUUID().toString();
+        Mono<Void> registration = sessionDirectory.register(userId, sessionId)
+                .onErrorResume(error -> {
+                    log.warn("Failed to register SSE connection of user {} in the session directory: {}", userId,
+                            error.getMessage());
+                    return Mono.empty();
+                })
+                .cache();
+
+        SseSession newSession = new SseSession(sessionId, registration);
+        SseSession oldSession = activeConnections.put(userId, newSession);
+        if (oldSession != null) {
             log.debug("🔄 Closing old SSE connection for user: {} (new connection requested)", userId);
-            oldSink.tryEmitEmpty();
+            oldSession.closeSignal.tryEmitEmpty();
         }
-
-        Sinks.One<Void> newSink = Sinks.one();
-        activeConnections.put(userId, newSink);
+        registration.subscribe();
         log.debug("Created new SSE connection for user: {}", userId);
 
-        return newSink.asMono()
+        return newSession.closeSignal.asMono()
                 .doFinally(signal -> {
-                    activeConnections.remove(userId, newSink);
+                    activeConnections.remove(userId, newSession);
+                    newSession.events.tryEmitComplete();
+                    sessionDirectory.unregister(userId, sessionId)
+                            .subscribe(null, error -> log.debug(
+                                    "Failed to unregister SSE connection of user {}: {}", userId, error.getMessage()));
                     log.debug("Removed SSE connection for user: {}", userId);
                 });
     }
 
     @Override
-    public void closeConnection(String userId) {
-        Sinks.One<Void> sink = activeConnections.remove(userId);
-        if (sink != null) {
-            log.debug("Manually closing SSE connection for user: {}", userId);
-            sink.tryEmitEmpty();
+    public Mono<Void> registered(String userId) {
+        SseSession session = activeConnections.get(userId);
+        return session != null ? session.registration : Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> closeConnection(String userId) {
+        return Mono.fromRunnable(() -> closeLocalConnection(userId, null))
+                .then(sessionDirectory.requestRemoteClose(userId));
+    }
+
+    @Override
+    public boolean closeLocalConnection(String userId, String sessionId) {
+        SseSession session = activeConnections.get(userId);
+        if (session == null || (sessionId != null && !sessionId.equals(session.id))
+                || !activeConnections.remove(userId, session)) {
+            return false;
+        }
+        log.debug("Manually closing SSE connection for user: {}", userId);
+        session.closeSignal.tryEmitEmpty();
+        return true;
+    }
+
+    @Override
+    public boolean isConnected(String userId) {
+        return activeConnections.containsKey(userId);
+    }
+
+    @Override
+    public Collection<String> connectedUsers() {
+        return List.copyOf(activeConnections.keySet());
+    }
+
+    @Override
+    public Flux<ServerSentEvent<Object>> sessionEvents(String userId) {
+        SseSession session = activeConnections.get(userId);
+        return session != null ? session.events.asFlux() : Flux.empty();
+    }
+
+    @Override
+    public boolean pushEvent(String userId, ServerSentEvent<Object> event) {
+        SseSession session = activeConnections.get(userId);
+        if (session == null) {
+            return false;
+        }
+        Sinks.EmitResult result = session.events.tryEmitNext(event);
+        while (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            // Another thread is emitting into the same session - retry
+            Thread.onSpinWait();
+            result = session.events.tryEmitNext(event);
+        }
+        if (result.isFailure()) {
+            log.debug("Dropped SSE event {} for user {}: {}", event.event(), userId, result);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Per-connection state: the connection ID, its directory registration, the
+     * close signal and a bounded queue of out-of-band events.
+     */
+    private static final class SseSession {
+        private final String id;
+        private final Mono<Void> registration;
+        private final Sinks.One<Void> closeSignal = Sinks.one();
+        private final Sinks.Many<ServerSentEvent<Object>> events = Sinks.many().unicast()
+                .onBackpressureBuffer(Queues.<ServerSentEvent<Object>>get(MAX_PENDING_SESSION_EVENTS).get());
+
+        private SseSession(String id, Mono<Void> registration) {
+            this.id = id;
+            this.registration = registration;
         }
     }
 }
@@ -0,0 +1,189 @@
+package com.learn.service.impl;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.learn.model.Notification;
+import com.learn.model.NotificationEvent;
+import com.learn.service.NotificationDeliveryBus;
+import com.learn.service.UserAffinityService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Delivery bus on a capped notification_events collection, for deployments
+ * without change streams or where their per-event cost matters.
+ *
+ * <p>
+ * Each node runs a single tailable await cursor over the collection and hands
+ * events to its connected users; connections only register locally, so the
+ * database serves one cursor per node instead of one change stream per
+ * connection.
+ *
+ * <p>
+ * The cursor starts at the newest existing event. When it is reopened (error,
+ * or an empty collection ending the cursor) it starts a grace period before
+ * the last seen event to tolerate clock skew between writers; events seen
+ * again in that window are dropped by ID.
+ *
+ * <p>
+ * With affinity redirects on, the cursor only reads the events of the user
+ * slots this node owns (reopened when ownership changes), so each node
+ * processes about 1/N of the events instead of all of them.
+ */
+@Service
+@ConditionalOnProperty(name = "app.delivery-bus.type", havingValue = "tailable")
+public class TailableDeliveryBus implements NotificationDeliveryBus {
+
+    private static final Logger log = LoggerFactory.getLogger(TailableDeliveryBus.class);
+    private static final Duration RESUME_GRACE = Duration.ofSeconds(5);
+    private static final int RECENT_EVENT_IDS = 10_000;
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final UserAffinityService userAffinityService;
+    private final AtomicReference<Instant> lastSeen = new AtomicReference<>();
+
+    private LocalDeliveryFanOut fanOut;
+    private Disposable tail;
+
+    @Value("${app.delivery-bus.stream-buffer-size}")
+    private int streamBufferSize;
+
+    @Value("${app.delivery-bus.tailable.capped-size-bytes}")
+    private long cappedSizeBytes;
+
+    @Value("${app.delivery-bus.tailable.capped-max-documents}")
+    private long cappedMaxDocuments;
+
+    public TailableDeliveryBus(ReactiveMongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+            UserAffinityService userAffinityService) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.userAffinityService = userAffinityService;
+    }
+
+    @PostConstruct
+    void start() {
+        fanOut = new LocalDeliveryFanOut(streamBufferSize);
+        meterRegistry.gauge("notification.delivery_bus.streams", fanOut, LocalDeliveryFanOut::size);
+
+        Set<ObjectId> recentEventIds = Collections.newSetFromMap(new LinkedHashMap<>(1024, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ObjectId, Boolean> eldest) {
+                return size() > RECENT_EVENT_IDS;
+            }
+        });
+
+        tail = ensureCappedCollection()
+                .then(newestEventTime())
+                .doOnNext(lastSeen::set)
+                .thenMany(userAffinityService.filtersDelivery()
+                        ? userAffinityService.ownedSlots().switchMap(this::tailEvents)
+                        : tailEvents(null))
+                .filter(event -> recentEventIds.add(event.getId()))
+                .subscribe(event -> fanOut.dispatch(event.getNotification()),
+                        error -> log.error("Notification event tail stopped: {}", error.getMessage(), error));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (tail != null) {
+            tail.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Void> publish(Notification notification) {
+        String userId = notification.getUserId();
+        return mongoTemplate.insert(new NotificationEvent(userId, userAffinityService.slotOf(userId), notification,
+                Instant.now()))
+                .then();
+    }
+
+    @Override
+    public boolean publishWrites() {
+        return true;
+    }
+
+    @Override
+    public Mono<Flux<Notification>> open(String userId, Collection<String> languages) {
+        return Mono.fromSupplier(() -> fanOut.register(userId));
+    }
+
+    /**
+     * Tail that reopens after errors or when it ends
+     *
+     * @param slots owned slots to read, or null for all events
+     */
+    private Flux<NotificationEvent> tailEvents(Set<Integer> slots) {
+        return Flux.defer(() -> tailFromLastSeen(slots))
+                // An empty capped collection ends a tailable cursor: reopen it
+                .repeatWhen(completed -> completed.delayElements(Duration.ofSeconds(1)))
+                .doOnError(error -> log.warn("Notification event tail failed, reopening: {}", error.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30)));
+    }
+
+    private Flux<NotificationEvent> tailFromLastSeen(Set<Integer> slots) {
+        Instant from = lastSeen.get();
+        Query query = from != null
+                ? Query.query(Criteria.where("createdAt").gt(from.minus(RESUME_GRACE)))
+                : new Query();
+        if (slots != null) {
+            query.addCriteria(Criteria.where("slot").in(slots));
+        }
+        return mongoTemplate.tail(query, NotificationEvent.class)
+                .filter(event -> event.getNotification() != null)
+                .doOnNext(event -> lastSeen.accumulateAndGet(event.getCreatedAt(),
+                        (previous, current) -> previous == null || current.isAfter(previous) ? current : previous));
+    }
+
+    private Mono<Instant> newestEventTime() {
+        Query newest = new Query().with(Sort.by(Sort.Direction.DESC, "_id")).limit(1);
+        return mongoTemplate.findOne(newest, NotificationEvent.class)
+                .map(NotificationEvent::getCreatedAt)
+                // Nothing published yet: start now, never replay
+                .defaultIfEmpty(Instant.now());
+    }
+
+    private Mono<Void> ensureCappedCollection() {
+        return mongoTemplate.collectionExists(NotificationEvent.class)
+                .flatMap(exists -> exists
+                        ? Mono.<Void>empty()
+                        : mongoTemplate.createCollection(NotificationEvent.class, CollectionOptions.empty()
+                                .capped()
+                                .size(cappedSizeBytes)
+                                .maxDocuments(cappedMaxDocuments))
+                                .onErrorResume(error -> {
+                                    // Another node created it first
+                                    log.debug("Could not create notification_events: {}", error.getMessage());
+                                    return Mono.empty();
+                                })
+                                .then());
+    }
+}
@@ -0,0 +1,111 @@
+package com.learn.service.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, memory-bounded token buckets keyed by string.
+ *
+ * <p>
+ * Each bucket is a single {@code long} holding its theoretical arrival time
+ * (GCRA, the virtual-scheduling form of a token bucket): a request is allowed
+ * if pushing the arrival time one emission interval ahead keeps it within
+ * {@code burst} intervals of now. One CAS per decision, no timestamps and
+ * token counts to keep consistent.
+ *
+ * <p>
+ * A bucket whose arrival time is in the past is full, i.e. identical to a
+ * fresh one, so idle buckets can be evicted without changing any decision.
+ * Once {@code maxKeys} buckets exist, new keys share hashed overflow stripes:
+ * colliding keys are limited together (stricter, never looser) and memory
+ * stays bounded.
+ */
+final class TokenBuckets {
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLongArray overflowStripes;
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final int maxKeys;
+
+    TokenBuckets(int burst, double refillPerSecond, int maxKeys, int overflowStripes) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstWindowNanos = emissionIntervalNanos * burst;
+        this.maxKeys = maxKeys;
+        this.overflowStripes = new AtomicLongArray(overflowStripes);
+    }
+
+    /**
+     * Takes one token
+     *
+     * @return 0 if allowed, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(String key) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null && buckets.size() < maxKeys) {
+            bucket = buckets.computeIfAbsent(key, ignored -> new AtomicLong(now));
+        }
+        return bucket != null ? tryAcquire(bucket, now) : tryAcquireStripe(stripe(key), now);
+    }
+
+    /**
+     * Gives back a token taken by {@link #tryAcquire(String)} when a later check
+     * rejected the request
+     */
+    void release(String key) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.addAndGet(-emissionIntervalNanos);
+        } else {
+            overflowStripes.addAndGet(stripe(key), -emissionIntervalNanos);
+        }
+    }
+
+    int evictIdle() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        return before - buckets.size();
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    private long tryAcquire(AtomicLong bucket, long now) {
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + emissionIntervalNanos;
+            long ahead = next - now;
+            if (ahead > burstWindowNanos) {
+                return ahead - burstWindowNanos;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    private long tryAcquireStripe(int stripe, long now) {
+        while (true) {
+            long arrival = overflowStripes.get(stripe);
+            // Untouched stripes hold 0, which nanoTime may be far away from
+            long base = arrival == 0L ? now : Math.max(arrival, now);
+            long next = base + emissionIntervalNanos;
+            long ahead = next - now;
+            if (ahead > burstWindowNanos) {
+                return ahead - burstWindowNanos;
+            }
+            if (overflowStripes.compareAndSet(stripe, arrival, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    private int stripe(String key) {
+        return Math.floorMod(key.hashCode() * 0x9E3779B9, overflowStripes.length());
+    }
+}
@@ -0,0 +1,67 @@
+package com.learn.service.impl;
+
+import java.time.Instant;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.learn.model.UserTombstone;
+import com.learn.repository.UserTombstoneRepository;
+import com.learn.service.TombstoneService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of tombstone management backed by the user_tombstones
+ * collection. Each operation is a single-document write regardless of how many
+ * notifications the user has.
+ */
+@Service
+public class TombstoneServiceImpl implements TombstoneService {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstoneServiceImpl.class);
+
+    private final UserTombstoneRepository tombstoneRepository;
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public TombstoneServiceImpl(UserTombstoneRepository tombstoneRepository, ReactiveMongoTemplate mongoTemplate) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Instant> getHiddenBefore(String userId) {
+        return tombstoneRepository.findById(userId)
+                .mapNotNull(UserTombstone::getHiddenBefore);
+    }
+
+    @Override
+    public Mono<Instant> hideAll(String userId) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("hiddenBefore", now)
+                .set("compactionPending", true)
+                .set("updatedAt", now);
+
+        return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), update, UserTombstone.class)
+                .doOnSuccess(result -> log.debug("🪦 Tombstone watermark for user {} moved to {}", userId, now))
+                .thenReturn(now);
+    }
+
+    @Override
+    public Mono<Void> requestPurge(String userId) {
+        Update update = new Update()
+                .set("compactionPending", true)
+                .set("purgeRequested", true)
+                .set("updatedAt", Instant.now());
+
+        return mongoTemplate.upsert(Query.query(Criteria.where("_id").is(userId)), update, UserTombstone.class)
+                .doOnSuccess(result -> log.debug("Purge of disabled notifications requested for user: {}", userId))
+                .then();
+    }
+}
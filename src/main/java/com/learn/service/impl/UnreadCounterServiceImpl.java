@@ -0,0 +1,148 @@
+package com.learn.service.impl;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+
+import com.learn.dto.NotificationFilterDTO;
+import com.learn.dto.UnreadCountDTO;
+import com.learn.model.UnreadCounter;
+import com.learn.repository.NotificationRepository;
+import com.learn.service.SseSessionManager;
+import com.learn.service.TombstoneService;
+import com.learn.service.UnreadCounterService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of unread counters backed by the unread_counters collection.
+ * All updates are single-document atomic operations; reads are a point lookup
+ * by user ID instead of a count query over the user's notifications.
+ */
+@Service
+public class UnreadCounterServiceImpl implements UnreadCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadCounterServiceImpl.class);
+    public static final String UNREAD_COUNT_EVENT = "unread-count";
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final NotificationRepository notificationRepository;
+    private final TombstoneService tombstoneService;
+    private final SseSessionManager sseSessionManager;
+
+    public UnreadCounterServiceImpl(
+            ReactiveMongoTemplate mongoTemplate,
+            NotificationRepository notificationRepository,
+            TombstoneService tombstoneService,
+            SseSessionManager sseSessionManager) {
+        this.mongoTemplate = mongoTemplate;
+        this.notificationRepository = notificationRepository;
+        this.tombstoneService = tombstoneService;
+        this.sseSessionManager = sseSessionManager;
+    }
+
+    @Override
+    public Mono<Long> getUnreadCount(String userId) {
+        return mongoTemplate.findById(userId, UnreadCounter.class)
+                .map(UnreadCounter::getCount)
+                .switchIfEmpty(Mono.defer(() -> reconcile(userId)));
+    }
+
+    @Override
+    public Mono<Long> increment(String userId) {
+        Update update = new Update()
+                .inc("count", 1)
+                .set("updatedAt", Instant.now());
+
+        return mongoTemplate.findAndModify(byUserId(userId), update,
+                FindAndModifyOptions.options().returnNew(true).upsert(true), UnreadCounter.class)
+                .map(UnreadCounter::getCount)
+                .doOnNext(count -> publish(userId, count));
+    }
+
+    @Override
+    public Mono<Long> decrement(String userId) {
+        Query query = Query.query(Criteria.where("_id").is(userId).and("count").gt(0));
+        Update update = new Update()
+                .inc("count", -1)
+                .set("updatedAt", Instant.now());
+
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), UnreadCounter.class)
+                .map(UnreadCounter::getCount)
+                .defaultIfEmpty(0L)
+                .doOnNext(count -> publish(userId, count));
+    }
+
+    @Override
+    public Mono<Long> reset(String userId) {
+        return setCount(userId, 0L, false);
+    }
+
+    @Override
+    public Mono<Long> reconcile(String userId) {
+        NotificationFilterDTO unreadFilter = new NotificationFilterDTO();
+        unreadFilter.setRead(false);
+
+        return tombstoneService.getHiddenBefore(userId)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(hiddenBefore -> notificationRepository.countNotificationsWithFilters(userId,
+                        unreadFilter, hiddenBefore.orElse(null)))
+                .flatMap(count -> setCount(userId, count, true));
+    }
+
+    /**
+     * Overwrites the counter and pushes an event only if the value actually
+     * changed.
+     */
+    private Mono<Long> setCount(String userId, long count, boolean reconciled) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("count", count)
+                .set("updatedAt", now);
+        if (reconciled) {
+            update.set("reconciledAt", now);
+        }
+
+        return mongoTemplate.findAndModify(byUserId(userId), update,
+                FindAndModifyOptions.options().returnNew(false).upsert(true), UnreadCounter.class)
+                .map(previous -> previous.getCount() != count)
+                .defaultIfEmpty(true)
+                .doOnNext(changed -> {
+                    if (changed) {
+                        if (reconciled) {
+                            log.debug("Reconciled unread counter for user {} to {}", userId, count);
+                        }
+                        publish(userId, count);
+                    }
+                })
+                .thenReturn(count);
+    }
+
+    private Query byUserId(String userId) {
+        return Query.query(Criteria.where("_id").is(userId));
+    }
+
+    /**
+     * Pushes the new count to the user's SSE connection if it is held by this
+     * node.
+     */
+    private void publish(String userId, long count) {
+        ServerSentEvent<Object> event = ServerSentEvent.<Object>builder(new UnreadCountDTO(userId, count))
+                .event(UNREAD_COUNT_EVENT)
+                .build();
+        if (sseSessionManager.pushEvent(userId, event)) {
+            log.debug("Pushed unread count {} to user: {}", count, userId);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.learn.service.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.learn.model.ClusterNode;
+import com.learn.service.SessionDirectory;
+import com.learn.service.UserAffinityService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Affinity ring built from the sse_nodes membership collection.
+ *
+ * <p>
+ * The ring is rebuilt on each membership heartbeat when the set of live nodes
+ * changed, and precomputed into a slot-to-owner table, so lookups are a hash
+ * and an array read. Nodes share the node ID of the session directory.
+ *
+ * <p>
+ * Nodes see membership changes up to one heartbeat apart. A subscription
+ * redirected by a node with a stale view is served by the node it lands on
+ * rather than redirected again.
+ */
+@Service
+public class UserAffinityServiceImpl implements UserAffinityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAffinityServiceImpl.class);
+
+    private final ReactiveMongoTemplate mongoTemplate;
+    private final SessionDirectory sessionDirectory;
+    private final MeterRegistry meterRegistry;
+    private final Sinks.Many<Set<Integer>> ownedSlotsSink = Sinks.many().replay().latest();
+
+    private Mode mode;
+    private volatile Ring ring;
+
+    @Value("${app.affinity.mode}")
+    private String configuredMode;
+
+    @Value("${app.affinity.slots}")
+    private int slots;
+
+    @Value("${app.affinity.virtual-nodes}")
+    private int virtualNodes;
+
+    @Value("${app.affinity.advertised-url}")
+    private String advertisedUrl;
+
+    @Value("${app.affinity.ttl-seconds}")
+    private long ttlSeconds;
+
+    public UserAffinityServiceImpl(ReactiveMongoTemplate mongoTemplate, SessionDirectory sessionDirectory,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.sessionDirectory = sessionDirectory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void init() {
+        mode = Mode.valueOf(configuredMode.trim().toUpperCase(Locale.ROOT));
+        if (mode == Mode.REDIRECT && (advertisedUrl == null || advertisedUrl.isBlank())) {
+            throw new IllegalStateException("app.affinity.advertised-url is required in redirect mode");
+        }
+        // Until the first heartbeat this node owns everything
+        applyRing(buildRing(List.of(new ClusterNode(sessionDirectory.getNodeId(), advertisedUrl, null))));
+        meterRegistry.gauge("notification.affinity.nodes", this, service -> service.ring.urls().size());
+        meterRegistry.gauge("notification.affinity.owned_slots", this, service -> service.ring.ownedSlots().size());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return mode != Mode.NONE;
+    }
+
+    @Override
+    public int slotOf(String userId) {
+        // String.hashCode is specified, so every node computes the same slot; fmix32 spreads it
+        int h = userId.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return Math.floorMod(h, slots);
+    }
+
+    @Override
+    public String ownerOf(String userId) {
+        return ring.slotOwners()[slotOf(userId)];
+    }
+
+    @Override
+    public boolean isLocalOwner(String userId) {
+        return !isEnabled() || sessionDirectory.getNodeId().equals(ownerOf(userId));
+    }
+
+    @Override
+    public Optional<String> redirectTarget(String userId) {
+        if (mode != Mode.REDIRECT || isLocalOwner(userId)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(ring.urls().get(ownerOf(userId)))
+                .filter(url -> !url.isEmpty());
+    }
+
+    @Override
+    public boolean filtersDelivery() {
+        return mode == Mode.REDIRECT;
+    }
+
+    @Override
+    public Flux<Set<Integer>> ownedSlots() {
+        return ownedSlotsSink.asFlux();
+    }
+
+    @Override
+    public Mono<Boolean> refreshMembership() {
+        if (!isEnabled()) {
+            return Mono.just(false);
+        }
+        Instant now = Instant.now();
+        ClusterNode self = new ClusterNode(sessionDirectory.getNodeId(), advertisedUrl, now.plusSeconds(ttlSeconds));
+
+        return mongoTemplate.save(self)
+                .onErrorResume(error -> {
+                    log.warn("Failed to refresh cluster membership of node {}: {}", self.getNodeId(),
+                            error.getMessage());
+                    return Mono.just(self);
+                })
+                .thenMany(mongoTemplate.find(Query.query(Criteria.where("expiresAt").gt(now)), ClusterNode.class))
+                .filter(node -> !node.getNodeId().equals(self.getNodeId()))
+                .collectList()
+                .map(others -> {
+                    List<ClusterNode> members = new ArrayList<>(others);
+                    members.add(self);
+                    Map<String, String> urls = urlsOf(members);
+                    if (urls.equals(ring.urls())) {
+                        return false;
+                    }
+                    applyRing(buildRing(members));
+                    log.info("Rebuilt affinity ring: {} nodes, {} of {} slots owned by {}", urls.size(),
+                            ring.ownedSlots().size(), slots, self.getNodeId());
+                    return true;
+                });
+    }
+
+    private void applyRing(Ring newRing) {
+        ring = newRing;
+        ownedSlotsSink.tryEmitNext(newRing.ownedSlots());
+    }
+
+    private Ring buildRing(List<ClusterNode> members) {
+        TreeMap<Long, String> points = new TreeMap<>();
+        for (ClusterNode member : members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash64(member.getNodeId() + "#" + i), member.getNodeId());
+            }
+        }
+
+        String[] slotOwners = new String[slots];
+        for (int slot = 0; slot < slots; slot++) {
+            Map.Entry<Long, String> point = points.ceilingEntry(hash64("slot#" + slot));
+            slotOwners[slot] = (point != null ? point : points.firstEntry()).getValue();
+        }
+
+        String nodeId = sessionDirectory.getNodeId();
+        Set<Integer> owned = IntStream.range(0, slots)
+                .filter(slot -> nodeId.equals(slotOwners[slot]))
+                .boxed()
+                .collect(Collectors.toUnmodifiableSet());
+        return new Ring(slotOwners, urlsOf(members), owned);
+    }
+
+    private static Map<String, String> urlsOf(List<ClusterNode> members) {
+        // Node IDs with their URL; also the membership fingerprint of a ring
+        return members.stream().collect(Collectors.toUnmodifiableMap(ClusterNode::getNodeId,
+                node -> node.getAdvertisedUrl() != null ? node.getAdvertisedUrl() : ""));
+    }
+
+    private static long hash64(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private enum Mode {
+        NONE, HINT, REDIRECT
+    }
+
+    /**
+     * Immutable ring view: owner of every slot, live members with their URLs,
+     * and the slots of this node
+     */
+    private record Ring(String[] slotOwners, Map<String, String> urls, Set<Integer> ownedSlots) {
+    }
+}
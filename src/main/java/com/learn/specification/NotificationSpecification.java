@@ -1,5 +1,6 @@
 package com.learn.specification;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,6 +18,14 @@ public class NotificationSpecification {
      * Build dynamic criteria based on filter parameters
      */
     public static Criteria buildCriteria(String userId, NotificationFilterDTO filter) {
+        return buildCriteria(userId, filter, null);
+    }
+
+    /**
+     * Build dynamic criteria based on filter parameters, hiding notifications
+     * covered by the user's tombstone watermark (if any)
+     */
+    public static Criteria buildCriteria(String userId, NotificationFilterDTO filter, Instant hiddenBefore) {
         List<Criteria> criteriaList = new ArrayList<>();
 
         // Always filter by userId (required)
@@ -25,6 +34,14 @@ public class NotificationSpecification {
         // Always exclude disabled notifications unless specifically requested
         criteriaList.add(Criteria.where("disabled").is(false));
 
+        // Exclude notifications hidden by a disable-all that is not compacted yet
+        if (hiddenBefore != null) {
+            criteriaList.add(Criteria.where("timestamps.createdAt").gt(hiddenBefore));
+        }
+
+        // Exclude expired notifications the TTL monitor has not removed yet
+        criteriaList.add(notExpired(Instant.now()));
+
         // Apply optional filters
         if (filter != null) {
             // Read/Unread filter
@@ -57,6 +74,30 @@ public class NotificationSpecification {
                 Criteria.where("status.read").is(false));
     }
 
+    /**
+     * Get criteria for unsent notifications only (SSE initial delivery)
+     */
+    public static Criteria unsentNotifications(String userId, Instant hiddenBefore) {
+        List<Criteria> criteriaList = new ArrayList<>();
+        criteriaList.add(Criteria.where("userId").is(userId));
+        criteriaList.add(Criteria.where("disabled").is(false));
+        criteriaList.add(Criteria.where("status.sent").is(false));
+        if (hiddenBefore != null) {
+            criteriaList.add(Criteria.where("timestamps.createdAt").gt(hiddenBefore));
+        }
+        criteriaList.add(notExpired(Instant.now()));
+        return new Criteria().andOperator(criteriaList.toArray(new Criteria[0]));
+    }
+
+    /**
+     * Get criteria for notifications that have not expired yet. Matches documents
+     * without expiresAt, so it is a cheap residual filter on the user's index
+     * range.
+     */
+    public static Criteria notExpired(Instant now) {
+        return Criteria.where("expiresAt").not().lte(now);
+    }
+
     /**
      * Get criteria for read notifications only
      */
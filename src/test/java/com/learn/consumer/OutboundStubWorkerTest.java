@@ -0,0 +1,60 @@
+package com.learn.consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.learn.dto.OutboundNotificationDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboundStubWorkerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboundStubWorker worker = new OutboundStubWorker(meterRegistry);
+
+    @Test
+    void keepsReceivedNotificationsInArrivalOrder() {
+        worker.consume(notification("n1", "EMAIL"));
+        worker.consume(notification("n2", "SMS"));
+        worker.consume(notification("n3", "EMAIL"));
+
+        assertEquals(List.of("n1", "n2", "n3"), ids(worker.received()));
+        assertEquals(2.0, meterRegistry.counter("notification.fallback.stub.received", "channel", "email").count());
+        assertEquals(1.0, meterRegistry.counter("notification.fallback.stub.received", "channel", "sms").count());
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentNotifications() {
+        for (int i = 0; i < 1_005; i++) {
+            worker.consume(notification("n" + i, "PUSH"));
+        }
+
+        List<OutboundNotificationDTO> received = worker.received();
+        assertEquals(1_000, received.size());
+        assertEquals("n5", received.get(0).getNotificationId());
+        assertEquals("n1004", received.get(received.size() - 1).getNotificationId());
+        assertEquals(1_005.0, meterRegistry.counter("notification.fallback.stub.received", "channel", "push").count());
+    }
+
+    @Test
+    void countsNotificationsWithoutChannel() {
+        worker.consume(notification("n1", null));
+
+        assertEquals(1.0, meterRegistry.counter("notification.fallback.stub.received", "channel", "null").count());
+    }
+
+    private static OutboundNotificationDTO notification(String id, String channel) {
+        OutboundNotificationDTO notification = new OutboundNotificationDTO();
+        notification.setNotificationId(id);
+        notification.setUserId("user-1");
+        notification.setChannel(channel);
+        return notification;
+    }
+
+    private static List<String> ids(List<OutboundNotificationDTO> notifications) {
+        return notifications.stream().map(OutboundNotificationDTO::getNotificationId).toList();
+    }
+}
@@ -0,0 +1,106 @@
+package com.learn.scheduler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Wall-clock tests of the timing wheel: a small tick and wheel size make
+ * deadlines of a few hundred milliseconds go through several overflow levels.
+ */
+class HierarchicalTimingWheelTest {
+
+    private static final long TICK_MS = 5;
+    private static final int WHEEL_SIZE = 4; // Levels span 20, 80, 320, 1280 ms
+
+    private HierarchicalTimingWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        // Tasks run on the driver thread
+        wheel = new HierarchicalTimingWheel("test-wheel", TICK_MS, WHEEL_SIZE, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void runsTasksInDeadlineOrderRegardlessOfInsertionOrder() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        List<Long> offsets = List.of(300L, 40L, 150L, 10L, 600L, 90L);
+        List<Long> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(offsets.size());
+
+        for (long offset : offsets) {
+            wheel.schedule(now + offset, () -> {
+                ran.add(offset);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(10L, 40L, 90L, 150L, 300L, 600L), ran);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesDownToTickPrecision() throws InterruptedException {
+        // Beyond the first three levels: lands in the fourth and cascades down
+        long deadline = System.currentTimeMillis() + 400;
+        long[] ranAt = new long[1];
+        CountDownLatch done = new CountDownLatch(1);
+
+        wheel.schedule(deadline, () -> {
+            ranAt[0] = System.currentTimeMillis();
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(ranAt[0] >= deadline - TICK_MS, "ran " + (deadline - ranAt[0]) + "ms early");
+        // Coarse buckets would only fire at their 80/320 ms boundaries
+        assertTrue(ranAt[0] - deadline < 60, "ran " + (ranAt[0] - deadline) + "ms late");
+    }
+
+    @Test
+    void runsPastDeadlinesImmediately() {
+        List<String> ran = new CopyOnWriteArrayList<>();
+
+        wheel.schedule(System.currentTimeMillis() - 1_000, () -> ran.add("late"));
+
+        assertEquals(List.of("late"), ran);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledTasksNeverRun() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        List<String> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch kept = new CountDownLatch(1);
+
+        HierarchicalTimingWheel.Timeout cancelled = wheel.schedule(now + 50, () -> ran.add("cancelled"));
+        wheel.schedule(now + 100, () -> {
+            ran.add("kept");
+            kept.countDown();
+        });
+        assertEquals(2, wheel.size());
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertEquals(1, wheel.size());
+
+        assertTrue(kept.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("kept"), ran);
+        assertEquals(0, wheel.size());
+    }
+}
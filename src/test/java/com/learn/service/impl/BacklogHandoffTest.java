@@ -0,0 +1,69 @@
+package com.learn.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.learn.model.Notification;
+
+class BacklogHandoffTest {
+
+    private static final Instant V1 = Instant.parse("2026-01-01T10:00:00.123Z");
+    private static final Instant V2 = Instant.parse("2026-01-01T10:00:05.456Z");
+
+    private final BacklogHandoff handoff = new BacklogHandoff();
+
+    @Test
+    void sameVersionOnBothSidesIsDeliveredOnce() {
+        assertTrue(handoff.fromBacklog(notification("n1", V1)));
+        assertFalse(handoff.fromLive(notification("n1", V1)));
+
+        assertTrue(handoff.fromLive(notification("n2", V1)));
+        assertFalse(handoff.fromBacklog(notification("n2", V1)));
+    }
+
+    @Test
+    void liveCopyAfterTheBacklogIsSuppressedOnce() {
+        assertTrue(handoff.fromBacklog(notification("n1", V1)));
+        handoff.backlogDone();
+
+        assertFalse(handoff.fromLive(notification("n1", V1)));
+        assertTrue(handoff.fromLive(notification("n3", V1)));
+    }
+
+    @Test
+    void collapseOverwriteOfABacklogVersionIsDelivered() {
+        assertTrue(handoff.fromBacklog(notification("n1", V1)));
+        handoff.backlogDone();
+
+        // Same ID, newer version arriving live
+        assertTrue(handoff.fromLive(notification("n1", V2)));
+        assertFalse(handoff.fromLive(notification("n1", V1)));
+    }
+
+    @Test
+    void secondLiveVersionBeforeTheBacklogEndsIsDelivered() {
+        assertTrue(handoff.fromLive(notification("n1", V1)));
+        assertTrue(handoff.fromLive(notification("n1", V2)));
+
+        // The backlog read the newer version: already delivered live
+        assertFalse(handoff.fromBacklog(notification("n1", V2)));
+    }
+
+    @Test
+    void comparesCreationTimesAtStoredPrecision() {
+        // Published in-process with nanoseconds, read back from the store in milliseconds
+        assertTrue(handoff.fromLive(notification("n1", V1.plusNanos(789_000))));
+        assertFalse(handoff.fromBacklog(notification("n1", V1)));
+    }
+
+    private static Notification notification(String id, Instant createdAt) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setTimestamps(new Notification.NotificationTimestamps(createdAt, null, null));
+        return notification;
+    }
+}
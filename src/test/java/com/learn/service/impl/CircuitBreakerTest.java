@@ -0,0 +1,84 @@
+package com.learn.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 50;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(3, TimeUnit.MILLISECONDS.toNanos(OPEN_MS));
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryPass());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryPass());
+    }
+
+    @Test
+    void successResetsTheFailureCount() {
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void halfOpensAfterTheOpenTimeWithASingleTrial() throws InterruptedException {
+        open();
+
+        TimeUnit.MILLISECONDS.sleep(OPEN_MS + 10);
+        assertTrue(breaker.tryPass());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        // Only one trial at a time
+        assertFalse(breaker.tryPass());
+    }
+
+    @Test
+    void successfulTrialCloses() throws InterruptedException {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN_MS + 10);
+        assertTrue(breaker.tryPass());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryPass());
+        assertTrue(breaker.tryPass());
+    }
+
+    @Test
+    void failedTrialReopensForAnotherOpenTime() throws InterruptedException {
+        open();
+        TimeUnit.MILLISECONDS.sleep(OPEN_MS + 10);
+        assertTrue(breaker.tryPass());
+
+        // A single failure is enough while half-open
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryPass());
+
+        TimeUnit.MILLISECONDS.sleep(OPEN_MS + 10);
+        assertTrue(breaker.tryPass());
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            breaker.onFailure();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+}
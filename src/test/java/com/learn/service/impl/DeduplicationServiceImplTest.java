@@ -0,0 +1,152 @@
+package com.learn.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.learn.dto.NotificationRequestDTO;
+import com.learn.model.NotificationDedupEntry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Local window of the deduplication service; the store is mocked to always
+ * accept the claim unless a test says otherwise.
+ */
+class DeduplicationServiceImplTest {
+
+    private static final long WINDOW_MS = 400;
+    private static final int BUCKETS = 4; // 100 ms slots
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReactiveMongoTemplate mongoTemplate;
+    private DeduplicationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(ReactiveMongoTemplate.class);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(NotificationDedupEntry.class)))
+                .thenReturn(Mono.empty());
+        when(mongoTemplate.remove(any(Query.class), eq(NotificationDedupEntry.class)))
+                .thenReturn(Mono.empty());
+
+        service = new DeduplicationServiceImpl(mongoTemplate, meterRegistry);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "windowMs", WINDOW_MS);
+        ReflectionTestUtils.setField(service, "buckets", BUCKETS);
+        ReflectionTestUtils.setField(service, "maxEntriesPerBucket", 100);
+        service.init();
+    }
+
+    @Test
+    void repeatWithinTheWindowIsAMemoryHit() {
+        assertEquals(true, service.claim(request(Map.of("code", "1234")), "n1").block());
+        assertEquals(false, service.claim(request(Map.of("code", "1234")), "n2").block());
+        // Different content is not a duplicate
+        assertEquals(true, service.claim(request(Map.of("code", "5678")), "n3").block());
+
+        verifyClaims(2);
+        assertEquals(1.0, meterRegistry.counter("notification.dedup.hits", "tier", "memory").count());
+    }
+
+    @Test
+    void parameterOrderDoesNotMatter() {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("first", 1);
+        params.put("second", 2);
+        Map<String, Object> reordered = new LinkedHashMap<>();
+        reordered.put("second", 2);
+        reordered.put("first", 1);
+
+        assertEquals(true, service.claim(request(params), "n1").block());
+        assertEquals(false, service.claim(request(reordered), "n2").block());
+    }
+
+    @Test
+    void hashesExpireWhenTheirSlotLeavesTheWindow() throws InterruptedException {
+        assertEquals(true, service.claim(request(Map.of("code", "1234")), "n1").block());
+
+        // One slot later: still in the window
+        TimeUnit.MILLISECONDS.sleep(WINDOW_MS / BUCKETS);
+        assertEquals(false, service.claim(request(Map.of("code", "1234")), "n2").block());
+        verifyClaims(1);
+
+        // Past the window the slot has rotated out; the store decides again
+        TimeUnit.MILLISECONDS.sleep(WINDOW_MS + WINDOW_MS / BUCKETS);
+        assertEquals(true, service.claim(request(Map.of("code", "1234")), "n3").block());
+        verifyClaims(2);
+    }
+
+    @Test
+    void rotatedSlotDropsTheHashesOfTheLastWindow() throws InterruptedException {
+        assertEquals(true, service.claim(request(Map.of("code", "old")), "n1").block());
+
+        // A full window later new hashes go to rotated slots; the old one is stale
+        TimeUnit.MILLISECONDS.sleep(WINDOW_MS + WINDOW_MS / BUCKETS);
+        assertEquals(true, service.claim(request(Map.of("code", "new")), "n2").block());
+
+        assertEquals(true, service.claim(request(Map.of("code", "old")), "n3").block());
+        assertEquals(false, service.claim(request(Map.of("code", "new")), "n4").block());
+        verifyClaims(3);
+    }
+
+    @Test
+    void liveClaimElsewhereIsRememberedLocally() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(NotificationDedupEntry.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("claimed by another node")));
+
+        assertEquals(false, service.claim(request(Map.of("code", "1234")), "n1").block());
+        assertEquals(false, service.claim(request(Map.of("code", "1234")), "n2").block());
+
+        verifyClaims(1);
+        assertEquals(1.0, meterRegistry.counter("notification.dedup.hits", "tier", "store").count());
+    }
+
+    @Test
+    void storeErrorsFailOpen() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(NotificationDedupEntry.class)))
+                .thenReturn(Mono.error(new IllegalStateException("store down")));
+
+        assertEquals(true, service.claim(request(Map.of("code", "1234")), "n1").block());
+    }
+
+    @Test
+    void releaseForgetsTheHash() {
+        assertEquals(true, service.claim(request(Map.of("code", "1234")), "n1").block());
+        service.release(request(Map.of("code", "1234")), "n1").block();
+
+        assertEquals(true, service.claim(request(Map.of("code", "1234")), "n2").block());
+        verifyClaims(2);
+    }
+
+    private void verifyClaims(int count) {
+        verify(mongoTemplate, times(count)).upsert(any(Query.class), any(Update.class),
+                eq(NotificationDedupEntry.class));
+    }
+
+    private static NotificationRequestDTO request(Map<String, Object> params) {
+        NotificationRequestDTO request = new NotificationRequestDTO();
+        request.setUserId("user-1");
+        request.setTemplateId("otp");
+        request.setChannel("IN_APP");
+        request.setParams(params);
+        return request;
+    }
+}
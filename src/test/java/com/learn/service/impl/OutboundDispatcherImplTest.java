@@ -0,0 +1,161 @@
+package com.learn.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.learn.dto.OutboundNotificationDTO;
+import com.learn.model.Notification;
+import com.learn.service.OutboundProvider;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.test.StepVerifier;
+
+/**
+ * Dispatcher lanes in front of the fake provider.
+ */
+class OutboundDispatcherImplTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final FakeOutboundProvider provider = new FakeOutboundProvider();
+    private OutboundDispatcherImpl dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void sendsFullBatchesAndTheRemainderAfterTheLinger() {
+        dispatcher = dispatcher(0.0);
+
+        StepVerifier.create(dispatcher.dispatchAll(notifications(25, "EMAIL")))
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        assertEquals(25, provider.getSentCount());
+        assertEquals(3, meterRegistry.summary("notification.outbound.batch.size", "provider", "fake").count());
+        assertEquals(10.0, meterRegistry.summary("notification.outbound.batch.size", "provider", "fake").max());
+        assertEquals(25.0, meterRegistry.counter("notification.outbound.sent", "provider", "fake").count());
+    }
+
+    @Test
+    void countsNotificationsTheProviderRejects() {
+        dispatcher = dispatcher(0.0);
+        OutboundNotificationDTO empty = notification("empty", "SMS");
+        empty.setRenderedContent(Map.of());
+
+        StepVerifier.create(dispatcher.dispatchAll(List.of(notification("n1", "SMS"), empty)))
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        assertEquals(1, provider.getSentCount());
+        assertEquals(1.0, meterRegistry.counter("notification.outbound.rejected", "provider", "fake").count());
+    }
+
+    @Test
+    void dropsChannelsWithoutProvider() {
+        dispatcher = dispatcher(0.0);
+
+        StepVerifier.create(dispatcher.dispatchAll(List.of(notification("n1", "FAX"))))
+                .expectComplete()
+                .verify(TIMEOUT);
+
+        assertEquals(0, provider.getSentCount());
+        assertEquals(1.0, meterRegistry.counter("notification.outbound.unroutable", "channel", "fax").count());
+    }
+
+    @Test
+    void failingProviderFailsTheBatchAndOpensTheCircuit() {
+        dispatcher = dispatcher(1.0);
+
+        // Two attempts, two failures: the breaker opens
+        StepVerifier.create(dispatcher.dispatchAll(List.of(notification("n1", "PUSH"))))
+                .expectErrorMessage("Simulated provider failure")
+                .verify(TIMEOUT);
+        assertEquals(1.0, meterRegistry.get("notification.outbound.circuit.open").gauge().value());
+
+        // Refused without calling the provider
+        StepVerifier.create(dispatcher.dispatchAll(List.of(notification("n2", "PUSH"))))
+                .expectErrorMessage("Circuit of provider fake is open")
+                .verify(TIMEOUT);
+        assertEquals(2.0, meterRegistry.counter("notification.outbound.failed", "provider", "fake").count());
+    }
+
+    @Test
+    void lingeringBatchesWaitWhileEveryCallIsBusy() {
+        // One call at a time, each taking longer than the linger
+        dispatcher = dispatcher(0.0, 200L, 1);
+
+        StepVerifier.create(dispatcher.dispatchAll(notifications(25, "EMAIL")))
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertEquals(25, provider.getSentCount());
+
+        // The lane is still alive
+        StepVerifier.create(dispatcher.dispatchAll(notifications(3, "EMAIL")))
+                .expectComplete()
+                .verify(TIMEOUT);
+        assertEquals(28, provider.getSentCount());
+    }
+
+    private OutboundDispatcherImpl dispatcher(double failureRate) {
+        return dispatcher(failureRate, 0L, 2);
+    }
+
+    @SuppressWarnings("unchecked")
+    private OutboundDispatcherImpl dispatcher(double failureRate, long latencyMs, int concurrency) {
+        ReflectionTestUtils.setField(provider, "latencyMs", latencyMs);
+        ReflectionTestUtils.setField(provider, "failureRate", failureRate);
+        ObjectProvider<OutboundProvider> providers = mock(ObjectProvider.class);
+        when(providers.orderedStream()).thenReturn(Stream.of(provider));
+
+        OutboundDispatcherImpl dispatcher = new OutboundDispatcherImpl(providers, new MockEnvironment(),
+                meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "routesConfig", "");
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "lingerMs", 50L);
+        ReflectionTestUtils.setField(dispatcher, "concurrency", concurrency);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 256);
+        ReflectionTestUtils.setField(dispatcher, "ratePerSecond", 10_000.0);
+        ReflectionTestUtils.setField(dispatcher, "burst", 100);
+        ReflectionTestUtils.setField(dispatcher, "callTimeoutMs", 1_000L);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 2);
+        ReflectionTestUtils.setField(dispatcher, "retryBackoffMs", 1L);
+        ReflectionTestUtils.setField(dispatcher, "failureThreshold", 2);
+        ReflectionTestUtils.setField(dispatcher, "openMs", 60_000L);
+        dispatcher.init();
+        return dispatcher;
+    }
+
+    private static List<OutboundNotificationDTO> notifications(int count, String channel) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> notification("n" + i, channel))
+                .toList();
+    }
+
+    private static OutboundNotificationDTO notification(String id, String channel) {
+        OutboundNotificationDTO notification = new OutboundNotificationDTO();
+        notification.setNotificationId(id);
+        notification.setUserId("user-1");
+        notification.setChannel(channel);
+        notification.setRenderedContent(Map.of("en", new Notification.RenderedContent("Subject", "Body")));
+        return notification;
+    }
+}
@@ -0,0 +1,143 @@
+package com.learn.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Deficit round robin with a single processing slot: a gate task holds the
+ * slot while the sources' backlogs are queued, then the dispatch order is
+ * checked once it completes.
+ */
+class SourceFairSchedulerImplTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> dispatched = new CopyOnWriteArrayList<>();
+
+    @Test
+    void sharesSlotsInProportionToWeights() {
+        SourceFairSchedulerImpl scheduler = scheduler(true, 1, 100, "heavy:3");
+        Sinks.Empty<Void> gate = holdSlot(scheduler);
+
+        for (int i = 0; i < 30; i++) {
+            assertTrue(scheduler.offer("heavy", task("heavy")));
+            assertTrue(scheduler.offer("light", task("light")));
+        }
+        gate.tryEmitEmpty();
+
+        assertEquals(60, dispatched.size());
+        // Both backlogged: three heavy per light
+        List<String> bothBacklogged = dispatched.subList(0, 40);
+        assertEquals(30, bothBacklogged.stream().filter("heavy"::equals).count());
+        assertEquals(List.of("heavy", "heavy", "heavy", "light", "heavy", "heavy", "heavy", "light"),
+                dispatched.subList(0, 8));
+        // Then the light source has the slot to itself
+        assertTrue(dispatched.subList(40, 60).stream().allMatch("light"::equals));
+    }
+
+    @Test
+    void equalWeightsAlternate() {
+        SourceFairSchedulerImpl scheduler = scheduler(true, 1, 100, "");
+        Sinks.Empty<Void> gate = holdSlot(scheduler);
+
+        // A flooding source does not delay the other one
+        for (int i = 0; i < 20; i++) {
+            scheduler.offer("flood", task("flood"));
+        }
+        scheduler.offer("quiet", task("quiet"));
+        scheduler.offer("quiet", task("quiet"));
+        gate.tryEmitEmpty();
+
+        assertEquals(List.of("flood", "quiet", "flood", "quiet", "flood"), dispatched.subList(0, 5));
+    }
+
+    @Test
+    void idleSourceForfeitsItsCredit() {
+        SourceFairSchedulerImpl scheduler = scheduler(true, 1, 100, "bursty:3");
+        Sinks.Empty<Void> gate = holdSlot(scheduler);
+
+        // One task leaves two unused credits when the source goes idle
+        scheduler.offer("bursty", task("bursty"));
+        for (int i = 0; i < 4; i++) {
+            scheduler.offer("steady", task("steady"));
+        }
+        gate.tryEmitEmpty();
+        assertEquals(List.of("bursty", "steady", "steady", "steady", "steady"), dispatched);
+
+        // Back with a backlog: starts a fresh round of three, not five
+        dispatched.clear();
+        gate = holdSlot(scheduler);
+        for (int i = 0; i < 5; i++) {
+            scheduler.offer("bursty", task("bursty"));
+        }
+        scheduler.offer("steady", task("steady"));
+        gate.tryEmitEmpty();
+        assertEquals(List.of("bursty", "bursty", "bursty", "steady", "bursty", "bursty"), dispatched);
+    }
+
+    @Test
+    void rejectsBeyondTheSourceQuota() {
+        SourceFairSchedulerImpl scheduler = scheduler(true, 1, 2, "");
+        Sinks.Empty<Void> gate = holdSlot(scheduler);
+
+        assertTrue(scheduler.offer("source", task("source")));
+        assertTrue(scheduler.offer("source", task("source")));
+        assertFalse(scheduler.offer("source", task("source")));
+        // Other sources have their own quota
+        assertTrue(scheduler.offer("other-source", task("other-source")));
+        assertEquals(1.0, meterRegistry.counter("notification.source.rejected", "source", "source").count());
+
+        gate.tryEmitEmpty();
+        assertEquals(3, dispatched.size());
+        // Dispatched tasks free their quota
+        assertTrue(scheduler.offer("source", task("source")));
+    }
+
+    @Test
+    void runsRightAwayWhenDisabled() {
+        SourceFairSchedulerImpl scheduler = scheduler(false, 1, 1, "");
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(scheduler.offer("source", task("source")));
+        }
+
+        assertEquals(3, dispatched.size());
+    }
+
+    private SourceFairSchedulerImpl scheduler(boolean enabled, int maxInFlight, int maxQueuedPerSource,
+            String weights) {
+        SourceFairSchedulerImpl scheduler = new SourceFairSchedulerImpl(meterRegistry);
+        ReflectionTestUtils.setField(scheduler, "enabled", enabled);
+        ReflectionTestUtils.setField(scheduler, "maxInFlight", maxInFlight);
+        ReflectionTestUtils.setField(scheduler, "maxQueuedPerSource", maxQueuedPerSource);
+        ReflectionTestUtils.setField(scheduler, "maxSources", 10);
+        ReflectionTestUtils.setField(scheduler, "defaultWeight", 1);
+        ReflectionTestUtils.setField(scheduler, "weightsConfig", weights);
+        scheduler.init();
+        return scheduler;
+    }
+
+    /**
+     * Occupies the only processing slot until the returned sink completes
+     */
+    private Sinks.Empty<Void> holdSlot(SourceFairSchedulerImpl scheduler) {
+        Sinks.Empty<Void> gate = Sinks.empty();
+        assertTrue(scheduler.offer("gate", gate::asMono));
+        return gate;
+    }
+
+    private Supplier<Mono<?>> task(String source) {
+        return () -> Mono.fromRunnable(() -> dispatched.add(source));
+    }
+}
@@ -0,0 +1,98 @@
+package com.learn.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketsTest {
+
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsTheBurstThenRejectsWithTheWait() {
+        TokenBuckets buckets = new TokenBuckets(3, 1.0, 10, 4);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, buckets.tryAcquire("user"));
+        }
+
+        long wait = buckets.tryAcquire("user");
+        assertTrue(wait > 0 && wait <= SECOND_NANOS, "wait " + wait);
+        // A rejection does not take a token
+        assertTrue(buckets.tryAcquire("user") <= wait);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() throws InterruptedException {
+        // One token every 50 ms
+        TokenBuckets buckets = new TokenBuckets(1, 20.0, 10, 4);
+
+        assertEquals(0L, buckets.tryAcquire("user"));
+        long wait = buckets.tryAcquire("user");
+        assertTrue(wait > 0);
+
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(0L, buckets.tryAcquire("user"));
+        assertTrue(buckets.tryAcquire("user") > 0);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        TokenBuckets buckets = new TokenBuckets(1, 1.0, 10, 4);
+
+        assertEquals(0L, buckets.tryAcquire("first"));
+        assertTrue(buckets.tryAcquire("first") > 0);
+        assertEquals(0L, buckets.tryAcquire("second"));
+        assertEquals(2, buckets.size());
+    }
+
+    @Test
+    void releaseGivesTheTokenBack() {
+        TokenBuckets buckets = new TokenBuckets(1, 1.0, 10, 4);
+
+        assertEquals(0L, buckets.tryAcquire("user"));
+        buckets.release("user");
+
+        assertEquals(0L, buckets.tryAcquire("user"));
+        assertTrue(buckets.tryAcquire("user") > 0);
+    }
+
+    @Test
+    void evictsOnlyRefilledBuckets() throws InterruptedException {
+        TokenBuckets buckets = new TokenBuckets(10, 20.0, 10, 4);
+
+        // Refilled after 50 ms
+        assertEquals(0L, buckets.tryAcquire("idle"));
+        // Drained: refilled only after 500 ms
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0L, buckets.tryAcquire("busy"));
+        }
+        TimeUnit.MILLISECONDS.sleep(100);
+
+        assertEquals(1, buckets.evictIdle());
+        assertEquals(1, buckets.size());
+        assertTrue(buckets.tryAcquire("busy") > 0);
+        // An evicted key starts over with a full bucket, as if it had been kept
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0L, buckets.tryAcquire("idle"));
+        }
+    }
+
+    @Test
+    void keysBeyondTheLimitShareOverflowStripes() {
+        TokenBuckets buckets = new TokenBuckets(2, 1.0, 1, 1);
+
+        assertEquals(0L, buckets.tryAcquire("tracked"));
+        // A single stripe: both keys draw from the same bucket
+        assertEquals(0L, buckets.tryAcquire("first"));
+        assertEquals(0L, buckets.tryAcquire("second"));
+        assertTrue(buckets.tryAcquire("first") > 0);
+        assertTrue(buckets.tryAcquire("second") > 0);
+
+        assertEquals(1, buckets.size());
+        assertEquals(0L, buckets.tryAcquire("tracked"));
+    }
+}